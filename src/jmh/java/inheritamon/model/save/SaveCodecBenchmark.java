@@ -0,0 +1,139 @@
+package inheritamon.model.save;
+
+import inheritamon.model.player.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Jeremias
+ * Compares the binary save format with the Java serialization that was
+ * used before, in memory so the disk does not count. The allocation per
+ * save is reported by the gc profiler, the size of the saves is printed
+ * when a benchmark starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SaveCodecBenchmark {
+
+    /**
+     * The number of items in the inventory
+     */
+    @Param({"100", "1000", "10000"})
+    public int items;
+
+    /**
+     * The number of objects on the first map of the world
+     */
+    @Param({"5000"})
+    public int objects;
+
+    private Player player;
+    private byte[] encoded;
+    private byte[] serialized;
+
+    /**
+     * Creates the player and its saves
+     *
+     * @throws IOException If the player cannot be serialized
+     */
+    @Setup
+    public void setUp() throws IOException {
+        player = SavePlayers.createPlayer(items, objects,
+                new SplittableRandom(2023));
+        encoded = SavePlayers.encodeChecked(player);
+        serialized = serialize(player);
+        System.out.printf(Locale.ROOT, "%n%d items: %d bytes encoded, "
+                + "%d bytes serialized%n", items, encoded.length,
+                serialized.length);
+    }
+
+    /**
+     * Writes the binary save
+     *
+     * @return The save
+     */
+    @Benchmark
+    public byte[] encode() {
+        return SaveCodec.encode(player);
+    }
+
+    /**
+     * Reads the binary save
+     *
+     * @return The player
+     * @throws IOException If the save cannot be read
+     */
+    @Benchmark
+    public Player decode() throws IOException {
+        return SaveCodec.decode(encoded);
+    }
+
+    /**
+     * Checks the binary save by its checksums without reading the player
+     *
+     * @return The save that was checked
+     * @throws IOException If the save is damaged
+     */
+    @Benchmark
+    public byte[] validate() throws IOException {
+        SaveCodec.validate(encoded);
+        return encoded;
+    }
+
+    /**
+     * Writes the player with Java serialization, as the game did before
+     *
+     * @return The serialized player
+     * @throws IOException If the player cannot be serialized
+     */
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return serialize(player);
+    }
+
+    /**
+     * Reads the player with Java serialization, as the game did before
+     *
+     * @return The player
+     * @throws IOException            If the player cannot be read
+     * @throws ClassNotFoundException If a class of the player is missing
+     */
+    @Benchmark
+    public Object deserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    private static byte[] serialize(Player player) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream objects = new ObjectOutputStream(out)) {
+            objects.writeObject(player);
+        }
+        return out.toByteArray();
+    }
+
+}
@@ -0,0 +1,101 @@
+package inheritamon.model.save;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Jeremias
+ * Measures how small and how fast the saves are for every compression
+ * level, to choose the default level. Compresses in memory so the disk
+ * does not count, the size of the saves is printed when a benchmark starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SaveCompressionBenchmark {
+
+    /**
+     * The number of items in the inventory
+     */
+    @Param({"10", "1000", "100000"})
+    public int items;
+
+    /**
+     * The deflate level, 0 writes the save without compression
+     */
+    @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"})
+    public int level;
+
+    private byte[] data;
+    private byte[] file;
+
+    /**
+     * Creates the save and compresses it once for the benchmark that reads
+     * it
+     *
+     * @throws IOException If the save cannot be read back
+     */
+    @Setup
+    public void setUp() throws IOException {
+        data = SavePlayers.encodeChecked(SavePlayers.createPlayer(items, 5000,
+                new SplittableRandom(2023)));
+        file = compress();
+        if (SaveCompression.read(new ByteArrayInputStream(file)).length
+                != data.length) {
+            throw new IOException("Level " + level
+                    + " did not read back the save");
+        }
+        System.out.printf(Locale.ROOT, "%n%d items at level %d: %d bytes "
+                + "encoded, %d bytes compressed (%.1f%%)%n", items, level,
+                data.length, file.length, 100.0 * file.length / data.length);
+    }
+
+    /**
+     * Compresses the save
+     *
+     * @return The compressed save
+     * @throws IOException If the save cannot be compressed
+     */
+    @Benchmark
+    public byte[] compress() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+        if (level > 0) {
+            SaveCompression.write(data, level, Channels.newChannel(out));
+        } else {
+            out.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decompresses the save
+     *
+     * @return The save
+     * @throws IOException If the save cannot be read
+     */
+    @Benchmark
+    public byte[] decompress() throws IOException {
+        return SaveCompression.read(new ByteArrayInputStream(file));
+    }
+
+}
@@ -0,0 +1,129 @@
+package inheritamon.model.save;
+
+import inheritamon.model.player.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * @author Jeremias
+ * Saves and loads through the files like the game does, with every
+ * compression level that is worth choosing. Writing waits until the save
+ * is on the disk, so it measures the disk as much as the code. The size of
+ * the files is printed when a benchmark starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SaveFileBenchmark {
+
+    /**
+     * The number of items in the inventory
+     */
+    @Param({"100", "10000"})
+    public int items;
+
+    /**
+     * The deflate level, 0 writes the save without compression
+     */
+    @Param({"0", "1", "6"})
+    public int level;
+
+    private Player player;
+    private Path directory;
+    private String fileName;
+    private Path path;
+
+    /**
+     * Creates the player and writes its save once for the benchmarks that
+     * read it
+     *
+     * @throws IOException If the save cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        player = SavePlayers.createPlayer(items, 5000,
+                new SplittableRandom(2023));
+        directory = Files.createTempDirectory("inheritamon-bench");
+        fileName = directory.resolve("playerData").toString();
+        path = Path.of(fileName + SaveFiles.EXTENSION);
+
+        byte[] data = SavePlayers.encodeChecked(player);
+        int size = SaveFiles.write(path, data, level);
+        System.out.printf(Locale.ROOT, "%n%d items at level %d: %d bytes "
+                + "encoded, %d bytes on the disk%n", items, level,
+                data.length, size);
+    }
+
+    /**
+     * Removes the saves
+     *
+     * @throws IOException If a save cannot be removed
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Encodes, compresses and writes a full save
+     *
+     * @return The number of bytes written
+     * @throws IOException If the save cannot be written
+     */
+    @Benchmark
+    public int save() throws IOException {
+        return SaveFiles.write(path, SaveCodec.encode(player), level);
+    }
+
+    /**
+     * Reads, decompresses and decodes the save, what loading a save does
+     * without the journal
+     *
+     * @return The player
+     * @throws IOException If the save cannot be read
+     */
+    @Benchmark
+    public Player load() throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return SaveCodec.decode(SaveCompression.read(in));
+        }
+    }
+
+    /**
+     * Checks the save like the slot list does
+     *
+     * @return True if the save is whole
+     */
+    @Benchmark
+    public boolean verify() {
+        return SaveFiles.verify(fileName);
+    }
+
+}
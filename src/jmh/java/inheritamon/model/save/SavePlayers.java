@@ -0,0 +1,91 @@
+package inheritamon.model.save;
+
+import inheritamon.model.data.DataHandler;
+import inheritamon.model.inventory.Inventory;
+import inheritamon.model.inventory.Item;
+import inheritamon.model.npcs.Roster;
+import inheritamon.model.npcs.types.PlayerPokemon;
+import inheritamon.model.player.Player;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * @author Jeremias
+ * Creates the players that the save benchmarks save and load, with a full
+ * roster, a large inventory and many collected objects in the world
+ */
+final class SavePlayers {
+
+    private SavePlayers() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Creates a player with a full roster and the given number of items
+     *
+     * @param items   The number of items in the inventory
+     * @param objects The number of objects on the first map of the world
+     * @param random  The random numbers that choose the pokemon and items
+     * @return The player
+     */
+    static Player createPlayer(int items, int objects,
+                               SplittableRandom random) {
+        DataHandler dataHandler = DataHandler.getInstance();
+        List<String> species = dataHandler.getPokemonNames();
+        List<String> itemNames = dataHandler.getItemRegistry().getNames();
+
+        Roster roster = new Roster();
+        for (int i = 0; i < Roster.MAX_POKEMON; i++) {
+            PlayerPokemon pokemon = new PlayerPokemon(dataHandler.getSpecies(
+                    species.get(random.nextInt(species.size()))));
+            pokemon.setNumericalStat("Level", 1 + random.nextInt(50));
+            pokemon.loseMP(random.nextInt(3));
+            roster.addPokemon(pokemon);
+        }
+
+        ArrayList<Item> inventory = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            inventory.add(new Item(dataHandler.getItem(
+                    itemNames.get(random.nextInt(itemNames.size())))));
+        }
+
+        Player player = new Player(roster,
+                new Inventory(inventory, random.nextInt(100_000)),
+                new ArrayList<>());
+        player.addPlayTime(random.nextLong(1L << 32));
+
+        // Most objects of the first map are collected, a few of the others
+        player.getWorld().setPosition("Map", 960, 1680);
+        for (int i = 0; i < objects; i++) {
+            if (random.nextInt(4) != 0) {
+                player.getWorld().collect("Map", i);
+            }
+            if (random.nextInt(50) == 0) {
+                player.getWorld().collect("Cave", i);
+            }
+        }
+        return player;
+    }
+
+    /**
+     * Encodes a player and checks that the save reads back, a save that
+     * cannot be loaded is not worth measuring
+     *
+     * @param player The player
+     * @return The save
+     * @throws IOException If the save cannot be read back
+     */
+    static byte[] encodeChecked(Player player) throws IOException {
+        byte[] data = SaveCodec.encode(player);
+        int items = player.getInventory().getSize();
+        if (SaveCodec.decode(data).getInventory().getSize() != items) {
+            throw new IOException("The save of " + items
+                    + " items did not read back");
+        }
+        return data;
+    }
+
+}
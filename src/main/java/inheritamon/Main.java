@@ -5,10 +5,16 @@ import inheritamon.view.combat.*;
 import inheritamon.view.menu.*;
 import inheritamon.controller.*;
 import inheritamon.view.world.*;
+import inheritamon.model.data.AssetPreloader;
+import inheritamon.model.data.DataHandler;
 import inheritamon.view.SoundHandler;
 import inheritamon.view.classes.ClassSelectionPanel;
 
 import javax.swing.*;
+import java.awt.Container;
+import java.awt.GraphicsEnvironment;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 public final class Main {
 
@@ -24,20 +30,52 @@ public final class Main {
      */
     public static final int SCREEN_HEIGHT = 768;
 
+    /**
+     * Whether the game exits once the main menu is shown, used to measure
+     * the startup and to train the class data sharing archive
+     */
+    private static final boolean EXIT_AFTER_STARTUP =
+            Boolean.getBoolean("inheritamon.exitAfterStartup");
+
     /**
      * The main method which starts the game.
      *
      * @param args The command line arguments
      */
     public static void main(final String[] args) {
+        StartupTrace.begin();
+
+        DataHandler.getInstance();
+        StartupTrace.mark("Game data");
 
         SoundHandler soundHandler = SoundHandler.getInstance();
         soundHandler.playMusic("StartMenu");
+        StartupTrace.mark("Sound");
+
+        // Decode the assets in the background while the menu is shown
+        AssetPreloader preloader = new AssetPreloader();
+
+        // Without a screen the panels are still created, so a training run
+        // for the class data sharing archive loads the same classes
+        if (GraphicsEnvironment.isHeadless()) {
+            setUpMVC(new JPanel(), preloader);
+            finishStartup();
+            return;
+        }
 
         // Create a frame to display the game
         JFrame frame = new JFrame("Inheritamon");
+        StartupTrace.mark("Frame");
 
-        setUpMVC(frame);
+        setUpMVC(frame.getContentPane(), preloader);
+
+        // The menu has been painted once the events of opening are handled
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                SwingUtilities.invokeLater(Main::finishStartup);
+            }
+        });
 
         // Prevent the user from resizing the window
         // Panel shows up after everything is loaded
@@ -45,13 +83,29 @@ public final class Main {
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setSize(SCREEN_WIDTH, SCREEN_HEIGHT);
         frame.setVisible(true);
+        StartupTrace.mark("Frame shown");
+
+        if (Boolean.parseBoolean(
+                System.getProperty("inheritamon.preload", "true"))
+                && !EXIT_AFTER_STARTUP) {
+            preloader.start();
+        }
+
+    }
+
+    private static void finishStartup() {
+        StartupTrace.mark("First frame");
+        StartupTrace.print();
 
+        if (EXIT_AFTER_STARTUP) {
+            System.exit(0);
+        }
     }
 
-    private static void setUpMVC(final JFrame frame) {
+    private static void setUpMVC(final Container root,
+                                 final AssetPreloader preloader) {
         // Use a border layout
-        frame.setLayout(new BoxLayout(frame.getContentPane(),
-                BoxLayout.Y_AXIS));
+        root.setLayout(new BoxLayout(root, BoxLayout.Y_AXIS));
 
         BattleHandler battleHandler = new BattleHandler();
         GameModel gameModel = GameModel.getInstance();
@@ -59,28 +113,34 @@ public final class Main {
         GameController battleController = new GameController(
                 battleHandler, gameModel
         );
+        StartupTrace.mark("Model and controllers");
 
         // Create the game panel
         GamePanel gamePanel = new GamePanel(battleController, gameModel);
         gamePanel.setVisible(false);
-        frame.add(gamePanel);
+        root.add(gamePanel);
+        StartupTrace.mark("GamePanel");
 
         MenuController menuController = new MenuController(gameModel);
-        MainMenuPanel mainMenu = new MainMenuPanel(menuController, gameModel);
-        frame.add(mainMenu);
+        MainMenuPanel mainMenu = new MainMenuPanel(menuController, gameModel,
+                preloader);
+        root.add(mainMenu);
+        StartupTrace.mark("MainMenuPanel");
 
         ClassSelectionPanel classSelectionPanel = new ClassSelectionPanel(
                 gameModel, menuController
         );
-        frame.add(classSelectionPanel);
+        root.add(classSelectionPanel);
         classSelectionPanel.setVisible(false);
+        StartupTrace.mark("ClassSelectionPanel");
 
         // Create a Panel for the combat screen
         BattlePanel battlePanel = new BattlePanel(
                 battleController, battleHandler, gamePanel
         );
-        frame.add(battlePanel);
+        root.add(battlePanel);
         battlePanel.setVisible(false);
+        StartupTrace.mark("BattlePanel");
     }
 
     private Main() {
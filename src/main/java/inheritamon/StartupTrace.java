@@ -0,0 +1,111 @@
+package inheritamon;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * @author Jeremias
+ * Records how long each phase of the startup takes, from the start of the
+ * JVM until the main menu is shown. A phase ends when it is marked and the
+ * next one starts, so the phases add up to the whole startup.
+ */
+public final class StartupTrace {
+
+    /**
+     * When the main method started, and how long the JVM ran before that
+     */
+    private static long start = System.nanoTime();
+    private static long beforeMain;
+
+    /**
+     * The clock ticks per second of the process times in /proc
+     */
+    private static final int CLOCK_TICKS = 100;
+
+    private static final ArrayList<String> phases = new ArrayList<>();
+    private static final ArrayList<Long> ends = new ArrayList<>();
+
+    private StartupTrace() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Starts the trace, called first thing in the main method
+     */
+    public static synchronized void begin() {
+        start = System.nanoTime();
+        beforeMain = millisSinceJvmStart();
+    }
+
+    private static long millisSinceJvmStart() {
+
+        // On Linux the uptime of the system and the start of the process in
+        // clock ticks are exact to 10 ms, the start instant of ProcessHandle
+        // is only exact to a second
+        try {
+            String uptime = Files.readString(Paths.get("/proc/uptime"));
+            String stat = Files.readString(Paths.get("/proc/self/stat"));
+
+            // The name of the process can contain spaces, so count from
+            // its end. The start time is the 22nd field.
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2)
+                    .split(" ");
+            double systemUptime = Double.parseDouble(
+                    uptime.substring(0, uptime.indexOf(' ')));
+            return Math.round(systemUptime * 1000)
+                    - Long.parseLong(fields[19]) * 1000 / CLOCK_TICKS;
+        } catch (IOException | RuntimeException e) {
+            return ProcessHandle.current().info().startInstant()
+                    .map(processStart -> Duration.between(processStart,
+                            Instant.now()).toMillis())
+                    .orElse(0L);
+        }
+    }
+
+    /**
+     * Ends the current phase
+     *
+     * @param phase The name of the phase that ended
+     */
+    public static synchronized void mark(String phase) {
+        phases.add(phase);
+        ends.add(System.nanoTime());
+    }
+
+    /**
+     * Gets the phases so far as a table with their duration and when they
+     * ended, counted from the start of the JVM
+     *
+     * @return The breakdown of the startup
+     */
+    public static synchronized String getBreakdown() {
+        StringBuilder breakdown = new StringBuilder("Startup timeline\n");
+        breakdown.append(String.format(Locale.ROOT, "  %-24s %8s %8s%n",
+                "Phase", "ms", "at ms"));
+        breakdown.append(String.format(Locale.ROOT, "  %-24s %8d %8d%n",
+                "JVM start to main", beforeMain, beforeMain));
+
+        long previous = start;
+        for (int i = 0; i < phases.size(); i++) {
+            long end = ends.get(i);
+            breakdown.append(String.format(Locale.ROOT,
+                    "  %-24s %8.1f %8.1f%n", phases.get(i),
+                    (end - previous) / 1e6, beforeMain + (end - start) / 1e6));
+            previous = end;
+        }
+        return breakdown.toString();
+    }
+
+    /**
+     * Prints the phases so far
+     */
+    public static void print() {
+        System.out.print(getBreakdown());
+    }
+
+}
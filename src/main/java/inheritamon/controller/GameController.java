@@ -4,6 +4,8 @@ import inheritamon.model.BattleHandler;
 import inheritamon.model.GameModel;
 import inheritamon.model.npcs.types.PlayerPokemon;
 
+import java.beans.PropertyChangeListener;
+
 /**
  * @author Jeremias
  * Controller for the general game state and battle.
@@ -45,6 +47,19 @@ public class GameController {
 
     }
 
+    /**
+     * Selects a move and the enemy it should hit, used in double battles
+     *
+     * @param move   The move to select in the form of a string
+     * @param target The slot of the enemy to hit
+     */
+    public void selectMove(String move, int target) {
+
+        PlayerPokemon playerPokemon = battleHandler.getActivePlayerPokemon();
+        playerPokemon.selectMove(move, target);
+
+    }
+
     /**
      * Selects a pokemon for the player and passes it to the battle handler, used
      * for switching pokemon
@@ -73,13 +88,27 @@ public class GameController {
      */
     public void beginRandomBattle() {
 
-        String[] types = {"random", "attrition", "reckless"};
+        String[] types = {"random", "attrition", "reckless", "tuned"};
 
         // Get a random type
         gameModel.startPokemonBattle(
                 types[(int) (Math.random() * types.length)]);
     }
 
+    /**
+     * Begins a battle against a random trainer
+     */
+    public void beginTrainerBattle() {
+        gameModel.startTrainerBattle(false);
+    }
+
+    /**
+     * Begins a double battle against a random trainer
+     */
+    public void beginDoubleBattle() {
+        gameModel.startTrainerBattle(true);
+    }
+
     /**
      * Requests the model to save the game
      */
@@ -87,6 +116,23 @@ public class GameController {
         gameModel.saveGame();
     }
 
+    /**
+     * Saves the game and waits until it is written, used before exiting
+     */
+    public void saveGameAndWait() {
+        gameModel.saveGame();
+        gameModel.finishSaving();
+    }
+
+    /**
+     * Adds a listener that is told whether a save succeeded
+     *
+     * @param listener The listener to add, called from the writer thread
+     */
+    public void addSaveListener(PropertyChangeListener listener) {
+        gameModel.addSaveListener(listener);
+    }
+
     /**
      * Requests the model to change the game state to the main menu
      */
@@ -1,6 +1,7 @@
 package inheritamon.controller;
 
 import inheritamon.model.GameModel;
+import inheritamon.model.save.SlotSummary;
 
 /**
  * @author Jeremias
@@ -24,9 +25,11 @@ public class MenuController {
 
     /**
      * Requests the game model to start a new game
+     *
+     * @param slot The save slot of the new game
      */
-    public void startGame() {
-        gameModel.startNewGame();
+    public void startGame(int slot) {
+        gameModel.startNewGame(slot);
     }
 
     /**
@@ -42,9 +45,30 @@ public class MenuController {
 
     /**
      * Requests the game model to continue the game
+     *
+     * @param slot The save slot to continue
+     */
+    public void continueGame(int slot) {
+        gameModel.continueGame(slot);
+    }
+
+    /**
+     * Gets the summaries of the save slots
+     *
+     * @return The summaries by slot, null for an empty slot
+     */
+    public SlotSummary[] getSlotSummaries() {
+        return gameModel.getSlotSummaries();
+    }
+
+    /**
+     * Checks if the summaries of the save slots have to be rebuilt from
+     * the saves
+     *
+     * @return True if the summaries should be read in the background
      */
-    public void continueGame() {
-        gameModel.continueGame();
+    public boolean slotsNeedRebuild() {
+        return gameModel.slotsNeedRebuild();
     }
 
 }
@@ -1,5 +1,6 @@
 package inheritamon.model;
 
+import java.beans.IndexedPropertyChangeEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.*;
@@ -9,26 +10,50 @@ import inheritamon.model.data.language.LanguageConfiguration;
 import inheritamon.model.inventory.Inventory;
 import inheritamon.model.inventory.Item;
 import inheritamon.model.npcs.Roster;
+import inheritamon.model.npcs.Trainer;
 import inheritamon.model.npcs.moves.NormalAbility;
 import inheritamon.model.npcs.types.*;
 import inheritamon.model.player.Player;
+import inheritamon.model.simulation.MatchupScorer;
+import inheritamon.model.simulation.OutcomePredictor;
+import inheritamon.model.simulation.TurnPrediction;
+import inheritamon.model.simulation.SimulationData;
 
 /**
  * @author Jeremias
  * A class to handle battles, takes the player and the enemy pokemon as
  * parameters
+ * Wild pokemon are treated as a roster of one, so battles against trainers
+ * with a full roster follow the same loop
+ * Each side fields a number of pokemon at once, one in regular battles and
+ * two in double battles. They act in the order player slot 0, enemy slot 0,
+ * player slot 1, enemy slot 1 and so on.
  */
 public class BattleHandler {
 
+    /**
+     * The maximum number of pokemon each side has in battle at once
+     */
+    public static final int MAX_ACTIVE = 2;
+
+    private static final int PLAYER_SIDE = 0;
+    private static final int ENEMY_SIDE = 1;
+
     /**
      * An Hashmap of all the moves as ability objects
      */
     private final HashMap<String, NormalAbility> moveData;
 
+    /**
+     * The species and moves in their simulated form, used for predictions
+     */
+    private final SimulationData simulationData;
+
     private PropertyChangeListener moveListener;
     private PropertyChangeListener dialogueListener;
     private PropertyChangeListener playerRosterListener;
     private PropertyChangeListener inventoryListener;
+    private PropertyChangeListener predictionListener;
 
     /**
      * The time to wait between each turn
@@ -36,16 +61,18 @@ public class BattleHandler {
     private final int WAIT_TIME = 1000;
 
     /**
-     * Listeners for notifying the player and enemy pokemon of changes to their stats in the view
+     * Listeners for notifying the view of changes to the stats of each
+     * active pokemon, every slot of both sides has its own listener
      */
-    private final PropertyChangeListener[] statListeners =
-            new PropertyChangeListener[2];
+    private final ArrayList<PropertyChangeListener> statListeners =
+            new ArrayList<>();
 
     /**
-     * Listeners for notifying the player and enemy pokemon of changes to their sprites in the view
+     * Listeners for notifying the view of changes to the sprites of each
+     * active pokemon, every slot of both sides has its own listener
      */
-    private final PropertyChangeListener[] spriteListeners =
-            new PropertyChangeListener[2];
+    private final ArrayList<PropertyChangeListener> spriteListeners =
+            new ArrayList<>();
 
     /**
      * Listeners for notifying the game model and the view of changes to the battle state
@@ -53,9 +80,46 @@ public class BattleHandler {
     private final PropertyChangeListener[] battleStateListeners =
             new PropertyChangeListener[2];
 
-    private PlayerPokemon playerPokemon;
-    private Pokemon enemyPokemon;
-    private Roster playerRoster;
+    /**
+     * The rosters of the player and the enemy, indexed by side
+     */
+    private final Roster[] rosters = new Roster[2];
+
+    /**
+     * The pokemon in battle, indexed by side and slot. Empty slots are null.
+     */
+    private final Pokemon[][] active = new Pokemon[2][MAX_ACTIVE];
+
+    /**
+     * Reused every turn to resolve moves without allocating
+     */
+    private final Pokemon[] targets = new Pokemon[MAX_ACTIVE];
+    private final int[] damageDealt = new int[MAX_ACTIVE];
+
+    /**
+     * The number of slots per side in the current battle
+     */
+    private int slots;
+
+    /**
+     * The player pokemon that is choosing a move, read by the GUI thread
+     */
+    private volatile PlayerPokemon choosingPokemon;
+
+    /**
+     * The pokemon whose moves are currently shown in the view
+     */
+    private Pokemon shownMoves;
+
+    /**
+     * The enemy that fainted last, drops the loot
+     */
+    private Pokemon lastFaintedEnemy;
+
+    /**
+     * The trainer that is being fought, null in battles against wild pokemon
+     */
+    private Trainer enemyTrainer;
     private Inventory playerInventory;
     private int turn;
 
@@ -64,46 +128,124 @@ public class BattleHandler {
      */
     public BattleHandler() {
         this.moveData = DataHandler.getInstance().getAllAbilities();
+        this.simulationData = new SimulationData();
     }
 
     /**
-     * A method to start the battle on a different thread
+     * A method to start the battle against a wild pokemon on a different thread
+     *
+     * @param playerData   The data of the player
+     * @param enemyPokemon The wild pokemon
      */
     public void startBattle(Player playerData, Pokemon enemyPokemon) {
 
+        // A wild pokemon is a roster of one
+        Roster wildRoster = new Roster();
+        wildRoster.addPokemon(enemyPokemon);
+
         // Create a new thread
         Thread battleThread = new Thread(
-                () -> battleLoop(playerData, enemyPokemon));
+                () -> battleLoop(playerData, wildRoster, null, 1));
 
         // Start the thread
         battleThread.start();
 
     }
 
-    private void battleLoop(Player playerData, Pokemon enemyPokemon) {
+    /**
+     * A method to start the battle against a trainer on a different thread
+     *
+     * @param playerData The data of the player
+     * @param trainer    The trainer to battle
+     */
+    public void startTrainerBattle(Player playerData, Trainer trainer) {
+
+        Thread battleThread = new Thread(
+                () -> battleLoop(playerData, trainer.getRoster(), trainer, 1));
+
+        battleThread.start();
+
+    }
+
+    /**
+     * A method to start a double battle against a trainer on a different
+     * thread, both sides have two pokemon in battle at once
+     *
+     * @param playerData The data of the player
+     * @param trainer    The trainer to battle
+     */
+    public void startDoubleBattle(Player playerData, Trainer trainer) {
+
+        Thread battleThread = new Thread(
+                () -> battleLoop(playerData, trainer.getRoster(), trainer,
+                        MAX_ACTIVE));
+
+        battleThread.start();
+
+    }
+
+    private void battleLoop(Player playerData, Roster enemyRoster,
+                            Trainer trainer, int slots) {
 
         LanguageConfiguration config = LanguageConfiguration.getInstance();
 
         turn = 0;
         String ability;
-        Pokemon attacker;
-        Pokemon defender;
 
         String formattedString;
-        setUpBattle(playerData, enemyPokemon, config);
+        setUpBattle(playerData, enemyRoster, trainer, slots, config);
+
+        while (!rosters[PLAYER_SIDE].allFainted() &&
+                !rosters[ENEMY_SIDE].allFainted()) {
 
-        while (!playerRoster.allFainted() && enemyPokemon.getHP() > 0) {
+            // Derive who acts from the turn, so the order needs no storage
+            int side = turn % 2;
+            int slot = (turn / 2) % slots;
+            int opposingSide = 1 - side;
+            Pokemon attacker = active[side][slot];
 
-            attacker = (turn % 2 == 0) ? playerPokemon : enemyPokemon;
-            defender = (turn % 2 == 0) ? enemyPokemon : playerPokemon;
+            // Skip slots that could not be filled
+            if (attacker == null) {
+                turn++;
+                continue;
+            }
+
+            int targetSlot = chooseTarget(opposingSide);
+            Pokemon defender = active[opposingSide][targetSlot];
+
+            // Trainers switch instead of attacking when the matchup is bad
+            if (side == ENEMY_SIDE && enemyTrainer != null) {
+                int switchTo = MatchupScorer.chooseSwitch(rosters[ENEMY_SIDE],
+                        active[ENEMY_SIDE], slot, defender, moveData);
+                if (switchTo >= 0) {
+                    switchEnemyPokemon(slot, switchTo, config);
+                    continue;
+                }
+            }
 
             formattedString = String.format(config.getText("TurnStart"),
                     attacker.getName());
             notifyDialogueListener(formattedString);
 
+            // Let the view predict the outcome while the player chooses
+            boolean playerTurn = side == PLAYER_SIDE;
+            if (playerTurn) {
+                choosingPokemon = (PlayerPokemon) attacker;
+                if (shownMoves != attacker) {
+                    notifyMoveListener(attacker);
+                }
+                notifyPredictionListener(predictTurn(attacker, targetSlot));
+            }
+
             // Get the ability to use
             ability = attacker.useMove(defender.getAllNumericalStats());
 
+            // The prediction is no longer needed once the player has chosen
+            if (playerTurn) {
+                notifyPredictionListener(null);
+                targetSlot = getPlayerTarget(targetSlot);
+            }
+
             // Check if the ability is Run
             if (ability.equals("Run")) {
                 handleRun(config);
@@ -112,13 +254,14 @@ public class BattleHandler {
 
             // Add item functionality
             if (ability.startsWith("item")) {
-                handleItemUse(ability);
+                handleItemUse(ability, attacker);
+                handleFaints(config);
                 continue;
             }
 
             // Checked if the ability returned starts with switch
             if (ability.startsWith("switch")) {
-                getPokemonToSwitchTo(playerRoster, enemyPokemon, ability);
+                switchPlayerPokemon(slot, parseIndex(ability), config);
                 continue;
             }
 
@@ -129,13 +272,10 @@ public class BattleHandler {
             notifyDialogueListener(formattedString);
             wait(WAIT_TIME);
 
-            reportDamage(enemyPokemon, ability, attacker, defender);
+            reportDamage(ability, attacker, opposingSide, targetSlot);
 
-            // If the player pokemon fainted, notify the listeners
-            if (playerPokemon.isFainted()) {
-                handleFaint(playerRoster, enemyPokemon, config);
-                continue;
-            }
+            // Replace the pokemon that fainted
+            handleFaints(config);
 
             System.out.println("--------------------------------------");
 
@@ -145,20 +285,113 @@ public class BattleHandler {
 
         String conclusion;
 
-        conclusion = determineConclusion(playerRoster, enemyPokemon);
+        conclusion = determineConclusion(rosters[PLAYER_SIDE],
+                rosters[ENEMY_SIDE]);
         notifyBattleStateListener(conclusion);
     }
 
-    private void reportDamage(Pokemon enemyPokemon, String ability,
-                              Pokemon attacker, Pokemon defender) {
+    /**
+     * Reads the index at the end of a command like "switch 2" or "item 0"
+     * Replaces a regex so that no strings are created every turn
+     *
+     * @param command The command to read the index from
+     * @return The index at the end of the command
+     */
+    private static int parseIndex(String command) {
+        int index = 0;
+        int multiplier = 1;
+        for (int i = command.length() - 1; i >= 0; i--) {
+            char character = command.charAt(i);
+            if (character < '0' || character > '9') {
+                break;
+            }
+            index += (character - '0') * multiplier;
+            multiplier *= 10;
+        }
+        return index;
+    }
+
+    /**
+     * Chooses which pokemon of a side is attacked, the one with the least HP
+     * so that attacks are focused
+     *
+     * @param side The side that is attacked
+     * @return The slot of the target
+     */
+    private int chooseTarget(int side) {
+        int target = -1;
+        for (int i = 0; i < slots; i++) {
+            Pokemon pokemon = active[side][i];
+            if (pokemon != null && (target == -1 ||
+                    pokemon.getHP() < active[side][target].getHP())) {
+                target = i;
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Creates a prediction against every enemy in battle, the player may
+     * target any of them
+     *
+     * @param attacker      The pokemon of the player that chooses
+     * @param defaultTarget The enemy that is attacked if none is chosen
+     * @return The predictions of the turn
+     */
+    private TurnPrediction predictTurn(Pokemon attacker, int defaultTarget) {
+        OutcomePredictor[] predictors = new OutcomePredictor[MAX_ACTIVE];
+        for (int i = 0; i < slots; i++) {
+            Pokemon enemy = active[ENEMY_SIDE][i];
+            if (enemy != null) {
+                predictors[i] = new OutcomePredictor(simulationData,
+                        attacker, enemy);
+            }
+        }
+        return new TurnPrediction(predictors, defaultTarget);
+    }
+
+    private int getPlayerTarget(int defaultTarget) {
+
+        // The player may only pick enemies that are in battle
+        int selected = choosingPokemon.getSelectedTarget();
+        if (selected >= 0 && selected < slots &&
+                active[ENEMY_SIDE][selected] != null) {
+            return selected;
+        }
+        return defaultTarget;
+    }
+
+    private void reportDamage(String ability, Pokemon attacker,
+                              int targetSide, int targetSlot) {
+
+        NormalAbility move = moveData.get(ability);
+
+        // Gather the targets in the reused array
+        int targetCount = 0;
+        if (move.isMultiTarget()) {
+            for (int i = 0; i < slots; i++) {
+                if (active[targetSide][i] != null) {
+                    targets[targetCount++] = active[targetSide][i];
+                }
+            }
+        } else {
+            targets[targetCount++] = active[targetSide][targetSlot];
+        }
+
         // Use the ability
-        Integer damageDealt =
-                moveData.get(ability).executeMove(defender, attacker);
+        int result =
+                move.executeMove(targets, targetCount, attacker, damageDealt);
 
         // Check the damage for display purposes
-        checkDamage(attacker, damageDealt);
+        if (result < 0) {
+            checkDamage(attacker, result);
+        } else {
+            for (int i = 0; i < targetCount; i++) {
+                checkDamage(attacker, targets[i], damageDealt[i]);
+            }
+        }
 
-        notifyStatListener(playerPokemon, enemyPokemon);
+        notifyStatListener();
         wait(WAIT_TIME);
     }
 
@@ -170,60 +403,161 @@ public class BattleHandler {
         notifyBattleStateListener("Draw");
     }
 
-    private void setUpBattle(Player playerData, Pokemon enemyPokemon,
+    private void setUpBattle(Player playerData, Roster enemyRoster,
+                             Trainer trainer, int slots,
                              LanguageConfiguration config) {
-        this.playerRoster = playerData.getRoster();
-
-        int playerPokemonIndex = playerRoster.getAlivePokemon();
-        playerPokemon = (PlayerPokemon) playerRoster.getPokemon(playerPokemonIndex);
-        this.enemyPokemon = enemyPokemon;
+        this.slots = slots;
+        this.rosters[PLAYER_SIDE] = playerData.getRoster();
+        this.rosters[ENEMY_SIDE] = enemyRoster;
+        this.enemyTrainer = trainer;
         this.playerInventory = playerData.getInventory();
+        this.shownMoves = null;
+        this.lastFaintedEnemy = null;
+
+        // Load the sprites of both rosters now, so that switching pokemon
+        // does not have to wait for them
+        preloadSprites(rosters[PLAYER_SIDE]);
+        preloadSprites(enemyRoster);
+
+        // Fill the slots with the first pokemon that can fight
+        for (int side = 0; side < 2; side++) {
+            Arrays.fill(active[side], null);
+            for (int slot = 0; slot < slots; slot++) {
+                int index = rosters[side].getAlivePokemon(active[side]);
+                if (index >= 0) {
+                    active[side][slot] = rosters[side].getPokemon(index);
+                }
+            }
+        }
+
+        choosingPokemon = (PlayerPokemon) active[PLAYER_SIDE][0];
 
-        notifyStatListener(playerPokemon, enemyPokemon);
-        notifyMoveListener(playerPokemon);
-        notifyPokemonSpriteListener(playerPokemon, enemyPokemon);
+        notifyStatListener();
+        notifyMoveListener(choosingPokemon);
+        notifyPokemonSpriteListener();
         notifyPlayerRosterListener();
         notifyInventoryListener();
         notifyBattleStateListener("Start");
 
         // Beginning of the battle
         // Get the BattleStart string from language config
-        String formattedString = String.format(config.getText("BattleStart"),
-                enemyPokemon.getName());
+        String formattedString;
+        Pokemon leader = active[ENEMY_SIDE][0];
+        if (trainer == null) {
+            formattedString = String.format(config.getText("BattleStart"),
+                    leader.getName());
+        } else {
+            formattedString =
+                    String.format(config.getText("TrainerBattleStart"),
+                            trainer.getName(), leader.getName());
+        }
         notifyDialogueListener(formattedString);
         wait(WAIT_TIME);
+
+        // Announce the other pokemon of the trainer
+        for (int slot = 1; slot < slots; slot++) {
+            if (active[ENEMY_SIDE][slot] != null) {
+                showEnemyPokemon(slot, config);
+            }
+        }
     }
 
-    private void handleFaint(Roster playerRoster, Pokemon enemyPokemon,
-                             LanguageConfiguration config) {
-        String formattedString;
-        formattedString = String.format(config.getText("Fainted"),
-                playerPokemon.getName());
-        notifyDialogueListener(formattedString);
-        wait(WAIT_TIME);
+    private void preloadSprites(Roster roster) {
+        String[] names = new String[roster.getSize()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = roster.getPokemon(i).getName();
+        }
+        DataHandler.getInstance().preloadPokemonSprites(names);
+    }
+
+    /**
+     * Announces every pokemon that fainted and fills its slot with the next
+     * pokemon of its roster, if there is one
+     */
+    private void handleFaints(LanguageConfiguration config) {
+
+        for (int side = 0; side < 2; side++) {
+            for (int slot = 0; slot < slots; slot++) {
+
+                Pokemon pokemon = active[side][slot];
+                if (pokemon == null || !pokemon.isFainted()) {
+                    continue;
+                }
+
+                String formattedString = String.format(
+                        config.getText("Fainted"), pokemon.getName());
+                notifyDialogueListener(formattedString);
+                wait(WAIT_TIME);
+
+                if (side == PLAYER_SIDE) {
+                    replacePlayerPokemon(slot, config);
+                } else {
+                    lastFaintedEnemy = pokemon;
+                    replaceEnemyPokemon(slot, config);
+                }
+            }
+        }
+    }
+
+    private void replacePlayerPokemon(int slot,
+                                      LanguageConfiguration config) {
+        Roster playerRoster = rosters[PLAYER_SIDE];
+        int index = playerRoster.getAlivePokemon(active[PLAYER_SIDE]);
 
-        // Get the next pokemon if there is one
-        if (!playerRoster.allFainted()) {
-            getPokemonToSwitchTo(playerRoster, enemyPokemon,
-                    "switch" + playerRoster.getAlivePokemon());
+        if (index >= 0) {
+            putPlayerPokemon(slot, index, config);
+        } else {
+            active[PLAYER_SIDE][slot] = null;
+            notifyPokemonSpriteListener();
         }
 
         // Notify the roster listener
         notifyPlayerRosterListener();
     }
 
+    private void replaceEnemyPokemon(int slot, LanguageConfiguration config) {
+
+        // Send out the pokemon with the best matchup
+        int target = chooseTarget(PLAYER_SIDE);
+        int index = target < 0 ? -1 : MatchupScorer.chooseReplacement(
+                rosters[ENEMY_SIDE], active[ENEMY_SIDE],
+                active[PLAYER_SIDE][target], moveData);
+
+        if (index >= 0) {
+            active[ENEMY_SIDE][slot] = rosters[ENEMY_SIDE].getPokemon(index);
+            showEnemyPokemon(slot, config);
+        } else {
+            active[ENEMY_SIDE][slot] = null;
+            notifyPokemonSpriteListener();
+        }
+    }
+
+    private void switchEnemyPokemon(int slot, int index,
+                                    LanguageConfiguration config) {
+        active[ENEMY_SIDE][slot] = rosters[ENEMY_SIDE].getPokemon(index);
+        showEnemyPokemon(slot, config);
+
+        // Switching takes up the turn
+        turn++;
+    }
+
+    private void showEnemyPokemon(int slot, LanguageConfiguration config) {
+        notifyPokemonSpriteListener();
+        notifyStatListener();
+
+        String formattedString = String.format(config.getText("SendOut"),
+                enemyTrainer.getName(), active[ENEMY_SIDE][slot].getName());
+        notifyDialogueListener(formattedString);
+        wait(WAIT_TIME);
+    }
+
     private String determineConclusion(Roster playerRoster,
-                                       Pokemon enemyPokemon) {
+                                       Roster enemyRoster) {
 
-        String formattedString;
         LanguageConfiguration config = LanguageConfiguration.getInstance();
 
         String conclusion;
-        if (enemyPokemon.getHP() <= 0) {
-            formattedString = String.format(config.getText("Fainted"),
-                    enemyPokemon.getName());
-            notifyDialogueListener(formattedString);
-            wait(WAIT_TIME);
+        if (enemyRoster.allFainted()) {
             notifyDialogueListener(config.getText("Victory"));
             wait(WAIT_TIME);
             handleLoot();
@@ -246,10 +580,10 @@ public class BattleHandler {
         DataHandler dataHandler = DataHandler.getInstance();
         LanguageConfiguration config = LanguageConfiguration.getInstance();
 
-        // Get the loot from the enemy pokemon
-        String loot = enemyPokemon.getLoot();
-        Integer coins = enemyPokemon.getNumericalStat("Coins");
-        Item item = new Item(dataHandler.getItemData(loot));
+        // Get the loot from the last enemy pokemon
+        String loot = lastFaintedEnemy.getLoot();
+        Integer coins = lastFaintedEnemy.getNumericalStat("Coins");
+        Item item = new Item(dataHandler.getItem(loot));
         playerInventory.addItem(item);
         playerInventory.addCoins(coins);
 
@@ -261,28 +595,39 @@ public class BattleHandler {
 
     }
 
-    private void getPokemonToSwitchTo(Roster playerRoster,
-                                      Pokemon enemyPokemon, String ability) {
-        System.out.println(ability);
+    private void switchPlayerPokemon(int slot, int pokemonToSwitchTo,
+                                     LanguageConfiguration config) {
+        System.out.println("switch " + pokemonToSwitchTo);
 
-        // Get the pokemon index to switch to using regex
-        int pokemonToSwitchTo =
-                Integer.parseInt(ability.replaceAll("[^0-9]", ""));
-        playerPokemon = (PlayerPokemon) playerRoster.getPokemon(pokemonToSwitchTo);
+        // A pokemon cannot take the place of one that is already fighting
+        Pokemon pokemon = rosters[PLAYER_SIDE].getPokemon(pokemonToSwitchTo);
+        if (Roster.isFielded(pokemon, active[PLAYER_SIDE])) {
+            String formattedString = String.format(
+                    config.getText("AlreadyInBattle"), pokemon.getName());
+            notifyDialogueListener(formattedString);
+            wait(WAIT_TIME);
+            return;
+        }
+
+        putPlayerPokemon(slot, pokemonToSwitchTo, config);
+
+        // Skip the rest of the turn
+        turn++;
+    }
+
+    private void putPlayerPokemon(int slot, int index,
+                                  LanguageConfiguration config) {
+        Pokemon pokemon = rosters[PLAYER_SIDE].getPokemon(index);
+        active[PLAYER_SIDE][slot] = pokemon;
 
         // Notify the listeners
-        notifyMoveListener(playerPokemon);
-        notifyPokemonSpriteListener(playerPokemon, enemyPokemon);
-        notifyStatListener(playerPokemon, enemyPokemon);
+        notifyPokemonSpriteListener();
+        notifyStatListener();
 
-        LanguageConfiguration config = LanguageConfiguration.getInstance();
         String formattedString = String.format(config.getText("Switch"),
-                playerPokemon.getName());
+                pokemon.getName());
         notifyDialogueListener(formattedString);
         wait(WAIT_TIME);
-
-        // Skip the rest of the turn
-        turn++;
     }
 
     private void checkDamage(Pokemon attacker, Integer damageDealt) {
@@ -312,27 +657,60 @@ public class BattleHandler {
 
     }
 
+    private void checkDamage(Pokemon attacker, Pokemon target,
+                             int damageDealt) {
+
+        // With a single enemy it is clear who was hit
+        if (slots == 1) {
+            checkDamage(attacker, damageDealt);
+            return;
+        }
+
+        LanguageConfiguration config = LanguageConfiguration.getInstance();
+        String formattedString;
+
+        if (damageDealt > 0) {
+            formattedString = String.format(config.getText("DamageTo"),
+                    attacker.getName(), damageDealt, target.getName());
+        } else {
+            formattedString = String.format(config.getText("MissTarget"),
+                    attacker.getName(), target.getName());
+        }
+        notifyDialogueListener(formattedString);
+        wait(WAIT_TIME / 2);
+    }
+
     // Code authored by Jona Janssen
-    private void handleItemUse(String ability) {
+    private void handleItemUse(String ability, Pokemon user) {
 
-        // Get the item index to use using regex
-        int itemToUse = Integer.parseInt(ability.replaceAll("[^0-9]", ""));
+        // Get the item index to use
+        int itemToUse = parseIndex(ability);
 
         // Get the item
         Item item = playerInventory.getItem(itemToUse);
+        LanguageConfiguration config = LanguageConfiguration.getInstance();
+
+        // Pokemon of other trainers cannot be caught, the pokeball is kept
+        // and the player chooses again
+        if (enemyTrainer != null && item.getItemType().equals("Pokeball")) {
+            notifyDialogueListener(config.getText("CannotCapture"));
+            wait(WAIT_TIME);
+            return;
+        }
 
         // Remove the item from the inventory
         playerInventory.removeItem(itemToUse);
 
-        LanguageConfiguration config = LanguageConfiguration.getInstance();
         String formattedString =
                 String.format(config.getText("Item"), item.getItemName());
         notifyDialogueListener(formattedString);
         notifyInventoryListener();
         wait(WAIT_TIME);
 
-        // Use the item
-        if (item.useItem(enemyPokemon, playerPokemon, playerRoster)) {
+        // Items are thrown at the enemy that is attacked
+        Pokemon enemyPokemon = active[ENEMY_SIDE][chooseTarget(ENEMY_SIDE)];
+
+        if (item.useItem(enemyPokemon, user, rosters[PLAYER_SIDE])) {
             // End the battle
             enemyPokemon.killPokemon();
             formattedString = String.format(config.getText("Capture"),
@@ -343,7 +721,7 @@ public class BattleHandler {
 
         // Notify the listeners
         notifyInventoryListener();
-        notifyStatListener(playerPokemon, enemyPokemon);
+        notifyStatListener();
 
         // Skip the rest of the turn
         turn++;
@@ -379,13 +757,14 @@ public class BattleHandler {
     public void addListener(String listenerType,
                             PropertyChangeListener listener) {
         switch (listenerType) {
-            case "pokemonSprite" -> addListener(spriteListeners, listener);
-            case "stat" -> addListener(statListeners, listener);
+            case "pokemonSprite" -> spriteListeners.add(listener);
+            case "stat" -> statListeners.add(listener);
             case "playerRoster" -> this.playerRosterListener = listener;
             case "inventory" -> this.inventoryListener = listener;
             case "battleState" -> addListener(battleStateListeners, listener);
             case "dialogue" -> this.dialogueListener = listener;
             case "moves" -> this.moveListener = listener;
+            case "prediction" -> this.predictionListener = listener;
             default -> throw new IllegalArgumentException(
                     "Invalid listener type: " + listenerType);
         }
@@ -396,17 +775,35 @@ public class BattleHandler {
                 new PropertyChangeEvent(this, "dialogue", null, dialogue));
     }
 
-    private void notifyPokemonSpriteListener(Pokemon playerPokemon,
-                                             Pokemon enemyPokemon) {
-        spriteListeners[0].propertyChange(
-                new PropertyChangeEvent(this, "playerSprite", null,
-                        playerPokemon.getName()));
-        spriteListeners[1].propertyChange(
-                new PropertyChangeEvent(this, "enemySprite", null,
-                        enemyPokemon.getName()));
+    private void notifyPredictionListener(TurnPrediction prediction) {
+
+        // The prediction is optional, so there may be no listener
+        if (predictionListener != null) {
+            predictionListener.propertyChange(
+                    new PropertyChangeEvent(this, "prediction", null,
+                            prediction));
+        }
+    }
+
+    private void notifyPokemonSpriteListener() {
+
+        // Every slot is sent, empty ones as null so the view can hide them
+        for (int side = 0; side < 2; side++) {
+            String eventName =
+                    side == PLAYER_SIDE ? "playerSprite" : "enemySprite";
+            for (int slot = 0; slot < MAX_ACTIVE; slot++) {
+                Pokemon pokemon = active[side][slot];
+                String name = pokemon == null ? null : pokemon.getName();
+                for (PropertyChangeListener listener : spriteListeners) {
+                    listener.propertyChange(new IndexedPropertyChangeEvent(
+                            this, eventName, null, name, slot));
+                }
+            }
+        }
     }
 
     private void notifyMoveListener(Pokemon playerPokemon) {
+        shownMoves = playerPokemon;
 
         // Create a string array of the moves
         String[] moves = new String[playerPokemon.getMoves().size()];
@@ -418,25 +815,30 @@ public class BattleHandler {
                 new PropertyChangeEvent(this, "moves", null, moves));
     }
 
-    private void notifyStatListener(Pokemon playerPokemon,
-                                    Pokemon enemyPokemon) {
-
-        // Get the stats for the player pokemon
-        int[] playerStats = getPokemonDisplayStats(playerPokemon);
-        statListeners[0].propertyChange(
-                new PropertyChangeEvent(this, "playerStats", null,
-                        playerStats));
-
-        // Get the stats for the enemy pokemon
-        int[] enemyStats = getPokemonDisplayStats(enemyPokemon);
-        statListeners[1].propertyChange(
-                new PropertyChangeEvent(this, "enemyStats", null, enemyStats));
+    private void notifyStatListener() {
+
+        for (int side = 0; side < 2; side++) {
+            String eventName =
+                    side == PLAYER_SIDE ? "playerStats" : "enemyStats";
+            for (int slot = 0; slot < slots; slot++) {
+                Pokemon pokemon = active[side][slot];
+                if (pokemon == null) {
+                    continue;
+                }
+
+                int[] stats = getPokemonDisplayStats(pokemon);
+                for (PropertyChangeListener listener : statListeners) {
+                    listener.propertyChange(new IndexedPropertyChangeEvent(
+                            this, eventName, null, stats, slot));
+                }
+            }
+        }
     }
 
     private void notifyPlayerRosterListener() {
 
         // Create a pokemon array of the pokemon
-        Pokemon[] playerRosterArray = playerRoster.getArray();
+        Pokemon[] playerRosterArray = rosters[PLAYER_SIDE].getArray();
 
         playerRosterListener.propertyChange(
                 new PropertyChangeEvent(this, "playerInventory", null,
@@ -460,12 +862,12 @@ public class BattleHandler {
     }
 
     /**
-     * Gets the player's active pokemon
+     * Gets the player's pokemon that is choosing a move
      *
      * @return The player's active pokemon
      */
     public PlayerPokemon getActivePlayerPokemon() {
-        return playerPokemon;
+        return choosingPokemon;
     }
 
     private void wait(int time) {
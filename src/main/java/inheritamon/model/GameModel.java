@@ -1,15 +1,28 @@
 package inheritamon.model;
 
 import inheritamon.model.data.DataHandler;
+import inheritamon.model.data.Species;
+import inheritamon.model.npcs.AIParameters;
+import inheritamon.model.npcs.Roster;
+import inheritamon.model.npcs.Trainer;
+import inheritamon.model.npcs.types.ParameterizedPokemon;
 import inheritamon.model.npcs.types.AttritionPokemon;
 import inheritamon.model.npcs.types.Pokemon;
 import inheritamon.model.npcs.types.RandomPokemon;
 import inheritamon.model.npcs.types.RecklessPokemon;
 import inheritamon.model.player.Player;
+import inheritamon.model.save.AutosaveScheduler;
+import inheritamon.model.save.SaveResult;
+import inheritamon.model.save.SaveSlots;
+import inheritamon.model.save.SaveWriter;
+import inheritamon.model.save.SlotSummary;
+import inheritamon.model.world.WorldState;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * @author Jeremias
@@ -27,10 +40,25 @@ public class GameModel {
      */
     private final ArrayList<PropertyChangeListener> gameStateListeners =
             new ArrayList<>();
-    private Player playerData;
+    private volatile Player playerData;
+    private volatile int currentSlot;
+    /**
+     * When the play time was last added to the player, -1 while the game is
+     * not being played
+     */
+    private long playTimeMark = -1;
     private BattleHandler battleHandler;
     private PropertyChangeListener rosterListener;
     private PropertyChangeListener itemListener;
+    /**
+     * Listeners for the results of saving, called from the writer thread
+     */
+    private final CopyOnWriteArrayList<PropertyChangeListener> saveListeners =
+            new CopyOnWriteArrayList<>();
+    private final SaveWriter saveWriter = new SaveWriter();
+    private final AutosaveScheduler autosaver = new AutosaveScheduler(
+            saveWriter, () -> currentSlot, this::getSaveablePlayer,
+            this::notifySaveListeners);
 
     /**
      * Returns the singleton instance of the game model
@@ -56,10 +84,14 @@ public class GameModel {
 
     /**
      * Creates a new player and notifies the listeners that the game state has
-     * changed
+     * changed. The slot is only overwritten once the starter is chosen.
+     *
+     * @param slot The save slot of the new game
      */
-    public void startNewGame() {
+    public void startNewGame(int slot) {
+        currentSlot = slot;
         playerData = new Player();
+        startPlayTime();
         notifyGameStateListeners(GameState.SELECT_STARTER);
         notifyItemListener();
     }
@@ -67,10 +99,12 @@ public class GameModel {
     /**
      * Loads the player data and notifies the listeners that the game state has
      * changed
+     *
+     * @param slot The save slot to load
      */
-    public void continueGame() {
-        DataHandler dataHandler = DataHandler.getInstance();
-        playerData = (Player) dataHandler.loadState("playerData");
+    public void continueGame(int slot) {
+        currentSlot = slot;
+        playerData = saveWriter.load(slot, this::notifySaveListeners);
 
         // Check if player data is null
         if (playerData == null) {
@@ -79,11 +113,53 @@ public class GameModel {
             return;
         }
 
+        startPlayTime();
         notifyGameStateListeners(GameState.GAME_START);
         notifyRosterListener();
         notifyItemListener();
     }
 
+    /**
+     * Gets the summaries of the save slots for the continue screen. They
+     * are read from the slot index, unless slotsNeedRebuild is true.
+     *
+     * @return The summaries by slot, null for an empty slot
+     */
+    public SlotSummary[] getSlotSummaries() {
+        return SaveSlots.getInstance().getSummaries(saveWriter);
+    }
+
+    /**
+     * Checks if reading the summaries of the save slots loads a save
+     * because the slot index has to be rebuilt
+     *
+     * @return True if the summaries should be read in the background
+     */
+    public boolean slotsNeedRebuild() {
+        return SaveSlots.getInstance().needsRebuild();
+    }
+
+    private synchronized void startPlayTime() {
+        playTimeMark = System.nanoTime();
+    }
+
+    /**
+     * Adds the time since the last call to the play time of the player
+     *
+     * @param stillPlaying False when the player leaves the game
+     */
+    private synchronized void updatePlayTime(boolean stillPlaying) {
+        Player player = playerData;
+        if (playTimeMark >= 0 && player != null) {
+            long now = System.nanoTime();
+            player.addPlayTime((now - playTimeMark) / 1_000_000);
+            playTimeMark = now - (now - playTimeMark) % 1_000_000;
+        }
+        if (!stillPlaying) {
+            playTimeMark = -1;
+        }
+    }
+
     /**
      * Adds the starting pokemon and perk to the player data
      *
@@ -140,33 +216,125 @@ public class GameModel {
         rosterListener.propertyChange(
                 new PropertyChangeEvent(this, "roster", null,
                         playerData.getRoster().getArray()));
+        autosaver.requestSave();
     }
 
     private void notifyItemListener() {
         itemListener.propertyChange(
                 new PropertyChangeEvent(this, "items", null,
                         playerData.getInventory()));
+        autosaver.requestSave();
     }
 
     /**
-     * Saves the player data and world data
+     * Saves the player data and world data in the background, the save
+     * listeners are told when it is done
      */
     public void saveGame() {
-        DataHandler dataHandler = DataHandler.getInstance();
-        dataHandler.saveState(playerData, "playerData");
+        if (playerData == null) {
+            return;
+        }
+        updatePlayTime(true);
+        saveWriter.save(playerData, currentSlot, this::notifySaveListeners);
+    }
+
+    /**
+     * Gets the progress of the player in the world
+     *
+     * @return The world state, null if there is no game
+     */
+    public WorldState getWorldState() {
+        Player player = playerData;
+        return player == null ? null : player.getWorld();
+    }
+
+    /**
+     * Marks an object in the world as collected so it stays gone after the
+     * game is loaded again
+     *
+     * @param map The map of the object
+     * @param id  The id of the object on its map
+     */
+    public void objectCollected(String map, int id) {
+        WorldState world = getWorldState();
+        if (world == null) {
+            return;
+        }
+        world.collect(map, id);
+        autosaver.requestSave();
+    }
+
+    /**
+     * Gets the player if there is anything worth saving, nothing is saved
+     * before the starter is chosen so an old save is not overwritten
+     */
+    private Player getSaveablePlayer() {
+        Player player = playerData;
+        if (player == null || player.getRoster().getSize() == 0) {
+            return null;
+        }
+        updatePlayTime(true);
+        return player;
+    }
+
+    /**
+     * Gets the autosave metrics
+     *
+     * @return How often the game was autosaved and how long it took
+     */
+    public AutosaveScheduler.Metrics getAutosaveMetrics() {
+        return autosaver.getMetrics();
+    }
 
-        // Save the world data later
+    /**
+     * Waits until the saves that were started are written, used before the
+     * game exits
+     */
+    public void finishSaving() {
+        if (!saveWriter.awaitPending(5000)) {
+            System.out.println("Saving did not finish in time");
+        }
+        System.out.println("Autosave: " + autosaver.getMetrics());
+    }
+
+    /**
+     * Adds a listener that is told whether a save succeeded, it is called
+     * from the thread that writes the save
+     *
+     * @param listener The listener to add
+     */
+    public void addSaveListener(PropertyChangeListener listener) {
+        saveListeners.add(listener);
+    }
+
+    private void notifySaveListeners(SaveResult result) {
+        for (PropertyChangeListener listener : saveListeners) {
+            listener.propertyChange(
+                    new PropertyChangeEvent(this, "save", null, result));
+        }
     }
 
     /**
      * Changes the game state to the main menu
      */
     public void returnToMainMenu() {
+        // Save now, the player may quit from the main menu
+        updatePlayTime(false);
+        autosaver.requestSave();
+        autosaver.flush();
         notifyGameStateListeners(GameState.MAIN_MENU);
     }
 
     private void setUpBattleStateListener() {
         battleHandler.addListener("battleState", e -> {
+            // The battle changes the player on its own thread, so the
+            // autosave waits until it is over
+            if ("Start".equals(e.getNewValue())) {
+                autosaver.pause();
+            } else {
+                autosaver.resume();
+            }
+
             notifyRosterListener();
             notifyItemListener();
         });
@@ -193,23 +361,57 @@ public class GameModel {
             return;
         }
 
-        String[] pokemon = dataHandler.getPokemonNames();
-
-        // Get a random pokemon as a string
-        String randomPokemonName =
-                pokemon[(int) (Math.random() * pokemon.length)];
-        Pokemon randomPokemon = switch (type) {
-            case "attrition" -> new AttritionPokemon(
-                    dataHandler.getPokemonData(randomPokemonName));
-            case "reckless" -> new RecklessPokemon(
-                    dataHandler.getPokemonData(randomPokemonName));
-            default -> new RandomPokemon(
-                    dataHandler.getPokemonData(randomPokemonName));
-        };
+        Pokemon randomPokemon =
+                createPokemon(type, dataHandler.getRandomSpecies());
 
         battleHandler.startBattle(playerData, randomPokemon);
     }
 
+    /**
+     * Starts a battle against a random trainer from trainers.csv
+     *
+     * @param doubleBattle Whether both sides fight with two pokemon at once
+     */
+    public void startTrainerBattle(boolean doubleBattle) {
+        DataHandler dataHandler = DataHandler.getInstance();
+
+        if (playerData.getRoster().allFainted()) {
+            System.out.println("All pokemon fainted");
+            return;
+        }
+
+        String[] trainers = dataHandler.getTrainerNames();
+        String trainerName = trainers[(int) (Math.random() * trainers.length)];
+        HashMap<String, String> trainerData =
+                dataHandler.getTrainerData(trainerName);
+
+        // Every pokemon of the trainer uses the AI of the trainer
+        Roster roster = new Roster();
+        for (String pokemonName : trainerData.get("Roster").split(";")) {
+            roster.addPokemon(createPokemon(trainerData.get("AI"),
+                    dataHandler.getSpecies(pokemonName)));
+        }
+
+        Trainer trainer = new Trainer(trainerName, roster);
+        if (doubleBattle) {
+            battleHandler.startDoubleBattle(playerData, trainer);
+        } else {
+            battleHandler.startTrainerBattle(playerData, trainer);
+        }
+    }
+
+    private Pokemon createPokemon(String type, Species species) {
+        DataHandler dataHandler = DataHandler.getInstance();
+
+        return switch (type) {
+            case "attrition" -> new AttritionPokemon(species);
+            case "reckless" -> new RecklessPokemon(species);
+            case "tuned" -> new ParameterizedPokemon(species,
+                    AIParameters.fromData(dataHandler.getAIData("Tuned")));
+            default -> new RandomPokemon(species);
+        };
+    }
+
     /**
      * Returns the player data
      *
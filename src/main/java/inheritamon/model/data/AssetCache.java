@@ -0,0 +1,152 @@
+package inheritamon.model.data;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * @author Jeremias
+ * A cache of decoded assets that is bounded by their size in bytes
+ * The least recently used assets are evicted once the budget is exceeded.
+ * Assets are decoded outside of the lock, so several threads can load
+ * different assets at the same time.
+ *
+ * @param <T> The type of the assets
+ */
+public final class AssetCache<T> {
+
+    /**
+     * Loads an asset, returns null if it does not exist
+     *
+     * @param <T> The type of the asset
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+
+        /**
+         * Loads the asset
+         *
+         * @return The asset, null if it does not exist
+         * @throws IOException If the asset could not be decoded
+         */
+        T load() throws IOException;
+    }
+
+    /**
+     * The assets in order of access, the eldest entry is used the least
+     */
+    private final LinkedHashMap<String, T> entries =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>();
+
+    private final long maxBytes;
+    private final ToLongFunction<T> weigher;
+    private long currentBytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor for the AssetCache class
+     *
+     * @param maxBytes The budget of the cache in bytes
+     * @param weigher  Calculates the size of an asset in bytes
+     */
+    public AssetCache(long maxBytes, ToLongFunction<T> weigher) {
+        this.maxBytes = maxBytes;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Gets an asset, loading it if it is not cached
+     *
+     * @param key    The key of the asset
+     * @param loader Loads the asset when it is not cached
+     * @return The asset, null if it does not exist
+     * @throws IOException If the asset could not be decoded
+     */
+    public T get(String key, Loader<T> loader) throws IOException {
+
+        synchronized (this) {
+            T cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        // Decode without holding the lock
+        T asset = loader.load();
+        if (asset == null) {
+            return null;
+        }
+
+        synchronized (this) {
+
+            // Another thread may have loaded the same asset in the meantime
+            T cached = entries.get(key);
+            if (cached != null) {
+                return cached;
+            }
+
+            // Assets larger than the whole budget are never cached
+            long size = weigher.applyAsLong(asset);
+            if (size > maxBytes) {
+                return asset;
+            }
+
+            entries.put(key, asset);
+            sizes.put(key, size);
+            currentBytes += size;
+            evict();
+            return asset;
+        }
+    }
+
+    /**
+     * Checks whether an asset is cached without changing its recency
+     *
+     * @param key The key of the asset
+     * @return Whether the asset is cached
+     */
+    public synchronized boolean contains(String key) {
+        return sizes.containsKey(key);
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, T>> iterator =
+                entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            String key = iterator.next().getKey();
+            iterator.remove();
+            currentBytes -= sizes.remove(key);
+            evictions++;
+        }
+    }
+
+    /**
+     * Gets the number of bytes that are currently cached
+     *
+     * @return The size of the cached assets in bytes
+     */
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    /**
+     * Gets a summary of the cache for logging
+     *
+     * @return The usage, hits, misses and evictions of the cache
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("%d assets, %d/%d KB, %d hits, %d misses, %d evictions",
+                entries.size(), currentBytes / 1024, maxBytes / 1024, hits,
+                misses, evictions);
+    }
+
+}
@@ -0,0 +1,243 @@
+package inheritamon.model.data;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * @author Jeremias
+ * Decodes the images and audio of the game on a small pool of threads at
+ * startup, so that later scenes find their assets in the cache.
+ * Every finished file is reported to the progress listeners.
+ */
+public final class AssetPreloader {
+
+    /**
+     * The most threads used for decoding, more only compete for the disk
+     */
+    private static final int MAX_THREADS = 4;
+
+    /**
+     * The number of slowest files that are listed once loading is done
+     */
+    private static final int SLOWEST_FILES = 5;
+
+    /**
+     * The folders with images that do not depend on the pokemon data
+     */
+    private static final String[] IMAGE_FOLDERS = {"icons", "battleBackgrounds",
+            "inventorySprites"};
+
+    /**
+     * The folders with audio files, music is streamed while it plays instead
+     */
+    private static final String[] AUDIO_FOLDERS = {"sounds"};
+
+    /**
+     * A file that should be loaded and how long that took
+     */
+    private static final class Asset {
+        private final String folder;
+        private final String name;
+        private final LongSupplier loader;
+        private long nanos;
+
+        private Asset(String folder, String name, LongSupplier loader) {
+            this.folder = folder;
+            this.name = name;
+            this.loader = loader;
+        }
+    }
+
+    private final ArrayList<PropertyChangeListener> progressListeners =
+            new ArrayList<>();
+    private final DataHandler dataHandler = DataHandler.getInstance();
+    private final int threads;
+
+    private final AtomicInteger filesDone = new AtomicInteger();
+    private final AtomicLong bytesLoaded = new AtomicLong();
+    private volatile LoadingProgress progress = new LoadingProgress(0, 0, 0, 0);
+
+    /**
+     * Constructor for the AssetPreloader class, uses one thread per core
+     * up to a maximum of four
+     */
+    public AssetPreloader() {
+        this(Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Constructor for the AssetPreloader class
+     *
+     * @param threads The number of threads that decode assets
+     */
+    public AssetPreloader(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Add a listener for the progress of loading, the new value of the event
+     * is a LoadingProgress. Events are fired from the loading threads.
+     *
+     * @param listener The listener to add
+     */
+    public synchronized void addProgressListener(
+            PropertyChangeListener listener) {
+        progressListeners.add(listener);
+        listener.propertyChange(
+                new PropertyChangeEvent(this, "progress", null, progress));
+    }
+
+    /**
+     * Gets the latest progress of loading
+     *
+     * @return The progress
+     */
+    public LoadingProgress getProgress() {
+        return progress;
+    }
+
+    /**
+     * Starts loading the assets in the background and returns immediately
+     */
+    public void start() {
+        Thread loader = new Thread(this::loadAll, "AssetPreloader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Loads all assets and waits until they are done
+     */
+    public void loadAll() {
+
+        long start = System.nanoTime();
+        List<Asset> assets = findAssets();
+        updateProgress(assets.size(), start);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "AssetDecoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            ArrayList<Callable<Void>> tasks =
+                    new ArrayList<>(assets.size());
+            for (Asset asset : assets) {
+                tasks.add(() -> {
+                    load(asset);
+                    filesDone.incrementAndGet();
+                    updateProgress(assets.size(), start);
+                    return null;
+                });
+            }
+            pool.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            pool.shutdown();
+        }
+
+        logSummary(assets);
+    }
+
+    private List<Asset> findAssets() {
+        ArrayList<Asset> assets = new ArrayList<>();
+
+        // Only the sprites of the pokemon in the data are ever shown
+        for (String pokemonName : dataHandler.getPokemonNames()) {
+            addImage(assets, "battleSprites", pokemonName);
+            addImage(assets, "battleSprites", pokemonName + "Back");
+        }
+
+        // The textures of the world are packed together instead
+        assets.add(new Asset("atlas", "world",
+                () -> dataHandler.getWorldAtlas().getBytes()));
+
+        for (String folder : IMAGE_FOLDERS) {
+            for (String name : dataHandler.getAssetNames(folder, ".png")) {
+                addImage(assets, folder, name);
+            }
+        }
+        for (String folder : AUDIO_FOLDERS) {
+            for (String name : dataHandler.getAssetNames(folder, ".wav")) {
+                assets.add(new Asset(folder, name,
+                        () -> dataHandler.preloadAudio(folder, name)));
+            }
+        }
+        return assets;
+    }
+
+    private void addImage(List<Asset> assets, String folder, String name) {
+        assets.add(new Asset(folder, name,
+                () -> dataHandler.preloadImage(folder, name)));
+    }
+
+    private void load(Asset asset) {
+        long start = System.nanoTime();
+        long bytes;
+        try {
+            bytes = asset.loader.getAsLong();
+        } catch (RuntimeException e) {
+            System.out.println("Could not load " + asset.folder + "/"
+                    + asset.name + ": " + e);
+            return;
+        }
+        asset.nanos = System.nanoTime() - start;
+        bytesLoaded.addAndGet(bytes);
+
+        System.out.println(String.format(Locale.ROOT,
+                "Loaded %s/%s (%d KB) in %.1f ms", asset.folder, asset.name,
+                bytes / 1024, asset.nanos / 1e6));
+    }
+
+    private void updateProgress(int fileCount, long start) {
+        LoadingProgress update = new LoadingProgress(filesDone.get(), fileCount,
+                bytesLoaded.get(), (System.nanoTime() - start) / 1_000_000);
+
+        ArrayList<PropertyChangeListener> listeners;
+        synchronized (this) {
+
+            // Threads can finish out of order, never report going backwards
+            if (update.getFilesDone() < progress.getFilesDone()) {
+                return;
+            }
+            progress = update;
+            listeners = new ArrayList<>(progressListeners);
+        }
+
+        PropertyChangeEvent event =
+                new PropertyChangeEvent(this, "progress", null, update);
+        for (PropertyChangeListener listener : listeners) {
+            listener.propertyChange(event);
+        }
+    }
+
+    private void logSummary(List<Asset> assets) {
+        System.out.println("Loaded assets on " + threads + " threads: "
+                + progress);
+
+        ArrayList<Asset> slowest = new ArrayList<>(assets);
+        slowest.sort(Comparator.comparingLong((Asset asset) -> asset.nanos)
+                .reversed());
+        for (int i = 0; i < Math.min(SLOWEST_FILES, slowest.size()); i++) {
+            Asset asset = slowest.get(i);
+            System.out.println(String.format(Locale.ROOT,
+                    "  slow: %s/%s %.1f ms", asset.folder, asset.name,
+                    asset.nanos / 1e6));
+        }
+        System.out.println(dataHandler.getCacheStatistics());
+    }
+
+}
@@ -0,0 +1,57 @@
+package inheritamon.model.data;
+
+import java.io.IOException;
+
+/**
+ * @author Jeremias
+ * Thrown when a csv file is malformed, tells where the problem is
+ */
+public class CsvException extends IOException {
+
+    private final String source;
+    private final int line;
+    private final int column;
+
+    /**
+     * Constructor for the CsvException class
+     *
+     * @param source  The name of the csv file
+     * @param line    The line of the problem, starting at 1
+     * @param column  The character in the line, starting at 1
+     * @param message What is wrong
+     */
+    public CsvException(String source, int line, int column, String message) {
+        super(source + ":" + line + ":" + column + ": " + message);
+        this.source = source;
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Gets the name of the csv file
+     *
+     * @return The name of the file
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the line of the problem
+     *
+     * @return The line, starting at 1
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Gets the character in the line where the problem is
+     *
+     * @return The column, starting at 1
+     */
+    public int getColumn() {
+        return column;
+    }
+
+}
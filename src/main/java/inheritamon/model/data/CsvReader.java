@@ -0,0 +1,215 @@
+package inheritamon.model.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * @author Jeremias
+ * Reads the records of a csv file one at a time in a single pass.
+ * Fields can be quoted to contain commas, quotes and line breaks, a quote
+ * inside a quoted field is written twice. Empty lines are skipped.
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int END = -1;
+
+    private final Reader reader;
+    private final String source;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    /**
+     * The position of the next character, used for error messages
+     */
+    private int line = 1;
+    private int column = 1;
+
+    /**
+     * The line where the last record started
+     */
+    private int recordLine;
+
+    private final StringBuilder field = new StringBuilder();
+    private final ArrayList<String> fields = new ArrayList<>();
+
+    /**
+     * The character where each field of the last record starts
+     */
+    private int[] fieldColumns = new int[16];
+
+    /**
+     * Constructor for the CsvReader class
+     *
+     * @param reader The characters of the csv file, closed with this reader
+     * @param source The name of the csv file for error messages
+     */
+    public CsvReader(Reader reader, String source) {
+        this.reader = reader;
+        this.source = source;
+    }
+
+    /**
+     * Reads the next record
+     *
+     * @return The fields of the record, null at the end of the file
+     * @throws IOException If the file cannot be read or is malformed
+     */
+    public String[] readRecord() throws IOException {
+
+        // Skip empty lines
+        int next = peek();
+        while (next == '\n' || next == '\r') {
+            readLineBreak();
+            next = peek();
+        }
+        if (next == END) {
+            return null;
+        }
+
+        recordLine = line;
+        fields.clear();
+        while (true) {
+            if (fields.size() == fieldColumns.length) {
+                fieldColumns = Arrays.copyOf(fieldColumns, fields.size() * 2);
+            }
+            fieldColumns[fields.size()] = column;
+            fields.add(readField());
+
+            next = read();
+            if (next == END || next == '\n') {
+                break;
+            }
+            if (next == '\r') {
+                if (peek() == '\n') {
+                    read();
+                }
+                break;
+            }
+            // Otherwise the field ended with a comma
+        }
+        return fields.toArray(new String[0]);
+    }
+
+    private String readField() throws IOException {
+        field.setLength(0);
+
+        if (peek() != '"') {
+            int next = peek();
+            while (next != ',' && next != '\n' && next != '\r' && next != END) {
+                field.append((char) read());
+                next = peek();
+            }
+            return field.toString();
+        }
+
+        int quoteLine = line;
+        int quoteColumn = column;
+        read();
+        while (true) {
+            int next = read();
+            if (next == END) {
+                throw new CsvException(source, quoteLine, quoteColumn,
+                        "quoted field is never closed");
+            }
+            if (next == '"') {
+                if (peek() != '"') {
+                    break;
+                }
+                read();
+            }
+            field.append((char) next);
+        }
+
+        int next = peek();
+        if (next != ',' && next != '\n' && next != '\r' && next != END) {
+            throw error("expected a comma after the quoted field but found '"
+                    + (char) next + "'");
+        }
+        return field.toString();
+    }
+
+    private void readLineBreak() throws IOException {
+        if (read() == '\r' && peek() == '\n') {
+            read();
+        }
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return END;
+            }
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        int next = peek();
+        if (next == END) {
+            return END;
+        }
+        position++;
+
+        // A \r\n pair only counts as one line break
+        if (next == '\n' || (next == '\r' && peek() != '\n')) {
+            line++;
+            column = 1;
+        } else if (next != '\r') {
+            column++;
+        }
+        return next;
+    }
+
+    /**
+     * Creates an error at the current position
+     *
+     * @param message What is wrong
+     * @return The error
+     */
+    public CsvException error(String message) {
+        return new CsvException(source, line, column, message);
+    }
+
+    /**
+     * Creates an error for a field of the last record
+     *
+     * @param field   The index of the field, starting at 0
+     * @param message What is wrong
+     * @return The error at the start of the field
+     */
+    public CsvException fieldError(int field, String message) {
+        int fieldColumn = field < fields.size() ? fieldColumns[field] : 1;
+        return new CsvException(source, recordLine, fieldColumn, message);
+    }
+
+    /**
+     * Gets the line where the last record started
+     *
+     * @return The line, starting at 1
+     */
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Gets the name of the csv file
+     *
+     * @return The name of the file
+     */
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
@@ -0,0 +1,209 @@
+package inheritamon.model.data;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * @author Jeremias
+ * The names and types of the columns of a csv file. The type of a column is
+ * decided once for the whole file, so values do not have to be checked
+ * every time they are used.
+ */
+public final class CsvSchema {
+
+    /**
+     * The type of a column, the code is stored in the game data bundle
+     */
+    public enum Type {
+        STRING(0), INTEGER(1), DECIMAL(2);
+
+        private final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        /**
+         * Gets the code of the type in the game data bundle
+         *
+         * @return The code
+         */
+        public byte getCode() {
+            return code;
+        }
+
+        /**
+         * Gets the type with a code
+         *
+         * @param code The code of the type in the game data bundle
+         * @return The type
+         */
+        public static Type fromCode(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown column type " + code);
+        }
+    }
+
+    private final String[] columnNames;
+    private final Type[] types;
+    private final HashMap<String, Integer> columnIndices = new HashMap<>();
+
+    /**
+     * Constructor for the CsvSchema class
+     *
+     * @param columnNames The names of the columns
+     * @param types       The types of the columns
+     */
+    public CsvSchema(String[] columnNames, Type[] types) {
+        this.columnNames = columnNames.clone();
+        this.types = types.clone();
+        for (int i = 0; i < columnNames.length; i++) {
+            columnIndices.put(columnNames[i], i);
+        }
+    }
+
+    /**
+     * Decides the type of every column from all rows of a file. A column is
+     * an integer or decimal when every row has such a value, the first
+     * column is always a string because it holds the keys.
+     *
+     * @param columnNames The names of the columns from the header
+     * @param rows        The rows of the file, missing cells are null
+     * @return The schema of the file
+     */
+    public static CsvSchema infer(String[] columnNames, List<String[]> rows) {
+        Type[] types = new Type[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            types[i] = i == 0 ? Type.STRING : inferColumn(rows, i);
+        }
+        return new CsvSchema(columnNames, types);
+    }
+
+    private static Type inferColumn(List<String[]> rows, int column) {
+        Type type = Type.INTEGER;
+        for (String[] row : rows) {
+            String cell = row[column];
+
+            // Only strings can be missing
+            if (cell == null) {
+                return Type.STRING;
+            }
+
+            Type cellType = classify(cell);
+            if (cellType == Type.STRING) {
+                return Type.STRING;
+            }
+            if (cellType == Type.DECIMAL) {
+                type = Type.DECIMAL;
+            }
+        }
+        return type;
+    }
+
+    /**
+     * Finds the type of a single value without regular expressions.
+     * Integers are an optional minus sign and digits that fit in an int,
+     * decimals also have a dot followed by digits.
+     *
+     * @param value The value
+     * @return The narrowest type that can hold the value
+     */
+    public static Type classify(String value) {
+        int length = value.length();
+        int i = length > 0 && value.charAt(0) == '-' ? 1 : 0;
+        int digitsStart = i;
+
+        while (i < length && isDigit(value.charAt(i))) {
+            i++;
+        }
+        if (i == digitsStart) {
+            return Type.STRING;
+        }
+        if (i == length) {
+            return fitsInteger(value) ? Type.INTEGER : Type.DECIMAL;
+        }
+
+        if (value.charAt(i) != '.') {
+            return Type.STRING;
+        }
+        int fractionStart = ++i;
+        while (i < length && isDigit(value.charAt(i))) {
+            i++;
+        }
+        return i > fractionStart && i == length ? Type.DECIMAL : Type.STRING;
+    }
+
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    private static boolean fitsInteger(String value) {
+
+        // Ten digits is the most an int can have, only then parsing is needed
+        int digits = value.charAt(0) == '-' ? value.length() - 1 : value.length();
+        if (digits < 10) {
+            return true;
+        }
+        try {
+            Integer.parseInt(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the number of columns
+     *
+     * @return The number of columns
+     */
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    /**
+     * Gets the name of a column
+     *
+     * @param column The index of the column
+     * @return The name of the column
+     */
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    /**
+     * Gets the type of a column
+     *
+     * @param column The index of the column
+     * @return The type of the column
+     */
+    public Type getType(int column) {
+        return types[column];
+    }
+
+    /**
+     * Gets the type of a column by its name
+     *
+     * @param columnName The name of the column
+     * @return The type of the column, null if there is no such column
+     */
+    public Type getType(String columnName) {
+        Integer column = columnIndices.get(columnName);
+        return column == null ? null : types[column];
+    }
+
+    /**
+     * Finds a column by its name
+     *
+     * @param columnName The name of the column
+     * @return The index of the column, -1 if there is no such column
+     */
+    public int indexOf(String columnName) {
+        return columnIndices.getOrDefault(columnName, -1);
+    }
+
+}
@@ -3,102 +3,114 @@ package inheritamon.model.data;
 import javax.imageio.ImageIO;
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
 
 import inheritamon.model.npcs.moves.NormalAbility;
 
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.net.URISyntaxException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Scanner;
 
 /**
  * @author Jeremias
  * A class to handle and load data with the appropriate exceptions
- * We use csv files to store certain data regarding the game
+ * We use csv files to store certain data regarding the game, the build
+ * compiles them into a binary bundle that is read without parsing
+ * Images and audio are loaded when they are first used and kept in caches
+ * with a fixed budget, so startup does not grow with the amount of content
  * Singleton class
  */
 public final class DataHandler {
 
     // Singleton pattern
     private static DataHandler dataHandler;
+    /**
+     * The compiled csv files of the game
+     */
+    private final GameDataBundle gameData = GameDataBundle.open();
     /**
      * Details regarding the parameters of each character like defense, attack, etc.
      */
-    private final HashMap<String, HashMap<String, String>> characterData =
-            new HashMap<>();
+    private final GameDataBundle.Table characterData =
+            gameData.getTable("monster_stats");
     /**
      * Details regarding the parameters of each move like modifier, cost, etc.
      */
-    private final HashMap<String, HashMap<String, String>> moveData =
-            new HashMap<>();
+    private final GameDataBundle.Table moveData =
+            gameData.getTable("move_stats");
     /**
      * Details regarding the parameters of each item like type, effectiveness, etc.
      */
-    private final HashMap<String, HashMap<String, String>> itemData =
-            new HashMap<>();
+    private final GameDataBundle.Table itemData = gameData.getTable("items");
     /**
-     * The sprites for each pokemon, front and back.
+     * The tuned parameters of the data driven AIs.
      */
-    private final HashMap<String, HashMap<String, BufferedImage>>
-            characterSprites = new HashMap<>();
+    private final GameDataBundle.Table aiData =
+            gameData.getTable("ai_parameters");
     /**
-     * Icons used in the menu.
+     * The trainers that can be battled, with their roster and AI.
      */
-    private final HashMap<String, BufferedImage> icons = new HashMap<>();
+    private final GameDataBundle.Table trainerData =
+            gameData.getTable("trainers");
     /**
-     * The background images for the battles.
+     * The descriptions in each language for menu elements.
      */
-    private final HashMap<String, BufferedImage> battleBackgrounds =
-            new HashMap<>();
+    private final GameDataBundle.Table languageData =
+            gameData.getTable("languages");
     /**
-     * The tiles used in the map.
+     * The records of the data by id, shared by all callers
      */
-    private final HashMap<String, BufferedImage> tiles = new HashMap<>();
+    private final Registry<Species> species =
+            new Registry<>(characterData, this::createSpecies);
+    private final Registry<MoveDef> moves =
+            new Registry<>(moveData, this::createMove);
+    private final Registry<ItemDef> items =
+            new Registry<>(itemData, this::createItem);
     /**
-     * The textures for the player.
+     * Finds species by loot, move and stat, built when it is first used
      */
-    private final HashMap<String, BufferedImage> characterTextures =
-            new HashMap<>();
+    private SpeciesIndex speciesIndex;
     /**
-     * The descriptions in each language for menu elements.
+     * The folders whose textures are packed into the world atlas
      */
-    private final HashMap<String, HashMap<String, String>> languageData =
-            new HashMap<>();
+    private static final String[] WORLD_TEXTURE_FOLDERS =
+            {"tiles", "characterTextures", "objects"};
     /**
-     * The sprites for each item.
+     * The textures of the world, packed when the world is first drawn
      */
-    private final HashMap<String, BufferedImage> inventorySprites =
-            new HashMap<>();
+    private TextureAtlas worldAtlas;
     /**
-     * The sprites for each object on the map.
+     * The files in the resources, written by the build
      */
-    private final HashMap<String, BufferedImage> objectSprites =
-            new HashMap<>();
+    private final ResourceIndex resourceIndex = ResourceIndex.load();
     /**
-     * The sounds that are played in the game.
+     * The decoded images, keyed by their folder and name. Images are only
+     * loaded when they are first needed.
      */
-    private final HashMap<String, AudioInputStream> sounds = new HashMap<>();
+    private final AssetCache<BufferedImage> images =
+            new AssetCache<>(Long.getLong("inheritamon.imageCacheBytes",
+                    64L * 1024 * 1024), DataHandler::getImageBytes);
     /**
-     * The music that is played in the game.
+     * The contents of the audio files, keyed by their folder and name.
      */
-    private final HashMap<String, AudioInputStream> music = new HashMap<>();
+    private final AssetCache<byte[]> audio =
+            new AssetCache<>(Long.getLong("inheritamon.audioCacheBytes",
+                    32L * 1024 * 1024), data -> data.length);
 
     /**
      * The constructor for the DataHandler class.
+     * The game data is read from the bundle when it is needed, and images
+     * and audio are loaded on demand, see getImage and getAudio
      */
     private DataHandler() {
-        loadAllData();
     }
 
     /**
@@ -113,20 +125,6 @@ public final class DataHandler {
         return dataHandler;
     }
 
-    // Obtained from
-    // https://stackoverflow.com/questions/1102891/how-to-check-if-a-string-is-numeric-in-java
-
-    /**
-     * Check if a string is numeric.
-     *
-     * @param str The string to check
-     * @return Whether the string is numeric
-     */
-    public static boolean isNumeric(String str) {
-        return str.matches(
-                "-?\\d+(\\.\\d+)?"); // match a number with optional '-' and decimal.
-    }
-
     /**
      * Converts a string of moves into an ArrayList of moves
      *
@@ -142,238 +140,346 @@ public final class DataHandler {
         return new ArrayList<>(moveSet);
     }
 
-    private void loadAllData() {
-
-        loadData(characterData, "monster_stats.csv");
-        loadData(moveData, "move_stats.csv");
-        loadData(itemData, "items.csv");
-        loadData(languageData, "languages.csv");
-        loadCharacterImages();
-        loadGeneralImages(icons, "icons");
-        loadGeneralImages(battleBackgrounds, "battleBackgrounds");
-        loadGeneralImages(tiles, "tiles");
-        loadGeneralImages(characterTextures, "characterTextures");
-        loadGeneralImages(inventorySprites, "inventorySprites");
-        loadGeneralImages(objectSprites, "objects");
-        loadAudio(sounds, "sounds");
-        loadAudio(music, "music");
-
+    /**
+     * Estimates the memory used by a decoded image
+     *
+     * @param image The image
+     * @return The size of the pixels in bytes
+     */
+    static long getImageBytes(BufferedImage image) {
+        int bytesPerPixel =
+                Math.max(image.getColorModel().getPixelSize() / 8, 1);
+        return (long) image.getWidth() * image.getHeight() * bytesPerPixel;
     }
 
-    private void loadData(HashMap<String, HashMap<String, String>> data,
-                          String fileName) {
-
-        ArrayList<String> attributes = new ArrayList<>();
+    /**
+     * Gets an image from the cache, decoding it if it is not loaded yet
+     *
+     * @param folderName The folder of the image in the resources
+     * @param imageName  The name of the image without extension
+     * @return The image, null if it does not exist
+     */
+    private BufferedImage loadImage(String folderName, String imageName) {
+        String path = resourceIndex.resolve(
+                "/" + folderName + "/" + imageName + ".png");
+        if (path == null) {
+            return null;
+        }
 
-        // Try with resources to automatically close the scanner
-        try (Scanner characterDataScanner = new Scanner(Objects.requireNonNull(
-                DataHandler.class.getResourceAsStream("/" + fileName)))) {
+        try {
+            return images.get(path, () -> readImage(path));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
 
-            // Read the first line of the file and put the attributes into the attributes
-            // ArrayList
-            String firstLine = characterDataScanner.nextLine();
-            String[] firstLineSplit = firstLine.split(",");
-            attributes.addAll(Arrays.asList(firstLineSplit));
+    private static BufferedImage readImage(String path) throws IOException {
+        URL resource = DataHandler.class.getResource(path);
+        return resource == null ? null : ImageIO.read(resource);
+    }
 
-            // Loop through the rest of the file and put the data into the correct HashMap
-            while (characterDataScanner.hasNextLine()) {
-                String line = characterDataScanner.nextLine();
-                String[] lineSplit = line.split(",");
-                HashMap<String, String> characterDataEntry = new HashMap<>();
-                for (int i = 0; i < lineSplit.length; i++) {
-                    characterDataEntry.put(attributes.get(i), lineSplit[i]);
-                }
-                data.put(lineSplit[0], characterDataEntry);
-            }
+    private BufferedImage getImage(String folderName, String imageName,
+                                   String imageType) {
+        BufferedImage image = loadImage(folderName, imageName);
+        if (image == null) {
+            throw new IllegalArgumentException(
+                    imageType + " not found: " + imageName);
+        }
+        return image;
+    }
 
+    /**
+     * Loads an image in advance so that the scene that needs it does not
+     * have to wait
+     *
+     * @param folderName The folder of the image in the resources
+     * @param imageName  The name of the image without extension
+     * @return The decoded size of the image in bytes, 0 if it does not exist
+     */
+    public long preloadImage(String folderName, String imageName) {
+        BufferedImage image = loadImage(folderName, imageName);
+        return image == null ? 0 : getImageBytes(image);
+    }
 
-        } catch (NullPointerException e) {
-            System.out.println("File not found");
-            Runtime.getRuntime().halt(0);
+    /**
+     * Loads images in advance, images that do not exist are skipped
+     *
+     * @param folderName The folder of the images in the resources
+     * @param imageNames The names of the images without extension
+     */
+    public void preloadImages(String folderName, String... imageNames) {
+        for (String imageName : imageNames) {
+            preloadImage(folderName, imageName);
         }
+    }
 
+    /**
+     * Loads the front and back sprites of pokemon in advance
+     *
+     * @param pokemonNames The names of the pokemon
+     */
+    public void preloadPokemonSprites(String... pokemonNames) {
+        for (String pokemonName : pokemonNames) {
+            preloadImage("battleSprites", pokemonName);
+            preloadImage("battleSprites", pokemonName + "Back");
+        }
     }
 
-    // Images are obtained from Pokemon
-    private void loadCharacterImages() {
+    /**
+     * Loads an audio file in advance
+     *
+     * @param folderName The folder of the audio file in the resources
+     * @param audioName  The name of the audio file without extension
+     * @return The size of the audio file in bytes, 0 if it does not exist
+     */
+    public long preloadAudio(String folderName, String audioName) {
+        byte[] data = loadAudioData(folderName, audioName);
+        return data == null ? 0 : data.length;
+    }
 
-        System.out.println(characterData.keySet());
+    private byte[] loadAudioData(String folderName, String audioName) {
+        String path = resourceIndex.resolve(
+                "/" + folderName + "/" + audioName + ".wav");
+        if (path == null) {
+            return null;
+        }
 
         try {
-            // Go through all the keys in the characterData HashMap and load the images
-            for (String characterName : characterData.keySet()) {
-                HashMap<String, BufferedImage> characterImagesEntry =
-                        new HashMap<>();
-                characterImagesEntry.put("front", ImageIO.read(
-                        Objects.requireNonNull(DataHandler.class.getResource(
-                                "/battleSprites/" + characterName + ".png"))));
-                characterImagesEntry.put("back", ImageIO.read(
-                        Objects.requireNonNull(DataHandler.class.getResource(
-                                "/battleSprites/" + characterName +
-                                        "Back.png"))));
-                characterSprites.put(characterName, characterImagesEntry);
-            }
+            return audio.get(path, () -> {
+                try (InputStream stream =
+                             DataHandler.class.getResourceAsStream(path)) {
+                    return stream == null ? null : stream.readAllBytes();
+                }
+            });
         } catch (IOException e) {
             e.printStackTrace();
-            System.exit(-1);
+            return null;
         }
+    }
 
+    /**
+     * Lists the names of the files with an extension in a resource folder
+     *
+     * @param folderName The folder in the resources
+     * @param extension  The extension of the files, like .png
+     * @return The names of the files without extension
+     */
+    public String[] getAssetNames(String folderName, String extension) {
+        List<ResourceIndex.Entry> entries = resourceIndex.getFolder(folderName);
+        ArrayList<String> names = new ArrayList<>(entries.size());
+        for (ResourceIndex.Entry entry : entries) {
+            if (entry.path().endsWith(extension)) {
+                names.add(entry.getName());
+            }
+        }
+        return names.toArray(new String[0]);
     }
 
-    private void loadGeneralImages(HashMap<String, BufferedImage> images,
-                                   String folderName) {
+    /**
+     * Gets the files in the resources with their size and hash
+     *
+     * @return The resource index
+     */
+    public ResourceIndex getResourceIndex() {
+        return resourceIndex;
+    }
 
-        try {
-            // Get all file names in the icons folder using File
-            File iconsFolder = new File(Objects.requireNonNull(
-                            DataHandler.class.getResource("/" + folderName + "/"))
-                    .toURI());
-            File[] iconFiles = iconsFolder.listFiles();
-
-            // Load each icon into the icons hashmap
-            assert iconFiles != null;
-            for (File iconFile : iconFiles) {
-                String iconName = iconFile.getName().replace(".png", "");
-                BufferedImage iconImage = ImageIO.read(iconFile);
-                images.put(iconName, iconImage);
-            }
-        } catch (IOException | URISyntaxException e) {
-            e.printStackTrace();
-            System.exit(-1);
+    private HashMap<String, String> getData(GameDataBundle.Table table,
+                                            String dataName, String dataType) {
+        HashMap<String, String> data = table.getRow(dataName);
+        if (data == null) {
+            notFound(dataType);
         }
+        return data;
     }
 
-    private void loadAudio(HashMap<String, AudioInputStream> audios,
-                           String folderName) {
-        try {
-            // Get the URL of the folder containing the audio files
-            URL folderUrl = getClass().getResource("/" + folderName + "/");
-
-            // Create a file object from the folder URL
-            assert folderUrl != null;
-            File folder = new File(folderUrl.toURI());
-
-            // Get a list of all the files in the folder
-            File[] files = folder.listFiles();
-
-            // Load each audio file into the HashMap
-            assert files != null;
-            for (File file : files) {
-                if (file.isFile() && file.getName().endsWith(".wav")) {
-                    // Get the name of the audio file without the extension
-                    String name = file.getName()
-                            .substring(0, file.getName().lastIndexOf("."));
-
-                    // Load the audio file into an AudioInputStream
-                    AudioInputStream audioStream =
-                            AudioSystem.getAudioInputStream(file);
-
-                    // Add the audio stream to the HashMap
-                    audios.put(name, audioStream);
+    private static void notFound(String dataType) {
+        System.out.println(dataType + " not found");
+
+        // Exit the program, hopefully
+        Runtime.getRuntime().halt(0);
+    }
+
+    private static <T> T getRecord(Registry<T> registry, String name,
+                                   String dataType) {
+        T record = registry.get(name);
+        if (record == null) {
+            notFound(dataType);
+        }
+        return record;
+    }
+
+    /**
+     * Splits the cells of a row into integer and text columns
+     */
+    private static void splitStats(GameDataBundle.Table table, int row,
+                                   Map<String, Integer> numericalStats,
+                                   Map<String, String> stringStats) {
+        CsvSchema schema = table.getSchema();
+        for (int i = 0; i < schema.getColumnCount(); i++) {
+            if (schema.getType(i) == CsvSchema.Type.INTEGER) {
+                numericalStats.put(schema.getColumnName(i), table.getInt(row, i));
+            } else {
+                String value = table.getValue(row, i);
+                if (value != null) {
+                    stringStats.put(schema.getColumnName(i), value);
                 }
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
     }
 
     /**
-     * Save the state of the game
+     * Gets a pokemon species, every call returns the same shared object
      *
-     * @param data     The object to save
-     * @param fileName The name of the file to save to
+     * @param speciesName The name of the species
+     * @return The species
      */
-    public void saveState(Object data, String fileName) {
-        try {
-            FileOutputStream fileOut = new FileOutputStream(fileName + ".ser");
-            ObjectOutputStream out = new ObjectOutputStream(fileOut);
-            out.writeObject(data);
-            out.close();
-            fileOut.close();
-            System.out.println(
-                    "Serialized data is saved in " + fileName + ".ser");
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    public Species getSpecies(String speciesName) {
+        return getRecord(species, speciesName, "Character");
+    }
+
+    private Species createSpecies(int row, String name) {
+        HashMap<String, Integer> numericalStats = new HashMap<>();
+        HashMap<String, String> stringStats = new HashMap<>();
+        splitStats(characterData, row, numericalStats, stringStats);
+
+        // The moves are a list instead of a stat
+        List<String> moveSet =
+                convertMoveSetToString(stringStats.remove("MoveSet"));
+        return new Species(name, moveSet, numericalStats, stringStats);
     }
 
     /**
-     * Load the state of the game
+     * Picks a random species for a wild encounter, without copying anything
      *
-     * @param fileName The name of the file to load from
-     * @return The object that was loaded
+     * @return The species
      */
-    public Object loadState(String fileName) {
+    public Species getRandomSpecies() {
+        return species.get((int) (Math.random() * species.size()));
+    }
 
-        try {
-            FileInputStream fileIn = new FileInputStream(fileName + ".ser");
-            ObjectInputStream in = new ObjectInputStream(fileIn);
-            Object data = in.readObject();
-            in.close();
-            fileIn.close();
-            System.out.println(
-                    "Serialized data is loaded from " + fileName + ".ser");
-            return data;
-        } catch (IOException | ClassNotFoundException e) {
-            System.out.println(
-                    fileName + "File is corrupted or does not exist");
+    /**
+     * Gets the species by id
+     *
+     * @return The registry of the species
+     */
+    public Registry<Species> getSpeciesRegistry() {
+        return species;
+    }
+
+    /**
+     * Gets the index that finds species by loot, move and stat
+     *
+     * @return The index, created when it is first asked for
+     */
+    public synchronized SpeciesIndex getSpeciesIndex() {
+        if (speciesIndex == null) {
+            long start = System.nanoTime();
+            speciesIndex = new SpeciesIndex(species, moves, items);
+            System.out.println(String.format(Locale.ROOT,
+                    "Indexed %d species in %.1f ms", species.size(),
+                    (System.nanoTime() - start) / 1e6));
         }
+        return speciesIndex;
+    }
 
-        return null;
+    /**
+     * The names of all the pokemon in the game
+     *
+     * @return The names of all the pokemon, cannot be changed
+     */
+    public List<String> getPokemonNames() {
+        return species.getNames();
+    }
 
+    /**
+     * Gets a move, every call returns the same shared object
+     *
+     * @param moveName The name of the move
+     * @return The move
+     */
+    public MoveDef getMove(String moveName) {
+        return getRecord(moves, moveName, "Move");
     }
 
-    private HashMap<String, String> getData(
-            HashMap<String, HashMap<String, String>> dataMap, String dataName,
-            String dataType) {
-        try {
-            return new HashMap<>(dataMap.get(dataName));
-        } catch (NullPointerException e) {
-            System.out.println(dataType + " not found");
+    private MoveDef createMove(int row, String name) {
+        HashMap<String, Integer> numericalStats = new HashMap<>();
+        HashMap<String, String> stringStats = new HashMap<>();
+        splitStats(moveData, row, numericalStats, stringStats);
+        return new MoveDef(name, numericalStats, stringStats);
+    }
 
-            // Exit the program, hopefully
-            Runtime.getRuntime().halt(0);
-            return null;
-        }
+    /**
+     * Gets the moves by id
+     *
+     * @return The registry of the moves
+     */
+    public Registry<MoveDef> getMoveRegistry() {
+        return moves;
     }
 
     /**
-     * Gets the data of a specific pokemon
+     * The names of all the moves in the game
      *
-     * @param characterName The name of the pokemon
-     * @return The data of the pokemon as a HashMap
+     * @return The names of all the moves, cannot be changed
      */
-    public HashMap<String, String> getPokemonData(String characterName) {
-        return getData(characterData, characterName, "Character");
+    public List<String> getMoveNames() {
+        return moves.getNames();
     }
 
     /**
-     * The names of all the pokemon in the game
+     * Gets the tuned parameters of a specific AI
      *
-     * @return The names of all the pokemon
+     * @param aiName The name of the AI
+     * @return The parameters of the AI as a HashMap
      */
-    public String[] getPokemonNames() {
-        return characterData.keySet().toArray(new String[0]);
+    public HashMap<String, String> getAIData(String aiName) {
+        return getData(aiData, aiName, "AI");
     }
 
     /**
-     * Gets the data of a specific move
+     * Gets the data of a specific trainer
      *
-     * @param moveName The name of the move
-     * @return The data of the move as a HashMap
+     * @param trainerName The name of the trainer
+     * @return The roster and AI of the trainer as a HashMap
      */
-    public HashMap<String, String> getMoveData(String moveName) {
-        return getData(moveData, moveName, "Move");
+    public HashMap<String, String> getTrainerData(String trainerName) {
+        return getData(trainerData, trainerName, "Trainer");
     }
 
     /**
-     * Gets the data of a specific item
+     * The names of all the trainers in the game
+     *
+     * @return The names of all the trainers
+     */
+    public String[] getTrainerNames() {
+        return trainerData.getKeys();
+    }
+
+    /**
+     * Gets an item, every call returns the same shared object
      *
      * @param itemName The name of the item
-     * @return The data of the item as a HashMap
+     * @return The item
+     */
+    public ItemDef getItem(String itemName) {
+        return getRecord(items, itemName, "Item");
+    }
+
+    private ItemDef createItem(int row, String name) {
+        HashMap<String, String> data = itemData.getRow(name);
+        return new ItemDef(name, data.get("Sprite"), data.get("Description"),
+                data.get("Type"), Integer.parseInt(data.get("Amount")));
+    }
+
+    /**
+     * Gets the items by id
+     *
+     * @return The registry of the items
      */
-    public HashMap<String, String> getItemData(String itemName) {
-        return getData(itemData, itemName, "Item");
+    public Registry<ItemDef> getItemRegistry() {
+        return items;
     }
 
     /**
@@ -382,7 +488,7 @@ public final class DataHandler {
      * @return The data of all menus
      */
     public HashMap<String, HashMap<String, String>> getLanguageData() {
-        return new HashMap<>(languageData);
+        return languageData.getRows();
     }
 
     /**
@@ -394,51 +500,37 @@ public final class DataHandler {
 
         HashMap<String, NormalAbility> abilities = new HashMap<>();
 
-        for (String moveName : moveData.keySet()) {
-            HashMap<String, String> moveData = getMoveData(moveName);
-            NormalAbility ability = new NormalAbility(moveData);
-            abilities.put(moveName, ability);
+        for (MoveDef move : moves.getAll()) {
+            abilities.put(move.name(), new NormalAbility(move));
         }
 
         return new HashMap<>(abilities);
     }
 
-    /**
-     * Gets the sprites of entities that are displayed on the map
-     *
-     * @return The sprites of entities that are displayed on the map
-     */
-    public HashMap<String, HashMap<String, BufferedImage>> getAllCharacterSprites() {
-        return characterSprites;
-    }
-
     /**
      * Gets the two sprites of a specific pokemon
      *
      * @param pokemonName The name of the pokemon
-     * @return The sprites of the pokemon
+     * @return The sprites of the pokemon, front and back
      */
     public HashMap<String, BufferedImage> getPokemonSprite(String pokemonName) {
-        return characterSprites.get(pokemonName);
+        HashMap<String, BufferedImage> sprites = new HashMap<>();
+        sprites.put("front",
+                getImage("battleSprites", pokemonName, "Pokemon Sprite"));
+        sprites.put("back",
+                getImage("battleSprites", pokemonName + "Back",
+                        "Pokemon Sprite"));
+        return sprites;
     }
 
     /**
-     * Gets the icons of certain UI elements
+     * Gets the icon of a certain UI element
      *
-     * @return The icons of certain UI elements
+     * @param iconName The name of the icon
+     * @return The icon
      */
-    public HashMap<String, BufferedImage> getIcons() {
-        return icons;
-    }
-
-    private <T> T getImage(Map<String, T> imageMap, String imageName,
-                           String imageType) {
-        T image = imageMap.get(imageName);
-        if (image == null) {
-            throw new IllegalArgumentException(
-                    imageType + " not found: " + imageName);
-        }
-        return image;
+    public BufferedImage getIcon(String iconName) {
+        return getImage("icons", iconName, "Icon");
     }
 
     /**
@@ -448,27 +540,78 @@ public final class DataHandler {
      * @return The background of the battle
      */
     public BufferedImage getBackground(String backgroundName) {
-        return getImage(battleBackgrounds, backgroundName, "Background");
+        return getImage("battleBackgrounds", backgroundName, "Background");
+    }
+
+    /**
+     * Gets the atlas with the textures of the tiles, characters and objects
+     * of the world, packing it when it is first needed
+     *
+     * @return The world atlas
+     */
+    public synchronized TextureAtlas getWorldAtlas() {
+        if (worldAtlas != null) {
+            return worldAtlas;
+        }
+
+        long start = System.nanoTime();
+        HashMap<String, BufferedImage> textures = new HashMap<>();
+        for (String folderName : WORLD_TEXTURE_FOLDERS) {
+            for (ResourceIndex.Entry entry :
+                    resourceIndex.getFolder(folderName)) {
+                if (!entry.path().endsWith(".png")) {
+                    continue;
+                }
+                try {
+                    BufferedImage texture = readImage(entry.path());
+                    if (texture != null) {
+                        textures.put(folderName + "/" + entry.getName(),
+                                texture);
+                    }
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        // The separate images are not kept, only the packed pages
+        worldAtlas = new TextureAtlas(textures);
+        System.out.println(String.format(Locale.ROOT,
+                "Packed world atlas with %s in %.1f ms", worldAtlas,
+                (System.nanoTime() - start) / 1e6));
+        return worldAtlas;
+    }
+
+    private TextureAtlas.Region getWorldTexture(String folderName,
+                                                String textureName,
+                                                String textureType) {
+        TextureAtlas.Region region =
+                getWorldAtlas().getRegion(folderName + "/" + textureName);
+        if (region == null) {
+            throw new IllegalArgumentException(
+                    textureType + " not found: " + textureName);
+        }
+        return region;
     }
 
     /**
      * Gets the image of a specific tile
      *
      * @param tileName The name of the tile
-     * @return The image of the tile
+     * @return The region of the tile in the world atlas
      */
-    public BufferedImage getTileImage(String tileName) {
-        return getImage(tiles, tileName, "Tile");
+    public TextureAtlas.Region getTileImage(String tileName) {
+        return getWorldTexture("tiles", tileName, "Tile");
     }
 
     /**
      * Gets a specific texture of a character displayed on the map
      *
      * @param textureName The name of the texture
-     * @return The texture of the character
+     * @return The region of the texture in the world atlas
      */
-    public BufferedImage getCharacterTexture(String textureName) {
-        return getImage(characterTextures, textureName, "Texture");
+    public TextureAtlas.Region getCharacterTexture(String textureName) {
+        return getWorldTexture("characterTextures", textureName, "Texture");
     }
 
     /**
@@ -478,36 +621,83 @@ public final class DataHandler {
      * @return The sprite of the item
      */
     public BufferedImage getItemSprite(String spriteName) {
-        return getImage(inventorySprites, spriteName, "Inventory Sprite");
+        return getImage("inventorySprites", spriteName, "Inventory Sprite");
     }
 
     /**
      * Gets the sprite of a specific object
      *
      * @param spriteName The name of the object
-     * @return The sprite of the object
+     * @return The region of the sprite in the world atlas
      */
-    public BufferedImage getObjectSprite(String spriteName) {
-        return getImage(objectSprites, spriteName, "Object Sprite");
+    public TextureAtlas.Region getObjectSprite(String spriteName) {
+        return getWorldTexture("objects", spriteName, "Object Sprite");
     }
 
     /**
-     * Gets all audio files of a specific type
+     * Gets an audio file as a new stream, the contents of the file are cached
      *
-     * @param audioType The type of audio files
-     * @return All audio files of a specific type
+     * @param audioType The type of audio, Music or Sounds
+     * @param audioName The name of the audio file without extension
+     * @return A stream of the audio, null if it does not exist
      */
-    public HashMap<String, AudioInputStream> getAudios(String audioType) {
+    public AudioInputStream getAudio(String audioType, String audioName) {
+        byte[] data = loadAudioData(getAudioFolder(audioType), audioName);
+        if (data == null) {
+            return null;
+        }
 
+        try {
+            return AudioSystem.getAudioInputStream(
+                    new ByteArrayInputStream(data));
+        } catch (IOException | UnsupportedAudioFileException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Opens an audio file as a stream that reads from the resources while
+     * it is played, nothing is cached. Used for music, which is too long to
+     * keep in memory.
+     *
+     * @param audioType The type of audio, Music or Sounds
+     * @param audioName The name of the audio file without extension
+     * @return A stream of the audio, null if it does not exist
+     */
+    public AudioInputStream openAudioStream(String audioType,
+                                            String audioName) {
+        String path = resourceIndex.resolve("/" + getAudioFolder(audioType)
+                + "/" + audioName + ".wav");
+        URL resource = path == null ? null : DataHandler.class.getResource(path);
+        if (resource == null) {
+            return null;
+        }
+
+        try {
+            return AudioSystem.getAudioInputStream(resource);
+        } catch (IOException | UnsupportedAudioFileException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static String getAudioFolder(String audioType) {
         if (audioType.equals("Music")) {
-            return music;
+            return "music";
         } else if (audioType.equals("Sounds")) {
-            return sounds;
-        } else {
-            throw new IllegalArgumentException(
-                    "Audio type not found: " + audioType);
+            return "sounds";
         }
+        throw new IllegalArgumentException("Audio type not found: " + audioType);
+    }
 
+    /**
+     * Gets a summary of the asset caches for logging
+     *
+     * @return The usage of the image and audio caches
+     */
+    public String getCacheStatistics() {
+        return "Images: " + images + ", audio: " + audio;
     }
 
-}
\ No newline at end of file
+}
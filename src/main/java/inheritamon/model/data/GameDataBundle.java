@@ -0,0 +1,308 @@
+package inheritamon.model.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * @author Jeremias
+ * The compiled data of the game, see GameDataCompiler for the format.
+ * Only the headers of the tables are read when the bundle is opened, rows
+ * and strings are decoded when they are asked for.
+ * The bundle is memory mapped when it is a file, inside a jar it is read
+ * into memory instead.
+ */
+public final class GameDataBundle {
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int stringOffsets;
+    private final int stringBytes;
+    private final HashMap<String, Table> tables = new HashMap<>();
+
+    /**
+     * A table of the bundle, one per csv file
+     */
+    public final class Table {
+
+        private final String name;
+        private final CsvSchema schema;
+        private final int[] offsets;
+        private final int rowCount;
+        private final int rowBytes;
+        private final int rowsOffset;
+
+        private Table(int position) {
+            name = getString(buffer.getInt(position));
+            int columnCount = buffer.getShort(position + 4);
+            rowCount = buffer.getInt(position + 6);
+            rowBytes = buffer.getInt(position + 10);
+            rowsOffset = buffer.getInt(position + 14);
+
+            String[] columnNames = new String[columnCount];
+            CsvSchema.Type[] types = new CsvSchema.Type[columnCount];
+            offsets = new int[columnCount];
+            int column = position + GameDataCompiler.TABLE_HEADER_BYTES;
+            for (int i = 0; i < columnCount; i++) {
+                columnNames[i] = getString(buffer.getInt(column));
+                types[i] = CsvSchema.Type.fromCode(buffer.get(column + 4));
+                offsets[i] = buffer.getInt(column + 5);
+                column += GameDataCompiler.COLUMN_HEADER_BYTES;
+            }
+            schema = new CsvSchema(columnNames, types);
+        }
+
+        private int getHeaderBytes() {
+            return GameDataCompiler.TABLE_HEADER_BYTES
+                    + schema.getColumnCount()
+                    * GameDataCompiler.COLUMN_HEADER_BYTES;
+        }
+
+        /**
+         * Gets the names and types of the columns
+         *
+         * @return The schema of the table
+         */
+        public CsvSchema getSchema() {
+            return schema;
+        }
+
+        /**
+         * Gets the number of rows
+         *
+         * @return The number of rows
+         */
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Gets the key of a row, the value of its first column
+         *
+         * @param row The index of the row
+         * @return The key of the row
+         */
+        public String getKey(int row) {
+            return getString(buffer.getInt(rowsOffset + row * rowBytes));
+        }
+
+        /**
+         * Gets the keys of all rows in sorted order
+         *
+         * @return The keys
+         */
+        public String[] getKeys() {
+            String[] keys = new String[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                keys[i] = getKey(i);
+            }
+            return keys;
+        }
+
+        /**
+         * Finds a row by its key
+         *
+         * @param key The key of the row
+         * @return The index of the row, -1 if there is no row with the key
+         */
+        public int findRow(String key) {
+            int low = 0;
+            int high = rowCount - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int comparison = getKey(middle).compareTo(key);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Gets a cell as text, numbers are formatted like in the csv file
+         *
+         * @param row    The index of the row
+         * @param column The index of the column
+         * @return The text of the cell, null if it is missing
+         */
+        public String getValue(int row, int column) {
+            int position = rowsOffset + row * rowBytes + offsets[column];
+            return switch (schema.getType(column)) {
+                case INTEGER -> Integer.toString(buffer.getInt(position));
+                case DECIMAL -> Double.toString(buffer.getDouble(position));
+                default -> getString(buffer.getInt(position));
+            };
+        }
+
+        /**
+         * Gets a cell of an integer column without formatting it
+         *
+         * @param row    The index of the row
+         * @param column The index of the column
+         * @return The value of the cell
+         */
+        public int getInt(int row, int column) {
+            if (schema.getType(column) != CsvSchema.Type.INTEGER) {
+                throw new IllegalArgumentException(schema.getColumnName(column)
+                        + " is not an integer column of " + name);
+            }
+            return buffer.getInt(rowsOffset + row * rowBytes + offsets[column]);
+        }
+
+        /**
+         * Gets a row with the names of the columns as keys
+         *
+         * @param key The key of the row
+         * @return The cells of the row, null if there is no row with the key
+         */
+        public HashMap<String, String> getRow(String key) {
+            int row = findRow(key);
+            if (row < 0) {
+                return null;
+            }
+
+            HashMap<String, String> cells = new HashMap<>();
+            for (int i = 0; i < schema.getColumnCount(); i++) {
+                String value = getValue(row, i);
+                if (value != null) {
+                    cells.put(schema.getColumnName(i), value);
+                }
+            }
+            return cells;
+        }
+
+        /**
+         * Gets all rows by their key
+         *
+         * @return The rows
+         */
+        public HashMap<String, HashMap<String, String>> getRows() {
+            HashMap<String, HashMap<String, String>> rows = new HashMap<>();
+            for (int i = 0; i < rowCount; i++) {
+                String key = getKey(i);
+                rows.put(key, getRow(key));
+            }
+            return rows;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + rowCount + " rows)";
+        }
+    }
+
+    private GameDataBundle(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.limit() < 12 || buffer.getInt(0) != GameDataCompiler.MAGIC) {
+            throw new IOException("Not a game data bundle");
+        }
+        short version = buffer.getShort(4);
+        if (version != GameDataCompiler.VERSION) {
+            throw new IOException("Unsupported game data version " + version);
+        }
+
+        int tableCount = buffer.getShort(6);
+        stringCount = buffer.getInt(8);
+        stringOffsets = 12;
+        stringBytes = stringOffsets + stringCount * 4;
+
+        int position = stringBytes + (stringCount == 0 ? 0
+                : buffer.getInt(stringOffsets + (stringCount - 1) * 4));
+        for (int i = 0; i < tableCount; i++) {
+            Table table = new Table(position);
+            tables.put(table.name, table);
+            position += table.getHeaderBytes();
+        }
+    }
+
+    /**
+     * Opens the bundle in the resources. When the game is started without
+     * the Maven build the csv files are compiled in memory instead.
+     *
+     * @return The bundle
+     */
+    public static GameDataBundle open() {
+        long start = System.nanoTime();
+        String source;
+        GameDataBundle bundle;
+
+        try {
+            URL resource = GameDataBundle.class.getResource(
+                    "/" + GameDataCompiler.BUNDLE_FILE);
+            if (resource != null && "file".equals(resource.getProtocol())) {
+                source = "mapped";
+                bundle = new GameDataBundle(map(resource));
+            } else if (resource != null) {
+                source = "read";
+                try (InputStream stream = resource.openStream()) {
+                    bundle = new GameDataBundle(
+                            ByteBuffer.wrap(stream.readAllBytes()));
+                }
+            } else {
+                source = "compiled";
+                System.out.println(GameDataCompiler.BUNDLE_FILE
+                        + " not found, compiling the csv files instead");
+                bundle = new GameDataBundle(ByteBuffer.wrap(
+                        GameDataCompiler.compileFromClasspath()));
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new IllegalStateException("Cannot load the game data", e);
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "Opened game data (%s, %d bytes, %d tables) in %.1f ms", source,
+                bundle.buffer.limit(), bundle.tables.size(),
+                (System.nanoTime() - start) / 1e6));
+        return bundle;
+    }
+
+    private static ByteBuffer map(URL resource)
+            throws IOException, URISyntaxException {
+        try (FileChannel channel = FileChannel.open(
+                Paths.get(resource.toURI()), StandardOpenOption.READ)) {
+
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+        }
+    }
+
+    private String getString(int id) {
+        if (id == GameDataCompiler.MISSING) {
+            return null;
+        }
+        int start = id == 0 ? 0 : buffer.getInt(stringOffsets + (id - 1) * 4);
+        int end = buffer.getInt(stringOffsets + id * 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(stringBytes + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets a table of the bundle
+     *
+     * @param name The name of the csv file without extension
+     * @return The table
+     */
+    public Table getTable(String name) {
+        Table table = tables.get(name);
+        if (table == null) {
+            throw new IllegalArgumentException("Table not found: " + name);
+        }
+        return table;
+    }
+
+}
@@ -0,0 +1,283 @@
+package inheritamon.model.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @author Jeremias
+ * Compiles the csv files of the game into one binary bundle, which is read
+ * by GameDataBundle without parsing anything.
+ * <p>
+ * All numbers are big endian. The bundle starts with the magic number, the
+ * version and the number of tables, followed by the string table: the number
+ * of strings, the end offset of every string and the UTF-8 bytes of all
+ * strings. Then each table has a header with its name, the number of columns,
+ * rows, the size of a row and where the rows start, followed by the name,
+ * type and offset of every column. The rows are sorted by their key, the
+ * first column, so they can be found with a binary search.
+ */
+public final class GameDataCompiler {
+
+    /**
+     * The csv files in the root of the resources that are compiled
+     */
+    public static final String[] TABLES = {"monster_stats", "move_stats",
+            "items", "languages", "ai_parameters", "trainers"};
+
+    /**
+     * The name of the bundle in the root of the resources
+     */
+    public static final String BUNDLE_FILE = "game_data.bin";
+
+    /**
+     * Marks the start of a bundle, INHD in ASCII
+     */
+    public static final int MAGIC = 0x494E4844;
+
+    /**
+     * The version of the format, older bundles are not read
+     */
+    public static final short VERSION = 1;
+
+    /**
+     * The string id of a cell that is missing in the csv file
+     */
+    public static final int MISSING = -1;
+
+    /**
+     * The size of the header of a table and of one column in bytes
+     */
+    static final int TABLE_HEADER_BYTES = 18;
+    static final int COLUMN_HEADER_BYTES = 9;
+
+    private GameDataCompiler() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Opens the csv file of a table
+     */
+    @FunctionalInterface
+    public interface TableSource {
+
+        /**
+         * Opens the csv file of a table
+         *
+         * @param table The name of the table
+         * @return The contents of the csv file
+         * @throws IOException If the file cannot be opened
+         */
+        Reader open(String table) throws IOException;
+    }
+
+    /**
+     * Compiles the csv files of the game
+     *
+     * @param tables The names of the tables
+     * @param source Opens the csv file of each table, the first record holds
+     *               the names of the columns
+     * @return The bundle
+     * @throws IOException If a csv file cannot be read or is malformed
+     */
+    public static byte[] compile(String[] tables, TableSource source)
+            throws IOException {
+
+        // Every string is stored once and referred to by its id
+        LinkedHashMap<String, Integer> strings = new LinkedHashMap<>();
+        ArrayList<CompiledTable> compiledTables = new ArrayList<>();
+        for (String table : tables) {
+            try (CsvReader reader =
+                         new CsvReader(source.open(table), table + ".csv")) {
+                compiledTables.add(new CompiledTable(table, reader, strings));
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(compiledTables.size());
+
+        // String table
+        out.writeInt(strings.size());
+        ArrayList<byte[]> encoded = new ArrayList<>(strings.size());
+        int end = 0;
+        for (String string : strings.keySet()) {
+            byte[] stringBytes = string.getBytes(StandardCharsets.UTF_8);
+            encoded.add(stringBytes);
+            end += stringBytes.length;
+            out.writeInt(end);
+        }
+        for (byte[] stringBytes : encoded) {
+            out.write(stringBytes);
+        }
+
+        // The rows follow the headers of all tables
+        int rowsOffset = out.size();
+        for (CompiledTable table : compiledTables) {
+            rowsOffset += TABLE_HEADER_BYTES
+                    + table.columnNames.length * COLUMN_HEADER_BYTES;
+        }
+
+        for (CompiledTable table : compiledTables) {
+            out.writeInt(table.nameId);
+            out.writeShort(table.columnNames.length);
+            out.writeInt(table.rows.size());
+            out.writeInt(table.rowBytes);
+            out.writeInt(rowsOffset);
+            for (int i = 0; i < table.columnNames.length; i++) {
+                out.writeInt(strings.get(table.columnNames[i]));
+                out.writeByte(table.schema.getType(i).getCode());
+                out.writeInt(table.offsets[i]);
+            }
+            rowsOffset += table.rows.size() * table.rowBytes;
+        }
+
+        for (CompiledTable table : compiledTables) {
+            table.writeRows(out, strings);
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Compiles the csv files from the resources on the classpath, used when
+     * the game is started without the Maven build
+     *
+     * @return The bundle
+     * @throws IOException If a csv file cannot be read
+     */
+    public static byte[] compileFromClasspath() throws IOException {
+        return compile(TABLES, table -> {
+            InputStream stream = GameDataCompiler.class
+                    .getResourceAsStream("/" + table + ".csv");
+            if (stream == null) {
+                throw new IOException("Missing data file: " + table);
+            }
+            return new InputStreamReader(stream, StandardCharsets.UTF_8);
+        });
+    }
+
+    /**
+     * A csv file with the type of every column
+     */
+    private static final class CompiledTable {
+        private final int nameId;
+        private final String[] columnNames;
+        private final CsvSchema schema;
+        private final int[] offsets;
+        private final int rowBytes;
+
+        /**
+         * The cells of the rows, sorted by key. Later rows replace earlier
+         * rows with the same key.
+         */
+        private final ArrayList<String[]> rows;
+
+        private CompiledTable(String name, CsvReader reader,
+                              Map<String, Integer> strings) throws IOException {
+            nameId = intern(name, strings);
+            columnNames = reader.readRecord();
+            if (columnNames == null) {
+                throw reader.error("the file has no header");
+            }
+            for (String columnName : columnNames) {
+                intern(columnName, strings);
+            }
+
+            TreeMap<String, String[]> sortedRows = new TreeMap<>();
+            String[] record;
+            while ((record = reader.readRecord()) != null) {
+                if (record.length > columnNames.length) {
+                    throw reader.fieldError(columnNames.length, "the record has "
+                            + record.length + " fields but the header only "
+                            + columnNames.length);
+                }
+                if (record[0].isEmpty()) {
+                    throw reader.fieldError(0, "the record has no key");
+                }
+
+                // Cells at the end of a record may be left out
+                sortedRows.put(record[0],
+                        Arrays.copyOf(record, columnNames.length));
+            }
+            rows = new ArrayList<>(sortedRows.values());
+            schema = CsvSchema.infer(columnNames, rows);
+
+            offsets = new int[columnNames.length];
+            int offset = 0;
+            for (int i = 0; i < columnNames.length; i++) {
+                offsets[i] = offset;
+                offset += schema.getType(i) == CsvSchema.Type.DECIMAL ? 8 : 4;
+
+                if (schema.getType(i) == CsvSchema.Type.STRING) {
+                    for (String[] row : rows) {
+                        if (row[i] != null) {
+                            intern(row[i], strings);
+                        }
+                    }
+                }
+            }
+            rowBytes = offset;
+        }
+
+        private void writeRows(DataOutputStream out,
+                               Map<String, Integer> strings) throws IOException {
+            for (String[] row : rows) {
+                for (int i = 0; i < columnNames.length; i++) {
+                    switch (schema.getType(i)) {
+                        case INTEGER -> out.writeInt(Integer.parseInt(row[i]));
+                        case DECIMAL ->
+                                out.writeDouble(Double.parseDouble(row[i]));
+                        default -> out.writeInt(row[i] == null ? MISSING
+                                : strings.get(row[i]));
+                    }
+                }
+            }
+        }
+    }
+
+    private static int intern(String string, Map<String, Integer> strings) {
+        return strings.computeIfAbsent(string, key -> strings.size());
+    }
+
+    /**
+     * Compiles the csv files of a resource directory, called by the Maven
+     * build
+     *
+     * @param args The resource directory and the directory to write the
+     *             bundle to
+     * @throws IOException If a csv file cannot be read or the bundle cannot
+     *                     be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException(
+                    "Usage: GameDataCompiler <resource directory> <output directory>");
+        }
+
+        byte[] bundle = compile(TABLES, table -> Files.newBufferedReader(
+                Paths.get(args[0], table + ".csv"), StandardCharsets.UTF_8));
+
+        Path output = Paths.get(args[1]).resolve(BUNDLE_FILE);
+        Files.createDirectories(output.getParent());
+        Files.write(output, bundle);
+        System.out.println("Compiled " + TABLES.length + " tables into "
+                + output + " (" + bundle.length + " bytes)");
+    }
+
+}
@@ -0,0 +1,15 @@
+package inheritamon.model.data;
+
+/**
+ * @author Jeremias
+ * The data of an item from items.csv, shared and cannot be changed
+ *
+ * @param name        The name of the item
+ * @param sprite      The name of the sprite of the item
+ * @param description The description of the item
+ * @param type        The type of the item, like Healing or Pokeball
+ * @param amount      How strong the effect of the item is
+ */
+public record ItemDef(String name, String sprite, String description,
+                      String type, int amount) {
+}
@@ -0,0 +1,86 @@
+package inheritamon.model.data;
+
+/**
+ * @author Jeremias
+ * A snapshot of the progress of loading the assets
+ */
+public final class LoadingProgress {
+
+    private final int filesDone;
+    private final int fileCount;
+    private final long bytesLoaded;
+    private final long elapsedMillis;
+
+    /**
+     * Constructor for the LoadingProgress class
+     *
+     * @param filesDone     The number of files that have been loaded
+     * @param fileCount     The total number of files to load
+     * @param bytesLoaded   The decoded size of the loaded files in bytes
+     * @param elapsedMillis The time since loading started in milliseconds
+     */
+    public LoadingProgress(int filesDone, int fileCount, long bytesLoaded,
+                           long elapsedMillis) {
+        this.filesDone = filesDone;
+        this.fileCount = fileCount;
+        this.bytesLoaded = bytesLoaded;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Gets the number of files that have been loaded
+     *
+     * @return The number of loaded files
+     */
+    public int getFilesDone() {
+        return filesDone;
+    }
+
+    /**
+     * Gets the total number of files to load
+     *
+     * @return The number of files
+     */
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * Gets the decoded size of the loaded files
+     *
+     * @return The size in bytes
+     */
+    public long getBytesLoaded() {
+        return bytesLoaded;
+    }
+
+    /**
+     * Gets the time since loading started
+     *
+     * @return The elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Checks whether all files have been loaded
+     *
+     * @return Whether loading is done
+     */
+    public boolean isDone() {
+        return filesDone >= fileCount;
+    }
+
+    /**
+     * Gets a summary of the progress for logging
+     *
+     * @return The files, size and time of the progress
+     */
+    @Override
+    public String toString() {
+        return String.format("%d/%d files, %d KB, %d ms", filesDone, fileCount,
+                bytesLoaded / 1024, elapsedMillis);
+    }
+
+}
@@ -0,0 +1,82 @@
+package inheritamon.model.data;
+
+import java.util.Map;
+
+/**
+ * @author Jeremias
+ * The data of a move from move_stats.csv. Moves are shared and cannot be
+ * changed.
+ *
+ * @param name           The name of the move
+ * @param numericalStats The integer columns, like Modifier and Cost
+ * @param stringStats    The text columns, like Type, Target and the names
+ *                       of the move in each language
+ */
+public record MoveDef(String name, Map<String, Integer> numericalStats,
+                      Map<String, String> stringStats) {
+
+    /**
+     * Constructor for the MoveDef record, the maps are copied into
+     * unmodifiable ones
+     */
+    public MoveDef {
+        numericalStats = Map.copyOf(numericalStats);
+        stringStats = Map.copyOf(stringStats);
+    }
+
+    /**
+     * Gets the modifier of the move
+     *
+     * @return The modifier
+     */
+    public int getModifier() {
+        return numericalStats.get("Modifier");
+    }
+
+    /**
+     * Gets the MP cost of the move
+     *
+     * @return The cost
+     */
+    public int getCost() {
+        return numericalStats.get("Cost");
+    }
+
+    /**
+     * Gets the type of the move, like Physical, Magical or Healing
+     *
+     * @return The type
+     */
+    public String getType() {
+        return stringStats.get("Type");
+    }
+
+    /**
+     * Checks if the move heals the user instead of dealing damage
+     *
+     * @return Whether the move is a healing move
+     */
+    public boolean isHealing() {
+        return "Healing".equals(getType());
+    }
+
+    /**
+     * Checks if the move hits every enemy instead of a single one
+     *
+     * @return Whether the move targets all enemies
+     */
+    public boolean isMultiTarget() {
+        return "All".equals(stringStats.get("Target"));
+    }
+
+    /**
+     * Gets the name of the move in a language
+     *
+     * @param language The language, like EN or NL
+     * @return The name of the move in the language
+     */
+    public String getLocalName(String language) {
+        return stringStats.get(language);
+    }
+
+}
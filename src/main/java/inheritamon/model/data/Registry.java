@@ -0,0 +1,137 @@
+package inheritamon.model.data;
+
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+
+/**
+ * @author Jeremias
+ * The records of one table of the game data with dense integer ids.
+ * The id of a record is its row in the bundle, so ids go from 0 to size - 1
+ * in the order of the names. The names and the map from name to id are
+ * built once, the records themselves are created when they are first used
+ * and then shared.
+ *
+ * @param <T> The type of the records
+ */
+public final class Registry<T> {
+
+    private final List<String> names;
+    private final HashMap<String, Integer> ids;
+    private final AtomicReferenceArray<T> records;
+    private final BiFunction<Integer, String, T> creator;
+
+    /**
+     * A view of all records, nothing is copied when it is used
+     */
+    private final List<T> all = new AbstractList<>() {
+        @Override
+        public T get(int id) {
+            return Registry.this.get(id);
+        }
+
+        @Override
+        public int size() {
+            return records.length();
+        }
+    };
+
+    /**
+     * Constructor for the Registry class
+     *
+     * @param table   The table with the data of the records
+     * @param creator Creates a record from its row in the table and its name
+     */
+    public Registry(GameDataBundle.Table table,
+                    BiFunction<Integer, String, T> creator) {
+        String[] keys = table.getKeys();
+        this.names = List.of(keys);
+        this.ids = HashMap.newHashMap(keys.length);
+        for (int id = 0; id < keys.length; id++) {
+            ids.put(keys[id], id);
+        }
+        this.records = new AtomicReferenceArray<>(keys.length);
+        this.creator = creator;
+    }
+
+    /**
+     * Gets the number of records
+     *
+     * @return The number of records
+     */
+    public int size() {
+        return records.length();
+    }
+
+    /**
+     * Gets the id of a record
+     *
+     * @param name The name of the record
+     * @return The id of the record, -1 if there is no record with the name
+     */
+    public int getId(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the name of a record
+     *
+     * @param id The id of the record
+     * @return The name of the record
+     */
+    public String getName(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Gets the names of all records in the order of their ids
+     *
+     * @return The names, cannot be changed
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Gets a record by its id
+     *
+     * @param id The id of the record
+     * @return The record
+     */
+    public T get(int id) {
+        T record = records.get(id);
+        if (record == null) {
+            record = creator.apply(id, names.get(id));
+
+            // Another thread may have created the record first
+            if (!records.compareAndSet(id, null, record)) {
+                record = records.get(id);
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Gets a record by its name
+     *
+     * @param name The name of the record
+     * @return The record, null if there is no record with the name
+     */
+    public T get(String name) {
+        int id = getId(name);
+        return id < 0 ? null : get(id);
+    }
+
+    /**
+     * Gets all records in the order of their ids
+     *
+     * @return A view of the records, cannot be changed
+     */
+    public List<T> getAll() {
+        return all;
+    }
+
+}
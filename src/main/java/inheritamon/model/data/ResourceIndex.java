@@ -0,0 +1,271 @@
+package inheritamon.model.data;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * @author Jeremias
+ * An index of every file in the resources with its size and hash.
+ * The index is written by the Maven build, so the game never has to list
+ * directories, which is impossible inside a jar.
+ * Lookups ignore case, because the file names on disk do not always match
+ * the names in the csv files and jars are case sensitive.
+ */
+public final class ResourceIndex {
+
+    /**
+     * The name of the index in the root of the resources
+     */
+    public static final String INDEX_FILE = "asset_index.csv";
+
+    /**
+     * A file in the resources
+     *
+     * @param path The path of the file, starting with a slash
+     * @param size The size of the file in bytes
+     * @param hash The SHA-256 hash of the file in hexadecimal
+     */
+    public record Entry(String path, long size, String hash) {
+
+        /**
+         * Gets the name of the file without folder and extension
+         *
+         * @return The name of the file
+         */
+        public String getName() {
+            int start = path.lastIndexOf('/') + 1;
+            int end = path.lastIndexOf('.');
+            return path.substring(start, end > start ? end : path.length());
+        }
+    }
+
+    private final HashMap<String, Entry> entries = new HashMap<>();
+    private final HashMap<String, Entry> entriesIgnoringCase = new HashMap<>();
+    private final HashMap<String, ArrayList<Entry>> folders = new HashMap<>();
+
+    /**
+     * Whether the index knows the resources, if not every path is tried
+     */
+    private final boolean available;
+
+    private ResourceIndex(List<Entry> indexEntries, boolean available) {
+        this.available = available;
+        for (Entry entry : indexEntries) {
+            entries.put(entry.path(), entry);
+            entriesIgnoringCase.putIfAbsent(
+                    entry.path().toLowerCase(Locale.ROOT), entry);
+
+            int folderEnd = entry.path().lastIndexOf('/');
+            String folder = entry.path().substring(1, Math.max(folderEnd, 1));
+            folders.computeIfAbsent(folder, key -> new ArrayList<>())
+                    .add(entry);
+        }
+    }
+
+    /**
+     * Loads the index from the resources. When the game is started without
+     * the Maven build the resource directory is scanned instead.
+     *
+     * @return The index
+     */
+    public static ResourceIndex load() {
+        long start = System.nanoTime();
+
+        ResourceIndex index;
+        try (InputStream stream =
+                     ResourceIndex.class.getResourceAsStream("/" + INDEX_FILE)) {
+            if (stream != null) {
+                index = new ResourceIndex(read(stream), true);
+            } else {
+                System.out.println(INDEX_FILE
+                        + " not found, scanning the resources instead");
+                index = scan();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            index = new ResourceIndex(List.of(), false);
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "Indexed %d resources in %.1f ms", index.entries.size(),
+                (System.nanoTime() - start) / 1e6));
+        return index;
+    }
+
+    private static List<Entry> read(InputStream stream) throws IOException {
+        ArrayList<Entry> indexEntries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+
+            // Skip the header
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                // The path may contain commas, the size and hash cannot
+                int hashStart = line.lastIndexOf(',');
+                int sizeStart = line.lastIndexOf(',', hashStart - 1);
+                if (sizeStart < 0) {
+                    throw new IOException("Malformed line in " + INDEX_FILE
+                            + ": " + line);
+                }
+                indexEntries.add(new Entry(line.substring(0, sizeStart),
+                        Long.parseLong(line.substring(sizeStart + 1, hashStart)),
+                        line.substring(hashStart + 1)));
+            }
+        }
+        return indexEntries;
+    }
+
+    private static ResourceIndex scan() {
+        URL root = ResourceIndex.class.getResource("/monster_stats.csv");
+        try {
+            if (root != null && "file".equals(root.getProtocol())) {
+                return new ResourceIndex(
+                        createEntries(Paths.get(root.toURI()).getParent(), false),
+                        true);
+            }
+        } catch (URISyntaxException | IOException e) {
+            e.printStackTrace();
+        }
+        System.out.println("Cannot scan the resources, assets are looked up "
+                + "by their name");
+        return new ResourceIndex(List.of(), false);
+    }
+
+    private static List<Entry> createEntries(Path root, boolean hash)
+            throws IOException {
+        ArrayList<Entry> indexEntries = new ArrayList<>();
+        MessageDigest digest = hash ? createDigest() : null;
+
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.sorted()::iterator) {
+                String path = "/" + root.relativize(file).toString()
+                        .replace('\\', '/');
+                if (!Files.isRegularFile(file) || path.endsWith(".class")
+                        || path.equals("/" + INDEX_FILE)) {
+                    continue;
+                }
+
+                String fileHash = "";
+                if (digest != null) {
+                    fileHash = HexFormat.of().formatHex(
+                            digest.digest(Files.readAllBytes(file)));
+                }
+                indexEntries.add(new Entry(path, Files.size(file), fileHash));
+            }
+        }
+        return indexEntries;
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Gets a file from the index
+     *
+     * @param path The path of the file, starting with a slash
+     * @return The file, null if it is not in the index
+     */
+    public Entry get(String path) {
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            entry = entriesIgnoringCase.get(path.toLowerCase(Locale.ROOT));
+        }
+        return entry;
+    }
+
+    /**
+     * Finds the actual path of a file, whose case may differ from the
+     * requested path
+     *
+     * @param path The requested path, starting with a slash
+     * @return The actual path, null if the file does not exist
+     */
+    public String resolve(String path) {
+        if (!available) {
+            return path;
+        }
+        Entry entry = get(path);
+        return entry == null ? null : entry.path();
+    }
+
+    /**
+     * Gets the files directly inside a folder
+     *
+     * @param folderName The folder without slashes, like tiles
+     * @return The files in the folder, sorted by path
+     */
+    public List<Entry> getFolder(String folderName) {
+        return Collections.unmodifiableList(
+                folders.getOrDefault(folderName, new ArrayList<>()));
+    }
+
+    /**
+     * Gets the number of files in the index
+     *
+     * @return The number of files
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the index of a resource directory, called by the Maven build
+     *
+     * @param args The resource directory and the directory to write the
+     *             index to
+     * @throws IOException If the resources cannot be read or the index
+     *                     cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException(
+                    "Usage: ResourceIndex <resource directory> <output directory>");
+        }
+
+        Path root = Paths.get(args[0]);
+        List<Entry> indexEntries = createEntries(root, true);
+
+        Path output = Paths.get(args[1]).resolve(INDEX_FILE);
+        Files.createDirectories(output.getParent());
+        try (BufferedWriter writer =
+                     Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer.write("Path,Size,Hash");
+            for (Entry entry : indexEntries) {
+                writer.newLine();
+                writer.write(entry.path() + "," + entry.size() + ","
+                        + entry.hash());
+            }
+        }
+
+        System.out.println("Wrote " + indexEntries.size() + " resources to "
+                + output);
+    }
+
+}
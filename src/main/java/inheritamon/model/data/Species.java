@@ -0,0 +1,50 @@
+package inheritamon.model.data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Jeremias
+ * The data of a pokemon species from monster_stats.csv. Species are shared
+ * and cannot be changed, pokemon copy the stats they change in battle.
+ *
+ * @param name           The name of the species
+ * @param moveSet        The names of the moves the species knows
+ * @param numericalStats The integer columns, like MaxHP and Atk
+ * @param stringStats    The text columns, like Name and Loot
+ */
+public record Species(String name, List<String> moveSet,
+                      Map<String, Integer> numericalStats,
+                      Map<String, String> stringStats) {
+
+    /**
+     * Constructor for the Species record, the collections are copied into
+     * unmodifiable ones
+     */
+    public Species {
+        moveSet = List.copyOf(moveSet);
+        numericalStats = Map.copyOf(numericalStats);
+        stringStats = Map.copyOf(stringStats);
+    }
+
+    /**
+     * Gets a numerical stat of the species
+     *
+     * @param statName The name of the stat
+     * @return The value of the stat, null if the species does not have it
+     */
+    public Integer getNumericalStat(String statName) {
+        return numericalStats.get(statName);
+    }
+
+    /**
+     * Gets a string stat of the species
+     *
+     * @param statName The name of the stat
+     * @return The value of the stat, null if the species does not have it
+     */
+    public String getStringStat(String statName) {
+        return stringStats.get(statName);
+    }
+
+}
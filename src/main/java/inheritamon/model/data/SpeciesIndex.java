@@ -0,0 +1,150 @@
+package inheritamon.model.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Jeremias
+ * Finds species by the item they drop, by the moves they know and by the
+ * value of a stat without going through all species. The lists are built
+ * once and shared, a query only returns a view of them.
+ */
+public final class SpeciesIndex {
+
+    private final Registry<Species> species;
+
+    /**
+     * The species that drop each item and know each move, by id
+     */
+    private final List<List<Species>> byLoot;
+    private final List<List<Species>> byMove;
+
+    /**
+     * The species sorted by a stat, built when the stat is first asked for
+     */
+    private final ConcurrentHashMap<String, StatOrder> byStat =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The species that have a stat with their values, both sorted by value
+     */
+    private record StatOrder(int[] values, List<Species> species) {
+    }
+
+    /**
+     * Constructor for the SpeciesIndex class, creates all species
+     *
+     * @param species The species
+     * @param moves   The moves
+     * @param items   The items
+     */
+    public SpeciesIndex(Registry<Species> species, Registry<MoveDef> moves,
+                        Registry<ItemDef> items) {
+        this.species = species;
+
+        ArrayList<ArrayList<Species>> lootBuckets = createBuckets(items.size());
+        ArrayList<ArrayList<Species>> moveBuckets = createBuckets(moves.size());
+        for (Species pokemon : species.getAll()) {
+            int item = items.getId(pokemon.getStringStat("Loot"));
+            if (item >= 0) {
+                lootBuckets.get(item).add(pokemon);
+            }
+            for (String moveName : pokemon.moveSet()) {
+                int move = moves.getId(moveName);
+                if (move >= 0) {
+                    moveBuckets.get(move).add(pokemon);
+                }
+            }
+        }
+        byLoot = freeze(lootBuckets);
+        byMove = freeze(moveBuckets);
+    }
+
+    private static ArrayList<ArrayList<Species>> createBuckets(int count) {
+        ArrayList<ArrayList<Species>> buckets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        return buckets;
+    }
+
+    private static List<List<Species>> freeze(
+            ArrayList<ArrayList<Species>> buckets) {
+        ArrayList<List<Species>> frozen = new ArrayList<>(buckets.size());
+        for (ArrayList<Species> bucket : buckets) {
+            frozen.add(List.copyOf(bucket));
+        }
+        return List.copyOf(frozen);
+    }
+
+    /**
+     * Gets the species that drop an item
+     *
+     * @param itemId The id of the item
+     * @return The species, cannot be changed
+     */
+    public List<Species> getSpeciesWithLoot(int itemId) {
+        return byLoot.get(itemId);
+    }
+
+    /**
+     * Gets the species that know a move
+     *
+     * @param moveId The id of the move
+     * @return The species, cannot be changed
+     */
+    public List<Species> getSpeciesWithMove(int moveId) {
+        return byMove.get(moveId);
+    }
+
+    /**
+     * Gets the species with a stat in a range, sorted by the stat
+     *
+     * @param statName The name of a numerical stat, like Level
+     * @param min      The lowest value, inclusive
+     * @param max      The highest value, inclusive
+     * @return The species, cannot be changed
+     */
+    public List<Species> getSpeciesInStatRange(String statName, int min,
+                                               int max) {
+        StatOrder order = byStat.computeIfAbsent(statName, this::sortByStat);
+        int from = lowerBound(order.values(), min);
+        int to = max == Integer.MAX_VALUE ? order.values().length
+                : lowerBound(order.values(), max + 1);
+        return from >= to ? List.of() : order.species().subList(from, to);
+    }
+
+    private StatOrder sortByStat(String statName) {
+        Species[] sorted = species.getAll().stream()
+                .filter(pokemon -> pokemon.getNumericalStat(statName) != null)
+                .sorted(Comparator.comparingInt(
+                        pokemon -> pokemon.getNumericalStat(statName)))
+                .toArray(Species[]::new);
+
+        int[] values = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            values[i] = sorted[i].getNumericalStat(statName);
+        }
+        return new StatOrder(values, List.of(sorted));
+    }
+
+    /**
+     * Finds the first value that is at least the key
+     */
+    private static int lowerBound(int[] values, int key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+}
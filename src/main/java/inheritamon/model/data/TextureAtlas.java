@@ -0,0 +1,197 @@
+package inheritamon.model.data;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Jeremias
+ * Packs many small images into a few large pages, so that the world is
+ * drawn from a handful of images instead of one image per texture.
+ * The pages are created compatible with the screen where possible, which
+ * lets Java2D keep them in video memory.
+ */
+public final class TextureAtlas {
+
+    /**
+     * The largest width and height of a page
+     */
+    private static final int MAX_PAGE_SIZE = 1024;
+
+    /**
+     * Empty pixels around each region so scaled regions never show their
+     * neighbours
+     */
+    private static final int PADDING = 1;
+
+    /**
+     * A part of a page that holds one texture
+     *
+     * @param page   The page that contains the texture
+     * @param x      The left edge of the texture on the page
+     * @param y      The top edge of the texture on the page
+     * @param width  The width of the texture
+     * @param height The height of the texture
+     */
+    public record Region(BufferedImage page, int x, int y, int width,
+                         int height) {
+
+        /**
+         * Draws the texture scaled to a rectangle
+         *
+         * @param g2     The graphics object
+         * @param x      The left edge of the rectangle
+         * @param y      The top edge of the rectangle
+         * @param width  The width of the rectangle
+         * @param height The height of the rectangle
+         */
+        public void draw(Graphics2D g2, int x, int y, int width, int height) {
+            g2.drawImage(page, x, y, x + width, y + height, this.x, this.y,
+                    this.x + this.width, this.y + this.height, null);
+        }
+    }
+
+    private final ArrayList<BufferedImage> pages = new ArrayList<>();
+    private final HashMap<String, Region> regions = new HashMap<>();
+
+    /**
+     * Packs images into an atlas. Images are placed on shelves from the
+     * tallest to the shortest, a new page is started when one is full.
+     *
+     * @param images The images to pack by their key
+     */
+    public TextureAtlas(Map<String, BufferedImage> images) {
+
+        ArrayList<Map.Entry<String, BufferedImage>> sorted =
+                new ArrayList<>(images.entrySet());
+        sorted.sort(Comparator.comparingInt(
+                (Map.Entry<String, BufferedImage> entry) ->
+                        entry.getValue().getHeight()).reversed()
+                .thenComparing(Map.Entry::getKey));
+
+        // First decide where everything goes, then draw each page once
+        ArrayList<List<Map.Entry<String, int[]>>> placements = new ArrayList<>();
+        ArrayList<int[]> pageSizes = new ArrayList<>();
+        int shelfX = MAX_PAGE_SIZE;
+        int shelfY = 0;
+        int shelfHeight = 0;
+
+        for (Map.Entry<String, BufferedImage> entry : sorted) {
+            int width = entry.getValue().getWidth() + 2 * PADDING;
+            int height = entry.getValue().getHeight() + 2 * PADDING;
+            if (width > MAX_PAGE_SIZE || height > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException(
+                        "Texture too large for the atlas: " + entry.getKey());
+            }
+
+            // Start a new shelf, or a new page when the shelf does not fit
+            if (shelfX + width > MAX_PAGE_SIZE) {
+                shelfY += shelfHeight;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            if (placements.isEmpty() || shelfY + height > MAX_PAGE_SIZE) {
+                placements.add(new ArrayList<>());
+                pageSizes.add(new int[2]);
+                shelfX = 0;
+                shelfY = 0;
+                shelfHeight = 0;
+            }
+
+            int[] pageSize = pageSizes.get(pageSizes.size() - 1);
+            placements.get(placements.size() - 1).add(
+                    Map.entry(entry.getKey(), new int[]{shelfX, shelfY}));
+            pageSize[0] = Math.max(pageSize[0], shelfX + width);
+            pageSize[1] = Math.max(pageSize[1], shelfY + height);
+
+            shelfX += width;
+            shelfHeight = Math.max(shelfHeight, height);
+        }
+
+        for (int i = 0; i < placements.size(); i++) {
+            BufferedImage page = createPage(pageSizes.get(i)[0],
+                    pageSizes.get(i)[1]);
+            Graphics2D g2 = page.createGraphics();
+
+            for (Map.Entry<String, int[]> placement : placements.get(i)) {
+                BufferedImage image = images.get(placement.getKey());
+                int x = placement.getValue()[0] + PADDING;
+                int y = placement.getValue()[1] + PADDING;
+                g2.drawImage(image, x, y, null);
+                regions.put(placement.getKey(), new Region(page, x, y,
+                        image.getWidth(), image.getHeight()));
+            }
+
+            g2.dispose();
+            pages.add(page);
+        }
+    }
+
+    private static BufferedImage createPage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        GraphicsConfiguration config = GraphicsEnvironment
+                .getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration();
+        return config.createCompatibleImage(width, height,
+                Transparency.TRANSLUCENT);
+    }
+
+    /**
+     * Gets the region of a texture
+     *
+     * @param key The key of the texture
+     * @return The region, null if the texture is not in the atlas
+     */
+    public Region getRegion(String key) {
+        return regions.get(key);
+    }
+
+    /**
+     * Gets the number of pages the textures are packed in
+     *
+     * @return The number of pages
+     */
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Gets the memory used by the pages
+     *
+     * @return The size of the pages in bytes
+     */
+    public long getBytes() {
+        long bytes = 0;
+        for (BufferedImage page : pages) {
+            bytes += DataHandler.getImageBytes(page);
+        }
+        return bytes;
+    }
+
+    /**
+     * Gets a summary of the atlas for logging
+     *
+     * @return The number of textures, pages and their size
+     */
+    @Override
+    public String toString() {
+        StringBuilder sizes = new StringBuilder();
+        for (BufferedImage page : pages) {
+            sizes.append(sizes.length() == 0 ? "" : ", ")
+                    .append(page.getWidth()).append('x')
+                    .append(page.getHeight());
+        }
+        return regions.size() + " textures on " + pages.size() + " pages ("
+                + sizes + ")";
+    }
+
+}
@@ -154,9 +154,8 @@ public class LanguageConfiguration {
      */
     public String getLocalMoveName(String moveName) {
 
-        HashMap<String, String> moveData =
-                DataHandler.getInstance().getMoveData(moveName);
-        return moveData.get(selectedLanguage.toString());
+        return DataHandler.getInstance().getMove(moveName)
+                .getLocalName(selectedLanguage.toString());
 
     }
 
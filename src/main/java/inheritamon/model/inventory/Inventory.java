@@ -1,6 +1,7 @@
 package inheritamon.model.inventory;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.io.Serializable;
 
 import inheritamon.model.data.DataHandler;
@@ -10,6 +11,9 @@ import inheritamon.model.data.DataHandler;
  * Class that controls player inventory. Items are stored in an array
  */
 public class Inventory implements Serializable {
+
+    private static final long serialVersionUID = 7166890599759376538L;
+
     private int INITIAL_SIZE = 6;
 
     private int size = INITIAL_SIZE;
@@ -24,15 +28,25 @@ public class Inventory implements Serializable {
 
         DataHandler dataHandler = DataHandler.getInstance();
         // Starting items
-        Item potion = new Item(dataHandler.getItemData("Potion"));
-        Item inheritaball = new Item(dataHandler.getItemData("Inheritaball"));
-        Item inheritaball2 = new Item(dataHandler.getItemData("Inheritaball"));
+        Item potion = new Item(dataHandler.getItem("Potion"));
+        Item inheritaball = new Item(dataHandler.getItem("Inheritaball"));
+        Item inheritaball2 = new Item(dataHandler.getItem("Inheritaball"));
         addItem(potion);
         addItem(inheritaball);
         addItem(inheritaball2);
 
     }
 
+    /**
+     * Constructor for an inventory that was saved, without starting items
+     * @param items The items in the inventory
+     * @param coins The amount of coins
+     */
+    public Inventory(List<Item> items, int coins) {
+        inventory.addAll(items);
+        this.coins = coins;
+    }
+
     /**
      * @return current inventory size
      */
@@ -1,9 +1,9 @@
 package inheritamon.model.inventory;
 
-import java.util.HashMap;
 import java.io.Serializable;
 
 import inheritamon.model.data.DataHandler;
+import inheritamon.model.data.ItemDef;
 import inheritamon.model.npcs.Roster;
 import inheritamon.model.npcs.types.*;
 
@@ -12,6 +12,9 @@ import inheritamon.model.npcs.types.*;
  * Item class. Items have names, descriptions and data, which is stored in a csv file (items.csv)
  */
 public class Item implements Serializable {
+
+    private static final long serialVersionUID = 2666888766681131185L;
+
     String itemName = new String();
 
     /**
@@ -43,19 +46,27 @@ public class Item implements Serializable {
 
     private String itemType;
 
+    /**
+     * Returns item type
+     * @return Type of the item, like Healing or Pokeball
+     */
+    public String getItemType() {
+        return itemType;
+    }
+
     private int itemAmount;
 
 
     /**
      * Constructs item with data from items.csv
-     * @param itemData HashMap containing item data
+     * @param itemData The data of the item
      */
-    public Item(HashMap<String, String> itemData) {
-        itemName = itemData.get("Name");
-        itemDescription = itemData.get("Description");
-        itemSprite = itemData.get("Sprite");
-        itemType = itemData.get("Type");
-        itemAmount = Integer.parseInt(itemData.get("Amount"));
+    public Item(ItemDef itemData) {
+        itemName = itemData.name();
+        itemDescription = itemData.description();
+        itemSprite = itemData.sprite();
+        itemType = itemData.type();
+        itemAmount = itemData.amount();
     }
 
     /**
@@ -76,7 +87,7 @@ public class Item implements Serializable {
             DataHandler dh = DataHandler.getInstance();
             if (enemyPokemon.getHP() < enemyPokemon.getNumericalStat("MaxHP")) {
                 // add pokemon to player roster
-                PlayerPokemon newPokemon = new PlayerPokemon(dh.getPokemonData(enemyPokemon.getName()));
+                PlayerPokemon newPokemon = new PlayerPokemon(dh.getSpecies(enemyPokemon.getName()));
                 playerRoster.addPokemon(newPokemon);
                 return true;
             }
@@ -0,0 +1,169 @@
+package inheritamon.model.npcs;
+
+import inheritamon.model.simulation.SimulatedMove;
+import inheritamon.model.simulation.SimulatedPokemon;
+import inheritamon.model.simulation.SimulationPolicy;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * @author Jeremias
+ * The parameters of a data driven AI
+ * The hand written AIs are special cases of these parameters, which allows
+ * the tuning harness to search for better values instead of hard coding them
+ */
+public final class AIParameters implements SimulationPolicy, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Picks a random move every turn, like the RandomPokemon
+     */
+    public static final AIParameters RANDOM = new AIParameters(0, 0, 0);
+
+    /**
+     * Heals below half HP and picks random moves otherwise, like the
+     * AttritionPokemon
+     */
+    public static final AIParameters ATTRITION = new AIParameters(0.5, 0, 0);
+
+    /**
+     * Always uses the strongest affordable attack, like the RecklessPokemon
+     */
+    public static final AIParameters RECKLESS = new AIParameters(0, 1, 0);
+
+    /**
+     * The fraction of MaxHP under which the pokemon uses a healing move
+     */
+    private final double healThreshold;
+
+    /**
+     * The chance of using the strongest attack instead of a random move
+     */
+    private final double greed;
+
+    /**
+     * The fraction of MaxMP that the strongest attack may not dip into, so
+     * there is MP left over for healing
+     */
+    private final double manaReserve;
+
+    /**
+     * Constructor for the AIParameters class, values are clamped between 0 and 1
+     *
+     * @param healThreshold The fraction of MaxHP under which to heal
+     * @param greed         The chance of using the strongest attack
+     * @param manaReserve   The fraction of MaxMP to keep for healing
+     */
+    public AIParameters(double healThreshold, double greed,
+                        double manaReserve) {
+        this.healThreshold = clamp(healThreshold);
+        this.greed = clamp(greed);
+        this.manaReserve = clamp(manaReserve);
+    }
+
+    /**
+     * Creates the parameters from a row of ai_parameters.csv
+     *
+     * @param aiData The data of the AI
+     * @return The parameters of the AI
+     */
+    public static AIParameters fromData(HashMap<String, String> aiData) {
+        return new AIParameters(
+                Double.parseDouble(aiData.get("HealThreshold")),
+                Double.parseDouble(aiData.get("Greed")),
+                Double.parseDouble(aiData.get("ManaReserve")));
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+
+    /**
+     * Chooses a move according to the parameters
+     *
+     * @param self   The pokemon that is choosing a move
+     * @param target The pokemon that is being fought
+     * @param random The random number generator to use
+     * @return The index of the move to use
+     */
+    @Override
+    public int chooseMove(SimulatedPokemon self, SimulatedPokemon target,
+                          SplittableRandom random) {
+
+        int moveCount = self.getMoveCount();
+
+        // If HP is below the threshold, use the first affordable healing move
+        if (self.getHP() < self.getMaxHP() * healThreshold) {
+            for (int i = 0; i < moveCount; i++) {
+                SimulatedMove move = self.getMove(i);
+                if (move.isHealing() && move.getCost() <= self.getMP()) {
+                    return i;
+                }
+            }
+        }
+
+        // Sometimes use the strongest attack that leaves the reserve intact
+        if (random.nextDouble() < greed) {
+            int spendableMP =
+                    self.getMP() - (int) (self.getMaxMP() * manaReserve);
+            int strongestMove = -1;
+            int highestModifier = 0;
+
+            for (int i = 0; i < moveCount; i++) {
+                SimulatedMove move = self.getMove(i);
+                boolean affordable = move.getCost() == 0 ||
+                        move.getCost() <= spendableMP;
+                if (!move.isHealing() && affordable &&
+                        move.getModifier() > highestModifier) {
+                    highestModifier = move.getModifier();
+                    strongestMove = i;
+                }
+            }
+
+            if (strongestMove >= 0) {
+                return strongestMove;
+            }
+        }
+
+        // Otherwise, return a random move
+        return random.nextInt(moveCount);
+    }
+
+    /**
+     * Gets the fraction of MaxHP under which the pokemon heals
+     *
+     * @return The heal threshold
+     */
+    public double getHealThreshold() {
+        return healThreshold;
+    }
+
+    /**
+     * Gets the chance of using the strongest attack
+     *
+     * @return The greed
+     */
+    public double getGreed() {
+        return greed;
+    }
+
+    /**
+     * Gets the fraction of MaxMP that is kept for healing
+     *
+     * @return The mana reserve
+     */
+    public double getManaReserve() {
+        return manaReserve;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%.4f,%.4f,%.4f", healThreshold, greed,
+                manaReserve);
+    }
+
+}
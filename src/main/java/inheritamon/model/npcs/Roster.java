@@ -15,6 +15,8 @@ import java.io.Serializable;
  */
 public class Roster implements Serializable {
 
+    private static final long serialVersionUID = 5371639756691815270L;
+
     /**
      * The pokemons of the player.
      */
@@ -93,6 +95,15 @@ public class Roster implements Serializable {
 
     }
 
+    /**
+     * Get the number of pokemon in the roster.
+     *
+     * @return The number of pokemon
+     */
+    public int getSize() {
+        return roster.size();
+    }
+
     /**
      * Get the roster as an array.
      *
@@ -158,4 +169,40 @@ public class Roster implements Serializable {
         return -1;
     }
 
+    /**
+     * Get the index of the first alive pokemon that is not already in battle
+     *
+     * @param fielded The pokemon that are already in battle, may contain null
+     * @return The index of the pokemon, -1 if there is none
+     */
+    public int getAlivePokemon(Pokemon[] fielded) {
+
+        for (int i = 0; i < roster.size(); i++) {
+
+            Pokemon pokemon = roster.get(i);
+            if (!pokemon.isFainted() && !isFielded(pokemon, fielded)) {
+                return i;
+            }
+
+        }
+
+        return -1;
+    }
+
+    /**
+     * Check if a pokemon is already in battle
+     *
+     * @param pokemon The pokemon to check
+     * @param fielded The pokemon that are in battle, may contain null
+     * @return True if the pokemon is in battle
+     */
+    public static boolean isFielded(Pokemon pokemon, Pokemon[] fielded) {
+        for (Pokemon other : fielded) {
+            if (other == pokemon) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -0,0 +1,49 @@
+package inheritamon.model.npcs;
+
+/**
+ * @author Jeremias
+ * A class to represent an NPC trainer that battles with a full roster
+ * The trainer decides when to switch pokemon based on the matchup
+ */
+public class Trainer {
+
+    /**
+     * The name of the trainer, shown in the battle dialogue.
+     */
+    private final String name;
+
+    /**
+     * The pokemon of the trainer.
+     */
+    private final Roster roster;
+
+    /**
+     * Constructor for the Trainer class.
+     *
+     * @param name   The name of the trainer
+     * @param roster The roster of the trainer
+     */
+    public Trainer(String name, Roster roster) {
+        this.name = name;
+        this.roster = roster;
+    }
+
+    /**
+     * Get the name of the trainer.
+     *
+     * @return The name of the trainer
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the roster of the trainer.
+     *
+     * @return The roster of the trainer
+     */
+    public Roster getRoster() {
+        return roster;
+    }
+
+}
@@ -1,8 +1,8 @@
 package inheritamon.model.npcs.moves;
 
-import java.util.HashMap;
+import java.util.Map;
 
-import inheritamon.model.data.DataHandler;
+import inheritamon.model.data.MoveDef;
 import inheritamon.model.npcs.types.Pokemon;
 
 /**
@@ -12,16 +12,14 @@ import inheritamon.model.npcs.types.Pokemon;
 public abstract class Ability {
 
     /**
-     * The stats of the move which are numerical.
+     * The stats of the move which are numerical, shared with the move data.
      */
-    protected HashMap<String, Integer> numericalStats =
-            new HashMap<>();
+    protected Map<String, Integer> numericalStats = Map.of();
 
     /**
-     * The stats of the move which are strings.
+     * The stats of the move which are strings, shared with the move data.
      */
-    protected HashMap<String, String> stringStats =
-            new HashMap<>();
+    protected Map<String, String> stringStats = Map.of();
 
     /**
      * The method to use the move.
@@ -33,31 +31,43 @@ public abstract class Ability {
     public abstract int executeMove(Pokemon target, Pokemon user);
 
     /**
-     * A method to set up the move
+     * A method to set up the move, the stats are never changed so they are
+     * shared instead of copied
      *
-     * @param moveData The data of the move
+     * @param move The data of the move
      */
-    public void setUp(HashMap<String, String> moveData) {
-        // Loop through the data and put it into the correct HashMap
-        for (String key : moveData.keySet()) {
-
-            // Use the isNumeric method to check if the value is a number
-            if (DataHandler.isNumeric(moveData.get(key))) {
-                numericalStats.put(key, Integer.parseInt(moveData.get(key)));
-            } else {
-                stringStats.put(key, moveData.get(key));
-            }
-
-        }
+    public void setUp(MoveDef move) {
+        numericalStats = move.numericalStats();
+        stringStats = move.stringStats();
+    }
+
+    /**
+     * Gets a numerical stat of the move, like the modifier or cost
+     *
+     * @param statName The name of the stat
+     * @return The value of the stat
+     */
+    public Integer getNumericalStat(String statName) {
+        return numericalStats.get(statName);
+    }
+
+    /**
+     * Gets a string stat of the move, like the type
+     *
+     * @param statName The name of the stat
+     * @return The value of the stat
+     */
+    public String getStringStat(String statName) {
+        return stringStats.get(statName);
     }
 
     /**
      * The constructor for the Move class.
      *
-     * @param moveData The data of the move
+     * @param move The data of the move
      */
-    public Ability(HashMap<String, String> moveData) {
-        setUp(moveData);
+    public Ability(MoveDef move) {
+        setUp(move);
     }
 
 }
@@ -1,7 +1,6 @@
 package inheritamon.model.npcs.moves;
 
-import java.util.HashMap;
-
+import inheritamon.model.data.MoveDef;
 import inheritamon.model.npcs.types.Pokemon;
 
 /**
@@ -21,23 +20,88 @@ public class NormalAbility extends Ability {
      */
     public int executeMove(Pokemon enemy, Pokemon user) {
 
+        int damage = payForMove(user);
+
+        // -1 is used to indicate that the move was not used
+        if (damage == -1) {
+            return -1;
+        }
+
+        if (isHealing()) {
+            user.gainHP(damage);
+            return -damage;
+        }
+
+        return enemy.takeDamage(damage, user.getNumericalStat("Acc"));
+
+    }
+
+    /**
+     * Executes the move against several targets at once, the cost is only
+     * paid once. The arrays are provided by the caller so they can be reused
+     * every turn.
+     *
+     * @param targets     The targets of the move
+     * @param targetCount The number of targets in the array
+     * @param user        The user pokemon
+     * @param damageDealt Filled with the damage dealt to each target
+     * @return The number of targets hit for regular moves, the amount healed
+     * for healing moves as a negative number, -1 if the move was not used
+     */
+    public int executeMove(Pokemon[] targets, int targetCount, Pokemon user,
+                           int[] damageDealt) {
+
+        int damage = payForMove(user);
+
+        if (damage == -1) {
+            return -1;
+        }
+
+        if (isHealing()) {
+            user.gainHP(damage);
+            return -damage;
+        }
+
+        int accuracy = user.getNumericalStat("Acc");
+        for (int i = 0; i < targetCount; i++) {
+            damageDealt[i] = targets[i].takeDamage(damage, accuracy);
+        }
+        return targetCount;
+
+    }
+
+    /**
+     * Whether the move hits all active enemies instead of a single one
+     *
+     * @return True if the move hits all enemies
+     */
+    public boolean isMultiTarget() {
+        return "All".equals(stringStats.get("Target"));
+    }
+
+    /**
+     * Whether the move heals the user instead of attacking
+     *
+     * @return True if the move heals the user
+     */
+    public boolean isHealing() {
+        return "Healing".equals(stringStats.get("Type"));
+    }
+
+    private int payForMove(Pokemon user) {
+
         // Check if the user has enough MP to use the move
         int mp = user.getNumericalStat("MP");
         int mpCost = numericalStats.get("Cost");
 
         if (mp < mpCost) {
             System.out.println("Not enough MP!");
-
-            // -1 is used to indicate that the move was not used
             return -1;
         }
 
         // Reduce the user's MP by the cost of the move
         user.loseMP(mpCost);
 
-        // Obtain the accuracy of the move
-        int accuracy = user.getNumericalStat("Acc");
-
         String type = stringStats.get("Type");
 
         // Calculate the damage based on the user's attack and modifier depending on the
@@ -46,37 +110,50 @@ public class NormalAbility extends Ability {
         int atk = user.getNumericalStat("Atk");
         int mAtk = user.getNumericalStat("M.Atk");
 
-        // Take a split of the attack and magic attack by default, used in the case of
-        // healing
-        int damage = (atk + (mAtk * 2)) / 2 * modifier;
+        int damage = calculateRawDamage(type, modifier, atk, mAtk);
 
         switch (type) {
-            case "Physical" -> {
-                damage = atk * modifier;
-                System.out.println("Physical raw damage: " + damage);
-            }
-            case "Magical" -> {
-                damage = mAtk * modifier;
-                System.out.println("Magical raw damage: " + damage);
-            }
-            case "Healing" -> {
-                user.gainHP(damage);
-                return -damage;
-            }
+            case "Physical" ->
+                    System.out.println("Physical raw damage: " + damage);
+            case "Magical" ->
+                    System.out.println("Magical raw damage: " + damage);
+            case "Healing" -> System.out.println("Healing: " + damage);
             default -> System.out.println("Unknown type!");
         }
 
-        return enemy.takeDamage(damage, accuracy);
+        return damage;
+    }
 
+    /**
+     * Calculates the raw damage of a move, or the amount healed for healing
+     * moves, before the defense of the target is taken into account
+     * Shared with the battle simulator so both follow the same rules
+     *
+     * @param type     The type of the move
+     * @param modifier The modifier of the move
+     * @param atk      The attack of the user
+     * @param mAtk     The magic attack of the user
+     * @return The raw damage or the amount healed
+     */
+    public static int calculateRawDamage(String type, int modifier, int atk,
+                                         int mAtk) {
+        return switch (type) {
+            case "Physical" -> atk * modifier;
+            case "Magical" -> mAtk * modifier;
+
+            // Take a split of the attack and magic attack by default, used in
+            // the case of healing
+            default -> (atk + (mAtk * 2)) / 2 * modifier;
+        };
     }
 
     /**
      * Constructor for the NormalAbility class
      *
-     * @param moveData The data of the move
+     * @param move The data of the move
      */
-    public NormalAbility(HashMap<String, String> moveData) {
-        super(moveData);
+    public NormalAbility(MoveDef move) {
+        super(move);
     }
 
 }
@@ -3,6 +3,9 @@ package inheritamon.model.npcs.types;
 import java.util.*;
 
 import inheritamon.model.data.DataHandler;
+import inheritamon.model.data.MoveDef;
+import inheritamon.model.data.Species;
+import inheritamon.model.npcs.AIParameters;
 
 /**
  * @author Jeremias
@@ -10,13 +13,15 @@ import inheritamon.model.data.DataHandler;
  */
 public class AttritionPokemon extends Pokemon {
 
+    private static final long serialVersionUID = -4314823841180075598L;
+
     /**
      * Constructor for the AttritionPokemon class
      *
-     * @param pokemonData The data of the pokemon
+     * @param species The species of the pokemon
      */
-    public AttritionPokemon(HashMap<String, String> pokemonData) {
-        super(pokemonData);
+    public AttritionPokemon(Species species) {
+        super(species);
     }
 
     /**
@@ -35,15 +40,13 @@ public class AttritionPokemon extends Pokemon {
             for (String moveName : this.moves) {
 
                 DataHandler dataHandler = DataHandler.getInstance();
-                HashMap<String, String> moveData =
-                        dataHandler.getMoveData(moveName);
+                MoveDef move = dataHandler.getMove(moveName);
 
                 // Get the mp cost and current mp
-                int mpCost = Integer.parseInt(moveData.get("Cost"));
+                int mpCost = move.getCost();
                 Integer currentMP = this.numericalStats.get("MP");
 
-                if (moveData.get("Type").equals("Healing") &&
-                        mpCost <= currentMP) {
+                if (move.isHealing() && mpCost <= currentMP) {
                     return moveName;
                 }
 
@@ -56,4 +59,14 @@ public class AttritionPokemon extends Pokemon {
 
     }
 
+    /**
+     * Gets the AI parameters that match the behaviour of this pokemon
+     *
+     * @return The AI parameters of the pokemon
+     */
+    @Override
+    public AIParameters getAIParameters() {
+        return AIParameters.ATTRITION;
+    }
+
 }
@@ -0,0 +1,76 @@
+package inheritamon.model.npcs.types;
+
+import java.util.*;
+
+import inheritamon.model.data.DataHandler;
+import inheritamon.model.data.Species;
+import inheritamon.model.npcs.AIParameters;
+import inheritamon.model.simulation.SimulatedMove;
+import inheritamon.model.simulation.SimulatedPokemon;
+
+/**
+ * @author Jeremias
+ * A pokemon whose behaviour is decided by a set of AI parameters instead
+ * of hard coded rules, the parameters can be tuned by the
+ * EvolutionaryTuner
+ */
+public class ParameterizedPokemon extends Pokemon {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AIParameters parameters;
+
+    /**
+     * Constructor for the ParameterizedPokemon class
+     *
+     * @param species    The species of the pokemon
+     * @param parameters The parameters of the AI
+     */
+    public ParameterizedPokemon(Species species, AIParameters parameters) {
+        super(species);
+        this.parameters = parameters;
+    }
+
+    /**
+     * Uses a move based on the parameters of the AI
+     *
+     * @param targetStats The stats of the target pokemon
+     */
+    @Override
+    public String useMove(HashMap<String, Integer> targetStats) {
+
+        DataHandler dataHandler = DataHandler.getInstance();
+
+        // Convert the moves so the same decision logic as in the simulator is used
+        SimulatedMove[] simulatedMoves = new SimulatedMove[moves.size()];
+        for (int i = 0; i < simulatedMoves.length; i++) {
+            simulatedMoves[i] =
+                    new SimulatedMove(dataHandler.getMove(moves.get(i)));
+        }
+
+        SimulatedPokemon self = new SimulatedPokemon(getName(),
+                getAllNumericalStats(), simulatedMoves);
+        SimulatedPokemon target =
+                new SimulatedPokemon("Target", targetStats,
+                        new SimulatedMove[0]);
+
+        String move = moves.get(parameters.chooseMove(self, target,
+                new SplittableRandom()));
+
+        System.out.println(stringStats.get("Name") + " used " + move + "!");
+
+        return move;
+
+    }
+
+    /**
+     * Gets the parameters of the AI
+     *
+     * @return The parameters of the AI
+     */
+    @Override
+    public AIParameters getAIParameters() {
+        return parameters;
+    }
+
+}
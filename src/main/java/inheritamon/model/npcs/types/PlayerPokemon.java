@@ -2,6 +2,10 @@ package inheritamon.model.npcs.types;
 
 import java.util.*;
 
+import inheritamon.model.data.Species;
+import inheritamon.model.npcs.AIParameters;
+import inheritamon.model.simulation.OutcomePredictor;
+
 /**
  * @author Jeremias
  * A class to represent the player's pokemon, awaits input from the
@@ -9,16 +13,19 @@ import java.util.*;
  */
 public class PlayerPokemon extends Pokemon {
 
+    private static final long serialVersionUID = 7652326710747182178L;
+
     private volatile boolean awaitingMove = false;
     private String selectedMove;
+    private int selectedTarget = -1;
 
     /**
      * Constructor for the PlayerPokemon class
      *
-     * @param data The data of the pokemon
+     * @param species The species of the pokemon
      */
-    public PlayerPokemon(HashMap<String, String> data) {
-        super(data);
+    public PlayerPokemon(Species species) {
+        super(species);
     }
 
     /**
@@ -43,14 +50,47 @@ public class PlayerPokemon extends Pokemon {
         return selectedMove;
     }
 
+    /**
+     * Gets the AI parameters that approximate how a player chooses moves
+     *
+     * @return The AI parameters of the player
+     */
+    @Override
+    public AIParameters getAIParameters() {
+        return OutcomePredictor.PLAYER_POLICY;
+    }
+
     /**
      * Selects a move for the pokemon, called by the GUI
      *
      * @param move The move to select
      */
     public void selectMove(String move) {
-        awaitingMove = false;
+        selectMove(move, -1);
+    }
+
+    /**
+     * Selects a move and the slot of the enemy it should hit, called by the
+     * GUI in battles with several enemies
+     *
+     * @param move   The move to select
+     * @param target The slot of the target, -1 to let the battle decide
+     */
+    public void selectMove(String move, int target) {
         selectedMove = move;
+        selectedTarget = target;
+
+        // Written last so the battle thread sees the selection
+        awaitingMove = false;
+    }
+
+    /**
+     * Gets the slot of the enemy the player chose to target
+     *
+     * @return The slot of the target, -1 if the player did not choose
+     */
+    public int getSelectedTarget() {
+        return selectedTarget;
     }
 
 }
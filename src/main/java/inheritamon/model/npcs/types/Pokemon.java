@@ -1,11 +1,14 @@
 package inheritamon.model.npcs.types;
 
 import inheritamon.model.data.DataHandler;
+import inheritamon.model.data.Species;
+import inheritamon.model.npcs.AIParameters;
 
 import java.awt.image.BufferedImage;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * @author Jeremias
@@ -13,6 +16,8 @@ import java.util.HashMap;
  */
 public abstract class Pokemon implements Serializable {
 
+    private static final long serialVersionUID = 4261639112155530280L;
+
     /**
      * The stats of the pokemon which are numerical.
      */
@@ -38,10 +43,10 @@ public abstract class Pokemon implements Serializable {
     /**
      * Constructor for the Pokemon class
      *
-     * @param pokemonData The data of the pokemon
+     * @param species The species of the pokemon
      */
-    public Pokemon(HashMap<String, String> pokemonData) {
-        setUp(pokemonData);
+    public Pokemon(Species species) {
+        setUp(species);
     }
 
     /**
@@ -53,27 +58,26 @@ public abstract class Pokemon implements Serializable {
     public abstract String useMove(HashMap<String, Integer> targetStats);
 
     /**
-     * A method to set the stats of the pokemon
+     * Gets the AI parameters that describe how the pokemon chooses its moves
+     * Used to predict its behaviour in simulated battles
      *
-     * @param pokemonData The data of the pokemon
+     * @return The AI parameters of the pokemon
      */
-    public void setUp(HashMap<String, String> pokemonData) {
-
-        // Obtain the moves and put them into the moves ArrayList
-        moves = DataHandler.convertMoveSetToString(pokemonData.get("MoveSet"));
-
-        // Remove the moves from the pokemonData HashMap
-        pokemonData.remove("MoveSet");
-
-        // Loop through the data and put it into the correct HashMap
-        for (String key : pokemonData.keySet()) {
-            String value = pokemonData.get(key);
-            if (DataHandler.isNumeric(value)) {
-                numericalStats.put(key, Integer.parseInt(value));
-            } else {
-                stringStats.put(key, value);
-            }
-        }
+    public AIParameters getAIParameters() {
+        return AIParameters.RANDOM;
+    }
+
+    /**
+     * A method to set the stats of the pokemon, the species is shared so
+     * its stats are copied before they change in battle
+     *
+     * @param species The species of the pokemon
+     */
+    public void setUp(Species species) {
+
+        moves = new ArrayList<>(species.moveSet());
+        numericalStats = new HashMap<>(species.numericalStats());
+        stringStats = new HashMap<>(species.stringStats());
 
         // Add current HP and MP to the numericalStats HashMap and set them to the max
         // Also add a field for the species name which is the same as name
@@ -83,6 +87,35 @@ public abstract class Pokemon implements Serializable {
 
     }
 
+    /**
+     * Sets a numerical stat, used to restore a pokemon that was saved
+     *
+     * @param statName The name of the stat
+     * @param value    The value of the stat
+     */
+    public void setNumericalStat(String statName, int value) {
+        numericalStats.put(statName, value);
+    }
+
+    /**
+     * Sets the moves, used to restore a pokemon that was saved
+     *
+     * @param moves The names of the moves
+     */
+    public void setMoves(List<String> moves) {
+        this.moves = new ArrayList<>(moves);
+    }
+
+    /**
+     * Sets whether the pokemon has fainted, used to restore a pokemon that
+     * was saved
+     *
+     * @param fainted Whether the pokemon has fainted
+     */
+    public void setFainted(boolean fainted) {
+        hasFainted = fainted;
+    }
+
     /**
      * A method to take damage, takes agility and defense into account
      *
@@ -94,9 +127,8 @@ public abstract class Pokemon implements Serializable {
     public int takeDamage(int damage, int enemyAccuracy) {
 
         // Calculate the chance to dodge, simple addition
-        int baseDodgeChance = 20;
         int chanceToDodge =
-                numericalStats.get("Agi") - enemyAccuracy + baseDodgeChance;
+                calculateDodgeChance(numericalStats.get("Agi"), enemyAccuracy);
         System.out.println(stringStats.get("Name") + " has a " + chanceToDodge +
                 "% chance to dodge");
 
@@ -108,11 +140,10 @@ public abstract class Pokemon implements Serializable {
         }
 
         // Calculate the damage to take, minimum 0
-        int damageToTake = damage - numericalStats.get("Def");
+        int damageToTake =
+                calculateDamageTaken(damage, numericalStats.get("Def"));
 
-        // If the damage to take is less than 0, set it to 0
-        if (damageToTake < 0) {
-            damageToTake = 0;
+        if (damageToTake == 0) {
             System.out.println(stringStats.get("Name") + " took no damage!");
         } else {
             System.out.println(
@@ -135,6 +166,30 @@ public abstract class Pokemon implements Serializable {
 
     }
 
+    /**
+     * Calculates the chance to dodge an attack as a percentage
+     * Shared with the battle simulator so both follow the same rules
+     *
+     * @param agility       The agility of the defending pokemon
+     * @param enemyAccuracy The accuracy of the attacking pokemon
+     * @return The chance to dodge, may be negative
+     */
+    public static int calculateDodgeChance(int agility, int enemyAccuracy) {
+        int baseDodgeChance = 20;
+        return agility - enemyAccuracy + baseDodgeChance;
+    }
+
+    /**
+     * Calculates the damage that gets through the defense of a pokemon
+     *
+     * @param damage  The raw damage of the attack
+     * @param defense The defense of the defending pokemon
+     * @return The damage to take, minimum 0
+     */
+    public static int calculateDamageTaken(int damage, int defense) {
+        return Math.max(damage - defense, 0);
+    }
+
     /**
      * A method to lose MP, caps at 0
      * The cap would be useful in the case of drain attacks
@@ -246,8 +301,16 @@ public abstract class Pokemon implements Serializable {
      */
     public BufferedImage getSpeciesImage() {
         DataHandler dataHandler = DataHandler.getInstance();
-        return dataHandler.getPokemonSprite(stringStats.get("Species"))
-                .get("front");
+        return dataHandler.getPokemonSprite(getSpeciesName()).get("front");
+    }
+
+    /**
+     * Gets the name of the species of the pokemon
+     *
+     * @return The name of the species
+     */
+    public String getSpeciesName() {
+        return stringStats.get("Species");
     }
 
     /**
@@ -2,19 +2,23 @@ package inheritamon.model.npcs.types;
 
 import java.util.*;
 
+import inheritamon.model.data.Species;
+
 /**
  * @author Jeremias
  * A pokemon that selects a random move to use
  */
 public class RandomPokemon extends Pokemon {
 
+    private static final long serialVersionUID = 6833971905335629102L;
+
     /**
      * Constructor for the RandomPokemon class
      *
-     * @param data The data of the pokemon
+     * @param species The species of the pokemon
      */
-    public RandomPokemon(HashMap<String, String> data) {
-        super(data);
+    public RandomPokemon(Species species) {
+        super(species);
     }
 
     /**
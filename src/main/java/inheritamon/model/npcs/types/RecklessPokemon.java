@@ -3,6 +3,9 @@ package inheritamon.model.npcs.types;
 import java.util.*;
 
 import inheritamon.model.data.DataHandler;
+import inheritamon.model.data.MoveDef;
+import inheritamon.model.data.Species;
+import inheritamon.model.npcs.AIParameters;
 
 /**
  * @author Jeremias
@@ -10,13 +13,15 @@ import inheritamon.model.data.DataHandler;
  */
 public class RecklessPokemon extends Pokemon {
 
+    private static final long serialVersionUID = 3418362334721553959L;
+
     /**
      * Constructor for the RecklessPokemon class
      *
-     * @param pokemonData The data of the pokemon
+     * @param species The species of the pokemon
      */
-    public RecklessPokemon(HashMap<String, String> pokemonData) {
-        super(pokemonData);
+    public RecklessPokemon(Species species) {
+        super(species);
     }
 
     /**
@@ -36,13 +41,11 @@ public class RecklessPokemon extends Pokemon {
 
         for (String moveName : this.moves) {
 
-            HashMap<String, String> moveData =
-                    dataHandler.getMoveData(moveName);
+            MoveDef moveData = dataHandler.getMove(moveName);
 
-            int modifier = Integer.parseInt(moveData.get("Modifier"));
+            int modifier = moveData.getModifier();
 
-            if (modifier > highestModifier &&
-                    !moveData.get("Type").equals("Healing")) {
+            if (modifier > highestModifier && !moveData.isHealing()) {
                 highestModifier = modifier;
                 move = moveName;
             }
@@ -53,4 +56,14 @@ public class RecklessPokemon extends Pokemon {
 
     }
 
+    /**
+     * Gets the AI parameters that match the behaviour of this pokemon
+     *
+     * @return The AI parameters of the pokemon
+     */
+    @Override
+    public AIParameters getAIParameters() {
+        return AIParameters.RECKLESS;
+    }
+
 }
@@ -4,6 +4,7 @@ import inheritamon.model.data.DataHandler;
 import inheritamon.model.inventory.*;
 import inheritamon.model.npcs.Roster;
 import inheritamon.model.npcs.types.PlayerPokemon;
+import inheritamon.model.world.WorldState;
 
 import java.io.Serializable;
 import java.util.*;
@@ -16,6 +17,12 @@ import java.util.*;
  */
 public class Player implements Serializable {
 
+    // The saves of the versions before the binary save format were written
+    // with Java serialization. The ids of those versions are kept so the
+    // saves can still be converted, the fields that were added since are
+    // left at their defaults.
+    private static final long serialVersionUID = 6061870228804395864L;
+
     /**
      * Enum for the trainer abilities
      */
@@ -27,6 +34,8 @@ public class Player implements Serializable {
     private Inventory inventory;
     private ArrayList<TrainerAbility> abilities =
             new ArrayList<>();
+    private long playTime;
+    private WorldState world = new WorldState();
 
     /**
      * Constructor for the PlayerData
@@ -36,6 +45,20 @@ public class Player implements Serializable {
         inventory = new Inventory();
     }
 
+    /**
+     * Constructor for a player that was saved
+     *
+     * @param roster    The roster of the player
+     * @param inventory The inventory of the player
+     * @param abilities The abilities of the player
+     */
+    public Player(Roster roster, Inventory inventory,
+                  List<TrainerAbility> abilities) {
+        this.roster = roster;
+        this.inventory = inventory;
+        this.abilities = new ArrayList<>(abilities);
+    }
+
     /**
      * Returns the player roster
      *
@@ -63,6 +86,38 @@ public class Player implements Serializable {
         return abilities;
     }
 
+    /**
+     * Returns how long the game has been played
+     *
+     * @return The play time in milliseconds
+     */
+    public long getPlayTime() {
+        return playTime;
+    }
+
+    /**
+     * Adds to the play time
+     *
+     * @param millis The time that was played in milliseconds
+     */
+    public void addPlayTime(long millis) {
+        playTime += millis;
+    }
+
+    /**
+     * Returns the progress of the player in the world
+     *
+     * @return The world state
+     */
+    public WorldState getWorld() {
+
+        // Players that were serialized before the world was saved have none
+        if (world == null) {
+            world = new WorldState();
+        }
+        return world;
+    }
+
     /**
      * Adds an ability to the player
      *
@@ -88,7 +143,7 @@ public class Player implements Serializable {
         DataHandler dataHandler = DataHandler.getInstance();
 
         roster.addPokemon(
-                new PlayerPokemon(dataHandler.getPokemonData(pokemon)));
+                new PlayerPokemon(dataHandler.getSpecies(pokemon)));
 
         // Convert the perk into a trainer ability
         TrainerAbility ability = TrainerAbility.valueOf(perk.toUpperCase());
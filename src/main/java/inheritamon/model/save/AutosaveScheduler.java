@@ -0,0 +1,237 @@
+package inheritamon.model.save;
+
+import inheritamon.model.player.Player;
+
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * @author Jeremias
+ * Saves the game a moment after it changes. A burst of changes is
+ * coalesced into one save: the save waits until the changes have been
+ * quiet for a short while, but never longer than the maximum staleness
+ * after the first unsaved change. Saves are at least the minimum interval
+ * apart, so the disk is not written on every event.
+ * <p>
+ * The intervals can be set with the system properties
+ * inheritamon.autosave.minInterval and inheritamon.autosave.maxStaleness,
+ * both in milliseconds.
+ */
+public final class AutosaveScheduler {
+
+    /**
+     * How long the changes have to be quiet before they are saved
+     */
+    private static final long QUIET_MILLIS = 500;
+
+    private final SaveWriter writer;
+    private final IntSupplier slot;
+    private final Supplier<Player> player;
+    private final Consumer<SaveResult> onDone;
+    private final long minIntervalMillis;
+    private final long maxStalenessMillis;
+
+    private final ScheduledExecutorService timer =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Autosave");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // Guarded by this
+    private boolean dirty;
+    private boolean paused;
+    private long firstChange;
+    private long lastChange;
+    private long lastSave = Long.MIN_VALUE / 2;
+    private ScheduledFuture<?> pending;
+
+    // The metrics, guarded by this
+    private long requested;
+    private long coalesced;
+    private long issued;
+    private long written;
+    private long failed;
+    private double totalLatencyMillis;
+    private double maxLatencyMillis;
+
+    /**
+     * The autosave metrics at one moment
+     *
+     * @param requested     The number of changes that asked for a save
+     * @param coalesced     The changes that were added to a save that was
+     *                      already waiting
+     * @param issued        The saves that were started
+     * @param written       The saves that were written, a save where
+     *                      nothing changed writes nothing
+     * @param failed        The saves that could not be written
+     * @param averageMillis The average time to write a save
+     * @param maxMillis     The longest time to write a save
+     */
+    public record Metrics(long requested, long coalesced, long issued,
+                          long written, long failed, double averageMillis,
+                          double maxMillis) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d changes, %d coalesced, "
+                            + "%d saves issued, %d written, %d failed, "
+                            + "write latency avg %.2f ms max %.2f ms",
+                    requested, coalesced, issued, written, failed,
+                    averageMillis, maxMillis);
+        }
+    }
+
+    /**
+     * Constructor for the AutosaveScheduler class, the intervals are read
+     * from the system properties
+     *
+     * @param writer The writer for the saves
+     * @param slot   Gets the slot to save in
+     * @param player Gets the player to save, may return null
+     * @param onDone Called on the writer thread after each save
+     */
+    public AutosaveScheduler(SaveWriter writer, IntSupplier slot,
+                             Supplier<Player> player,
+                             Consumer<SaveResult> onDone) {
+        this(writer, slot, player, onDone,
+                Long.getLong("inheritamon.autosave.minInterval", 5000),
+                Long.getLong("inheritamon.autosave.maxStaleness", 30000));
+    }
+
+    /**
+     * Constructor for the AutosaveScheduler class
+     *
+     * @param writer             The writer for the saves
+     * @param slot               Gets the slot to save in
+     * @param player             Gets the player to save, may return null
+     * @param onDone             Called on the writer thread after each save
+     * @param minIntervalMillis  The shortest time between two saves
+     * @param maxStalenessMillis The longest time a change waits for a save,
+     *                           unless the saves are paused
+     */
+    public AutosaveScheduler(SaveWriter writer, IntSupplier slot,
+                             Supplier<Player> player,
+                             Consumer<SaveResult> onDone,
+                             long minIntervalMillis, long maxStalenessMillis) {
+        this.writer = writer;
+        this.slot = slot;
+        this.player = player;
+        this.onDone = onDone;
+        this.minIntervalMillis = minIntervalMillis;
+        this.maxStalenessMillis =
+                Math.max(maxStalenessMillis, minIntervalMillis);
+    }
+
+    /**
+     * Tells the scheduler that the game changed and should be saved
+     */
+    public synchronized void requestSave() {
+        long now = System.currentTimeMillis();
+        requested++;
+        if (dirty) {
+            coalesced++;
+        } else {
+            dirty = true;
+            firstChange = now;
+        }
+        lastChange = now;
+        schedule();
+    }
+
+    /**
+     * Stops saving while the player cannot be saved consistently, such as
+     * during a battle. Changes are still collected.
+     */
+    public synchronized void pause() {
+        paused = true;
+        cancelPending();
+    }
+
+    /**
+     * Saves again after pause, the changes that were collected are saved
+     */
+    public synchronized void resume() {
+        paused = false;
+        schedule();
+    }
+
+    /**
+     * Saves the changes right away instead of waiting
+     */
+    public synchronized void flush() {
+        cancelPending();
+        save();
+    }
+
+    private void schedule() {
+        if (!dirty || paused) {
+            return;
+        }
+
+        // Wait for the changes to be quiet, but not longer than the
+        // staleness allows, and not sooner than the interval allows
+        long due = Math.min(lastChange + QUIET_MILLIS,
+                firstChange + maxStalenessMillis);
+        due = Math.max(due, lastSave + minIntervalMillis);
+        long delay = Math.max(0, due - System.currentTimeMillis());
+
+        cancelPending();
+        pending = timer.schedule(this::save, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelPending() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    private synchronized void save() {
+        if (!dirty || paused) {
+            return;
+        }
+        dirty = false;
+        pending = null;
+        lastSave = System.currentTimeMillis();
+        issued++;
+
+        // The player is encoded while the lock is held, so pause waits for
+        // it and a battle cannot change the player halfway through
+        Player toSave = player.get();
+        if (toSave != null) {
+            writer.saveChanges(toSave, slot.getAsInt(), this::record);
+        }
+    }
+
+    private void record(SaveResult result) {
+        synchronized (this) {
+            if (result.isSuccess()) {
+                written++;
+                totalLatencyMillis += result.millis();
+                maxLatencyMillis = Math.max(maxLatencyMillis, result.millis());
+            } else {
+                failed++;
+            }
+        }
+        onDone.accept(result);
+    }
+
+    /**
+     * Gets the autosave metrics
+     *
+     * @return The metrics until now
+     */
+    public synchronized Metrics getMetrics() {
+        return new Metrics(requested, coalesced, issued, written, failed,
+                written == 0 ? 0 : totalLatencyMillis / written,
+                maxLatencyMillis);
+    }
+
+}
@@ -0,0 +1,15 @@
+package inheritamon.model.save;
+
+import inheritamon.model.player.Player;
+
+/**
+ * @author Jeremias
+ * A player that was loaded from a save
+ *
+ * @param player   The player, null if there is no save or it cannot be read
+ * @param outdated True if the player was read from the old format or from a
+ *                 backup, so the save should be written again
+ */
+public record LoadedSave(Player player, boolean outdated) {
+
+}
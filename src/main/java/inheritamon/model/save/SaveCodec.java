@@ -0,0 +1,684 @@
+package inheritamon.model.save;
+
+import inheritamon.model.data.DataHandler;
+import inheritamon.model.data.ItemDef;
+import inheritamon.model.data.Species;
+import inheritamon.model.inventory.Inventory;
+import inheritamon.model.inventory.Item;
+import inheritamon.model.npcs.Roster;
+import inheritamon.model.npcs.types.PlayerPokemon;
+import inheritamon.model.npcs.types.Pokemon;
+import inheritamon.model.player.Player;
+import inheritamon.model.world.WorldState;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * @author Jeremias
+ * Converts the player to the binary save format and back.
+ * <p>
+ * A save starts with the magic number and the version, followed by the
+ * number of sections. Every section has a tag, its length as a varint, its
+ * data and the CRC32C of its data, so sections that a version does not know
+ * are skipped and a damaged save is found without reading the sections. The
+ * names of the species, moves and items that are used are written once in
+ * the names section, the other sections refer to them by their index there.
+ * This keeps the save small and still valid when content is added or
+ * removed. Only what can change during the game is written, everything
+ * else comes from the game data when the save is read.
+ * <p>
+ * The world section holds the position of the avatar, its keys and the
+ * objects it collected on every map. Those are a bitset of object ids,
+ * written as the gaps between the ids or as the raw bits, whichever is
+ * smaller, so a map with thousands of objects takes at most a bit each.
+ * <p>
+ * Older saves are converted when they are read, version 0 is the Java
+ * serialization of the player that was used before.
+ */
+public final class SaveCodec {
+
+    /**
+     * Marks the start of a save, INHS in ASCII
+     */
+    public static final int MAGIC = 0x494E4853;
+
+    /**
+     * The version that is written
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * The first version with a checksum after every section
+     */
+    private static final int CHECKSUM_VERSION = 2;
+
+    /**
+     * The tags of the sections
+     */
+    static final int NAMES = 1;
+    static final int PLAYER = 2;
+    static final int ROSTER = 3;
+    static final int INVENTORY = 4;
+    static final int PROGRESS = 5;
+    static final int WORLD = 6;
+
+    /**
+     * The kinds of names in the names section
+     */
+    private static final int SPECIES_NAMES = 0;
+    private static final int MOVE_NAMES = 1;
+    private static final int ITEM_NAMES = 2;
+    private static final int NAME_KINDS = 3;
+
+    /**
+     * The highest counts that are written and read, a corrupted count should
+     * not allocate a huge array. Writing checks the same limit, so every save
+     * that is written can be read back.
+     */
+    static final int MAX_COUNT = 1 << 20;
+
+    private static final int FAINTED = 1;
+
+    /**
+     * How a bitset is written
+     */
+    private static final int GAPS = 0;
+    private static final int RAW = 1;
+
+    /**
+     * The highest object id on a map that is accepted
+     */
+    private static final int MAX_OBJECT_ID = 1 << 24;
+
+    private SaveCodec() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Writes a name of a species, move or item
+     */
+    interface NameWriter {
+        void write(SaveOutput out, int kind, String name);
+    }
+
+    /**
+     * Reads a name of a species, move or item
+     */
+    interface NameReader {
+        String read(SaveInput in, int kind) throws SaveFormatException;
+    }
+
+    /**
+     * Names that are written as strings, used where there is no names
+     * section
+     */
+    static final NameWriter INLINE_NAMES =
+            (out, kind, name) -> out.writeString(name);
+    static final NameReader INLINE_NAME_READER = (in, kind) -> in.readString();
+
+    /**
+     * The names used by a save with their index, in the order they were
+     * first used
+     */
+    private static final class Names implements NameWriter {
+        private final List<LinkedHashMap<String, Integer>> names =
+                new ArrayList<>();
+
+        private Names() {
+            for (int i = 0; i < NAME_KINDS; i++) {
+                names.add(new LinkedHashMap<>());
+            }
+        }
+
+        private int getId(int kind, String name) {
+            LinkedHashMap<String, Integer> ids = names.get(kind);
+            return ids.computeIfAbsent(name, key -> ids.size());
+        }
+
+        @Override
+        public void write(SaveOutput out, int kind, String name) {
+            out.writeVarInt(getId(kind, name));
+        }
+
+        private void write(SaveOutput out) {
+            for (LinkedHashMap<String, Integer> ids : names) {
+                out.writeCount(ids.size(), MAX_COUNT);
+                for (String name : ids.keySet()) {
+                    out.writeString(name);
+                }
+            }
+        }
+
+        private static String[][] read(SaveInput in)
+                throws SaveFormatException {
+            String[][] names = new String[NAME_KINDS][];
+            for (int kind = 0; kind < NAME_KINDS; kind++) {
+                names[kind] = new String[in.readCount(MAX_COUNT)];
+                for (int i = 0; i < names[kind].length; i++) {
+                    names[kind][i] = in.readString();
+                }
+            }
+            return names;
+        }
+    }
+
+    /**
+     * Converts the player to a save
+     *
+     * @param player The player
+     * @return The save
+     * @throws IllegalArgumentException If the player has more of something
+     *                                  than a save can hold
+     */
+    public static byte[] encode(Player player) {
+        Names names = new Names();
+
+        SaveOutput playerSection = new SaveOutput(32);
+        writePlayer(player, playerSection);
+        SaveOutput roster = new SaveOutput();
+        writeRoster(player.getRoster(), names, roster);
+        SaveOutput inventory = new SaveOutput(64);
+        writeInventory(player.getInventory(), names, inventory);
+        SaveOutput progress = new SaveOutput(16);
+        progress.writeVarLong(player.getPlayTime());
+        SaveOutput world = new SaveOutput(64);
+        writeWorld(new WorldState(player.getWorld()), world);
+
+        // The names are needed to read the other sections, so they come first
+        SaveOutput namesSection = new SaveOutput();
+        names.write(namesSection);
+
+        SaveOutput out = new SaveOutput(namesSection.size()
+                + playerSection.size() + roster.size() + inventory.size()
+                + progress.size() + world.size() + 32);
+        out.writeInt(MAGIC);
+        out.writeVarInt(VERSION);
+        out.writeVarInt(6);
+        writeSection(out, NAMES, namesSection);
+        writeSection(out, PLAYER, playerSection);
+        writeSection(out, ROSTER, roster);
+        writeSection(out, INVENTORY, inventory);
+        writeSection(out, PROGRESS, progress);
+        writeSection(out, WORLD, world);
+        return out.toByteArray();
+    }
+
+    private static void writeSection(SaveOutput out, int tag,
+                                     SaveOutput section) {
+        out.writeByte(tag);
+        out.writeVarInt(section.size());
+        out.writeBytes(section);
+        out.writeInt(checksum(section.getBytes(), 0, section.size()));
+    }
+
+    /**
+     * Calculates the CRC32C of bytes, which the processor does in hardware
+     *
+     * @param data   The bytes
+     * @param offset Where the bytes start
+     * @param length The number of bytes
+     * @return The checksum
+     */
+    static int checksum(byte[] data, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(data, offset, length);
+        return (int) crc.getValue();
+    }
+
+    static void writePlayer(Player player, SaveOutput out) {
+        out.writeCount(player.getAbilities().size(), MAX_COUNT);
+        for (Player.TrainerAbility ability : player.getAbilities()) {
+            out.writeString(ability.name());
+        }
+    }
+
+    private static void writeRoster(Roster roster, Names names,
+                                    SaveOutput out) {
+        out.writeCount(roster.getSize(), MAX_COUNT);
+        for (Pokemon pokemon : roster.getArray()) {
+            writePokemon(pokemon, names, out);
+        }
+    }
+
+    static void writePokemon(Pokemon pokemon, NameWriter names,
+                             SaveOutput out) {
+        String speciesName = pokemon.getSpeciesName();
+        names.write(out, SPECIES_NAMES, speciesName);
+        out.writeVarInt(pokemon.getHP());
+        out.writeVarInt(pokemon.getMP());
+        out.writeByte(pokemon.isFainted() ? FAINTED : 0);
+
+        out.writeCount(pokemon.getMoves().size(), MAX_COUNT);
+        for (String move : pokemon.getMoves()) {
+            names.write(out, MOVE_NAMES, move);
+        }
+
+        // Only the stats that differ from the species are written
+        Species species = DataHandler.getInstance().getSpecies(speciesName);
+        HashMap<String, Integer> changed = new HashMap<>();
+        for (Map.Entry<String, Integer> stat
+                : pokemon.getAllNumericalStats().entrySet()) {
+            String statName = stat.getKey();
+            if (!statName.equals("HP") && !statName.equals("MP")
+                    && !Objects.equals(stat.getValue(),
+                    species.getNumericalStat(statName))) {
+                changed.put(statName, stat.getValue());
+            }
+        }
+        out.writeCount(changed.size(), MAX_COUNT);
+        for (Map.Entry<String, Integer> stat : changed.entrySet()) {
+            out.writeString(stat.getKey());
+            out.writeSignedVarInt(stat.getValue());
+        }
+    }
+
+    private static void writeInventory(Inventory inventory, Names names,
+                                       SaveOutput out) {
+        out.writeVarInt(inventory.getCoins());
+        writeItems(inventory, names, out);
+    }
+
+    private static void writeWorld(WorldState world, SaveOutput out) {
+        writePosition(world, out);
+        out.writeVarInt(world.getKeys());
+
+        Map<String, BitSet> collected = world.getCollected();
+        out.writeCount(collected.size(), MAX_COUNT);
+        for (Map.Entry<String, BitSet> map : collected.entrySet()) {
+            out.writeString(map.getKey());
+            writeBitSet(map.getValue(), out);
+        }
+    }
+
+    static void writePosition(WorldState world, SaveOutput out) {
+        out.writeString(world.hasPosition() ? world.getMap() : "");
+        out.writeSignedVarInt(world.getX());
+        out.writeSignedVarInt(world.getY());
+    }
+
+    /**
+     * Writes a bitset as the gaps between the set bits, or as its bytes when
+     * that is smaller because most bits are set
+     */
+    static void writeBitSet(BitSet bits, SaveOutput out) {
+        if (bits.length() > MAX_OBJECT_ID) {
+            throw new IllegalArgumentException("Cannot save object id "
+                    + (bits.length() - 1) + ", at most "
+                    + (MAX_OBJECT_ID - 1) + " can be read back");
+        }
+        SaveOutput gaps = new SaveOutput(bits.cardinality() + 4);
+        gaps.writeVarInt(bits.cardinality());
+        int previous = -1;
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            gaps.writeVarInt(id - previous - 1);
+            previous = id;
+        }
+
+        byte[] raw = bits.toByteArray();
+        if (raw.length + 2 < gaps.size()) {
+            out.writeByte(RAW);
+            out.writeVarInt(raw.length);
+            out.writeBytes(raw, 0, raw.length);
+        } else {
+            out.writeByte(GAPS);
+            out.writeBytes(gaps);
+        }
+    }
+
+    static void writeItems(Inventory inventory, NameWriter names,
+                           SaveOutput out) {
+        out.writeCount(inventory.getSize(), MAX_COUNT);
+        for (int i = 0; i < inventory.getSize(); i++) {
+            names.write(out, ITEM_NAMES, inventory.getItem(i).getItemName());
+        }
+    }
+
+    /**
+     * Converts a save to the player, older versions are converted first
+     *
+     * @param data The save
+     * @return The player
+     * @throws IOException If the save is malformed
+     */
+    public static Player decode(byte[] data) throws IOException {
+        if (isSerialized(data)) {
+            return readSerialized(data);
+        }
+
+        HashMap<Integer, SaveInput> sections = readSections(data);
+
+        SaveInput namesSection = sections.get(NAMES);
+        if (namesSection == null) {
+            throw new SaveFormatException("The save has no names section");
+        }
+        String[][] nameTable = Names.read(namesSection);
+        NameReader names =
+                (input, kind) -> getName(nameTable, kind, input.readVarInt());
+
+        List<Player.TrainerAbility> abilities = sections.containsKey(PLAYER)
+                ? readAbilities(sections.get(PLAYER)) : List.of();
+        Roster roster = sections.containsKey(ROSTER)
+                ? readRoster(sections.get(ROSTER), names) : new Roster();
+        Inventory inventory = sections.containsKey(INVENTORY)
+                ? readInventory(sections.get(INVENTORY), names)
+                : new Inventory(List.of(), 0);
+        Player player = new Player(roster, inventory, abilities);
+        if (sections.containsKey(PROGRESS)) {
+            player.addPlayTime(sections.get(PROGRESS).readVarLong());
+        }
+        if (sections.containsKey(WORLD)) {
+            readWorld(sections.get(WORLD), player.getWorld());
+        }
+        return player;
+    }
+
+    /**
+     * Checks that a save is whole by the checksums of all its sections,
+     * without reading the player from it. The whole save has to be read
+     * for this, see checkHeader for a check that reads only the header.
+     *
+     * @param data The save
+     * @throws SaveFormatException If the save is damaged or cut off
+     */
+    public static void validate(byte[] data) throws SaveFormatException {
+        if (!isSerialized(data)) {
+            readSections(data);
+        }
+    }
+
+    /**
+     * Checks the header of a save that is not compressed: the magic number,
+     * the version, and that the sections fill the file exactly. Only the
+     * header of every section is read, the checksums are checked when the
+     * save is loaded.
+     *
+     * @param channel The save
+     * @throws IOException If the save cannot be read, is not a save or is
+     *                     cut off
+     */
+    static void checkHeader(FileChannel channel) throws IOException {
+        long size = channel.size();
+        // The magic number and two varints
+        SaveInput in = SaveInput.read(channel, 0, 14);
+        if (isSerialized(in.getBytes())) {
+            // Java serialization has no header to check
+            return;
+        }
+        if (in.remaining() < 4 || in.readInt() != MAGIC) {
+            throw new SaveFormatException("Not a save file");
+        }
+        int version = in.readVarInt();
+        if (version > VERSION) {
+            throw new SaveFormatException("The save was written by a newer "
+                    + "version (" + version + ")");
+        }
+
+        int sectionCount = in.readCount(MAX_COUNT);
+        long position = in.getPosition();
+        for (int i = 0; i < sectionCount; i++) {
+            // The tag and the length of the section
+            SaveInput section = SaveInput.read(channel, position, 6);
+            int tag = section.readByte();
+            int length = section.readVarInt();
+            position += section.getPosition() + (long) length
+                    + (version >= CHECKSUM_VERSION ? 4 : 0);
+            if (length < 0 || position > size) {
+                throw new SaveFormatException("Section " + tag + " is cut off");
+            }
+        }
+        if (position < size) {
+            throw new SaveFormatException("The save has " + (size - position)
+                    + " bytes after its last section");
+        }
+    }
+
+    /**
+     * Reads the header and finds the sections, their checksums are checked
+     * for the versions that have them
+     *
+     * @return The sections by tag
+     */
+    private static HashMap<Integer, SaveInput> readSections(byte[] data)
+            throws SaveFormatException {
+        SaveInput in = new SaveInput(data);
+        if (data.length < 4 || in.readInt() != MAGIC) {
+            throw new SaveFormatException("Not a save file");
+        }
+        int version = in.readVarInt();
+        if (version > VERSION) {
+            throw new SaveFormatException("The save was written by a newer "
+                    + "version (" + version + ")");
+        }
+
+        HashMap<Integer, SaveInput> sections = new HashMap<>();
+        int sectionCount = in.readCount(MAX_COUNT);
+        for (int i = 0; i < sectionCount; i++) {
+            int tag = in.readByte();
+            int length = in.readVarInt();
+            if (length < 0 || length > in.remaining()) {
+                throw new SaveFormatException("Section " + tag + " is cut off");
+            }
+            int start = in.getPosition();
+            in.skip(length);
+            if (version >= CHECKSUM_VERSION
+                    && in.readInt() != checksum(data, start, length)) {
+                throw new SaveFormatException("Section " + tag
+                        + " is damaged");
+            }
+            sections.put(tag, new SaveInput(data, start, length));
+        }
+        if (in.remaining() > 0) {
+            throw new SaveFormatException("The save has " + in.remaining()
+                    + " bytes after its last section");
+        }
+        return sections;
+    }
+
+    private static void readWorld(SaveInput in, WorldState world)
+            throws SaveFormatException {
+        readPosition(in, world);
+        world.setKeys(in.readVarInt());
+
+        int mapCount = in.readCount(MAX_COUNT);
+        for (int i = 0; i < mapCount; i++) {
+            world.collectAll(in.readString(), readBitSet(in));
+        }
+    }
+
+    static void readPosition(SaveInput in, WorldState world)
+            throws SaveFormatException {
+        String map = in.readString();
+        int x = in.readSignedVarInt();
+        int y = in.readSignedVarInt();
+        if (!map.isEmpty()) {
+            world.setPosition(map, x, y);
+        }
+    }
+
+    static BitSet readBitSet(SaveInput in) throws SaveFormatException {
+        int mode = in.readByte();
+        if (mode == RAW) {
+            int length = in.readCount(MAX_OBJECT_ID / 8);
+            byte[] raw = new byte[length];
+            for (int i = 0; i < length; i++) {
+                raw[i] = (byte) in.readByte();
+            }
+            return BitSet.valueOf(raw);
+        }
+        if (mode != GAPS) {
+            throw new SaveFormatException("Unknown bitset format " + mode);
+        }
+
+        BitSet bits = new BitSet();
+        int count = in.readCount(MAX_OBJECT_ID);
+        int id = -1;
+        for (int i = 0; i < count; i++) {
+            id += in.readVarInt() + 1;
+            if (id < 0 || id >= MAX_OBJECT_ID) {
+                throw new SaveFormatException("Invalid object id " + id);
+            }
+            bits.set(id);
+        }
+        return bits;
+    }
+
+    static List<Player.TrainerAbility> readAbilities(SaveInput in)
+            throws SaveFormatException {
+        int count = in.readCount(MAX_COUNT);
+        ArrayList<Player.TrainerAbility> abilities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = in.readString();
+            try {
+                abilities.add(Player.TrainerAbility.valueOf(name));
+            } catch (IllegalArgumentException e) {
+                System.out.println("Skipping unknown ability in save: " + name);
+            }
+        }
+        return abilities;
+    }
+
+    private static Roster readRoster(SaveInput in, NameReader names)
+            throws SaveFormatException {
+        Roster roster = new Roster();
+
+        int count = in.readCount(MAX_COUNT);
+        for (int i = 0; i < count; i++) {
+            PlayerPokemon pokemon = readPokemon(in, names);
+            if (pokemon != null) {
+                roster.addPokemon(pokemon);
+            }
+        }
+        return roster;
+    }
+
+    /**
+     * Reads a pokemon written by writePokemon
+     *
+     * @return The pokemon, null if its species was removed from the game
+     */
+    static PlayerPokemon readPokemon(SaveInput in, NameReader names)
+            throws SaveFormatException {
+        DataHandler dataHandler = DataHandler.getInstance();
+
+        String speciesName = names.read(in, SPECIES_NAMES);
+        int hp = in.readVarInt();
+        int mp = in.readVarInt();
+        int flags = in.readByte();
+
+        int moveCount = in.readCount(MAX_COUNT);
+        ArrayList<String> moves = new ArrayList<>(moveCount);
+        for (int j = 0; j < moveCount; j++) {
+            String move = names.read(in, MOVE_NAMES);
+
+            // Moves that were removed from the game are forgotten
+            if (dataHandler.getMoveRegistry().getId(move) >= 0) {
+                moves.add(move);
+            }
+        }
+
+        int changedCount = in.readCount(MAX_COUNT);
+        HashMap<String, Integer> changed = new HashMap<>();
+        for (int j = 0; j < changedCount; j++) {
+            changed.put(in.readString(), in.readSignedVarInt());
+        }
+
+        Species species = dataHandler.getSpeciesRegistry().get(speciesName);
+        if (species == null) {
+            System.out.println("Skipping unknown species in save: "
+                    + speciesName);
+            return null;
+        }
+
+        PlayerPokemon pokemon = new PlayerPokemon(species);
+        pokemon.setMoves(moves);
+        changed.forEach(pokemon::setNumericalStat);
+        pokemon.setNumericalStat("HP", hp);
+        pokemon.setNumericalStat("MP", mp);
+        pokemon.setFainted((flags & FAINTED) != 0);
+        return pokemon;
+    }
+
+    private static Inventory readInventory(SaveInput in, NameReader names)
+            throws SaveFormatException {
+        int coins = in.readVarInt();
+        return new Inventory(readItems(in, names), coins);
+    }
+
+    static List<Item> readItems(SaveInput in, NameReader names)
+            throws SaveFormatException {
+        DataHandler dataHandler = DataHandler.getInstance();
+
+        int count = in.readCount(MAX_COUNT);
+        ArrayList<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String itemName = names.read(in, ITEM_NAMES);
+            ItemDef item = dataHandler.getItemRegistry().get(itemName);
+            if (item == null) {
+                System.out.println("Skipping unknown item in save: " + itemName);
+                continue;
+            }
+            items.add(new Item(item));
+        }
+        return items;
+    }
+
+    private static String getName(String[][] names, int kind, int id)
+            throws SaveFormatException {
+        if (id < 0 || id >= names[kind].length) {
+            throw new SaveFormatException("Invalid name id " + id);
+        }
+        return names[kind][id];
+    }
+
+    /**
+     * The only classes a serialized save may contain, anything else in the
+     * file is rejected before it is created
+     */
+    private static final ObjectInputFilter SERIALIZED_CLASSES =
+            ObjectInputFilter.Config.createFilter(
+                    "maxdepth=20;maxrefs=100000;"
+                            + "inheritamon.model.player.Player;"
+                            + "inheritamon.model.player.Player$TrainerAbility;"
+                            + "inheritamon.model.npcs.Roster;"
+                            + "inheritamon.model.npcs.types.*;"
+                            + "inheritamon.model.npcs.AIParameters;"
+                            + "inheritamon.model.inventory.Inventory;"
+                            + "inheritamon.model.inventory.Item;"
+                            + "inheritamon.model.world.WorldState;"
+                            + "java.lang.Object;java.lang.Enum;"
+                            + "java.lang.String;java.lang.Number;"
+                            + "java.lang.Integer;java.util.ArrayList;"
+                            + "java.util.HashMap;java.util.Map$Entry;"
+                            + "java.util.TreeMap;java.util.BitSet;!*");
+
+    /**
+     * Checks for the magic number of Java serialization, used by version 0
+     */
+    private static boolean isSerialized(byte[] data) {
+        return data.length >= 2 && (data[0] & 0xFF) == 0xAC
+                && (data[1] & 0xFF) == 0xED;
+    }
+
+    private static Player readSerialized(byte[] data) throws IOException {
+        try (ObjectInputStream in =
+                     new ObjectInputStream(new ByteArrayInputStream(data))) {
+            in.setObjectInputFilter(SERIALIZED_CLASSES);
+            return (Player) in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new SaveFormatException("Cannot read the serialized save", e);
+        }
+    }
+
+}
@@ -0,0 +1,267 @@
+package inheritamon.model.save;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * @author Jeremias
+ * Compresses saves with deflate. The save is split into blocks that are
+ * compressed one after the other straight into the file, so only one
+ * compressed block is in memory next to the save. Every block is
+ * compressed on its own and a block that does not get smaller is stored
+ * as it is, so compressing never makes a save much larger.
+ * <p>
+ * A compressed save starts with its own magic number, the version and the
+ * length of the save. Every block has its length and the length of its
+ * data in the file, the block is stored when they are equal.
+ */
+public final class SaveCompression {
+
+    /**
+     * Marks the start of a compressed save, INHZ in ASCII
+     */
+    public static final int MAGIC = 0x494E485A;
+    private static final int VERSION = 1;
+
+    /**
+     * The number of bytes of the save in a block
+     */
+    static final int BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * The largest save that is accepted, a corrupted length should not
+     * allocate a huge array
+     */
+    private static final int MAX_SIZE = 64 * 1024 * 1024;
+
+    private static final int HEADER_SIZE = 9;
+    private static final int BLOCK_HEADER_SIZE = 8;
+
+    private SaveCompression() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Compresses a save and writes it to a channel
+     *
+     * @param data    The save
+     * @param level   The deflate level from 1, fastest, to 9, smallest
+     * @param channel Where the compressed save is written
+     * @return The number of bytes that were written
+     * @throws IOException If the channel cannot be written
+     */
+    public static int write(byte[] data, int level, WritableByteChannel channel)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).put((byte) VERSION).putInt(data.length).flip();
+        int written = writeFully(channel, header);
+
+        Deflater deflater = new Deflater(level, true);
+        byte[] block = new byte[Math.min(BLOCK_SIZE, data.length)];
+        ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        try {
+            for (int offset = 0; offset < data.length; offset += BLOCK_SIZE) {
+                int length = Math.min(BLOCK_SIZE, data.length - offset);
+                int compressed = deflate(deflater, data, offset, length, block);
+
+                ByteBuffer body = compressed < length
+                        ? ByteBuffer.wrap(block, 0, compressed)
+                        : ByteBuffer.wrap(data, offset, length);
+                blockHeader.clear();
+                blockHeader.putInt(length).putInt(body.remaining()).flip();
+                written += writeFully(channel, blockHeader);
+                written += writeFully(channel, body);
+            }
+        } finally {
+            deflater.end();
+        }
+        return written;
+    }
+
+    /**
+     * Compresses a block into the buffer
+     *
+     * @return The compressed length, the length of the block if it did not
+     * get smaller
+     */
+    private static int deflate(Deflater deflater, byte[] data, int offset,
+                               int length, byte[] buffer) {
+        deflater.reset();
+        deflater.setInput(data, offset, length);
+        deflater.finish();
+        int size = 0;
+        while (!deflater.finished()) {
+            if (size >= length) {
+                return length;
+            }
+            size += deflater.deflate(buffer, size, length - size);
+        }
+        return size;
+    }
+
+    private static int writeFully(WritableByteChannel channel, ByteBuffer buffer)
+            throws IOException {
+        int count = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return count;
+    }
+
+    /**
+     * Reads a save that may be compressed. The blocks are read one at a
+     * time, only the save itself is kept in memory as a whole.
+     *
+     * @param stream The save, starting at its first byte
+     * @return The save as it was before it was compressed
+     * @throws IOException If the save cannot be read or is malformed
+     */
+    public static byte[] read(InputStream stream) throws IOException {
+        DataInputStream in =
+                new DataInputStream(new BufferedInputStream(stream));
+        byte[] magic = in.readNBytes(4);
+        if (magic.length < 4 || ByteBuffer.wrap(magic).getInt() != MAGIC) {
+            // Not compressed, the save follows as it is
+            byte[] rest = in.readAllBytes();
+            byte[] data = new byte[magic.length + rest.length];
+            System.arraycopy(magic, 0, data, 0, magic.length);
+            System.arraycopy(rest, 0, data, magic.length, rest.length);
+            return data;
+        }
+
+        try {
+            int version = in.readUnsignedByte();
+            if (version > VERSION) {
+                throw new SaveFormatException("The compressed save has "
+                        + "version " + version + ", this game reads up to "
+                        + VERSION);
+            }
+            int size = in.readInt();
+            if (size < 0 || size > MAX_SIZE) {
+                throw new SaveFormatException("Invalid save length " + size);
+            }
+            return readBlocks(in, size);
+        } catch (EOFException e) {
+            throw new SaveFormatException("The compressed save is truncated",
+                    e);
+        }
+    }
+
+    /**
+     * Checks the header and the block table of a compressed save without
+     * decompressing it. Only the headers of the blocks are read, that they
+     * add up to the length of the save and fit in the file.
+     *
+     * @param channel The compressed save
+     * @throws IOException If the save cannot be read or is malformed
+     */
+    static void checkBlocks(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        SaveInput header = SaveInput.read(channel, 0, HEADER_SIZE);
+        if (header.remaining() < HEADER_SIZE || header.readInt() != MAGIC) {
+            throw new SaveFormatException("The compressed save is truncated");
+        }
+        int version = header.readByte();
+        if (version > VERSION) {
+            throw new SaveFormatException("The compressed save has "
+                    + "version " + version + ", this game reads up to "
+                    + VERSION);
+        }
+        int size = header.readInt();
+        if (size < 0 || size > MAX_SIZE) {
+            throw new SaveFormatException("Invalid save length " + size);
+        }
+
+        long position = HEADER_SIZE;
+        int offset = 0;
+        while (offset < size) {
+            SaveInput block = SaveInput.read(channel, position,
+                    BLOCK_HEADER_SIZE);
+            if (block.remaining() < BLOCK_HEADER_SIZE) {
+                throw new SaveFormatException("The compressed save is "
+                        + "truncated");
+            }
+            int length = block.readInt();
+            int stored = block.readInt();
+            if (length <= 0 || length > BLOCK_SIZE
+                    || length > size - offset || stored <= 0
+                    || stored > length) {
+                throw new SaveFormatException("Invalid block at byte "
+                        + offset + " of the save");
+            }
+            position += BLOCK_HEADER_SIZE + stored;
+            if (position > fileSize) {
+                throw new SaveFormatException("The compressed save is "
+                        + "truncated");
+            }
+            offset += length;
+        }
+    }
+
+    private static byte[] readBlocks(DataInputStream in, int size)
+            throws IOException {
+        byte[] data = new byte[size];
+        byte[] block = new byte[Math.min(BLOCK_SIZE, size)];
+        Inflater inflater = new Inflater(true);
+        try {
+            int offset = 0;
+            while (offset < size) {
+                int length = in.readInt();
+                int stored = in.readInt();
+                if (length <= 0 || length > BLOCK_SIZE
+                        || length > size - offset || stored <= 0
+                        || stored > length) {
+                    throw new SaveFormatException("Invalid block at byte "
+                            + offset + " of the save");
+                }
+
+                if (stored == length) {
+                    in.readFully(data, offset, length);
+                } else {
+                    in.readFully(block, 0, stored);
+                    inflate(inflater, block, stored, data, offset, length);
+                }
+                offset += length;
+            }
+        } finally {
+            inflater.end();
+        }
+        return data;
+    }
+
+    private static void inflate(Inflater inflater, byte[] block, int stored,
+                                byte[] data, int offset, int length)
+            throws SaveFormatException {
+        inflater.reset();
+        inflater.setInput(block, 0, stored);
+        try {
+            int size = 0;
+            while (size < length && !inflater.finished()) {
+                int count = inflater.inflate(data, offset + size,
+                        length - size);
+                if (count == 0 && (inflater.needsInput()
+                        || inflater.needsDictionary())) {
+                    break;
+                }
+                size += count;
+            }
+            if (size != length || !inflater.finished()) {
+                throw new SaveFormatException("A block of the save does not "
+                        + "have the length it should have");
+            }
+        } catch (DataFormatException e) {
+            throw new SaveFormatException("A block of the save is corrupted",
+                    e);
+        }
+    }
+
+}
@@ -0,0 +1,289 @@
+package inheritamon.model.save;
+
+import inheritamon.model.player.Player;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * @author Jeremias
+ * Reads and writes the save files of the game. Saves that were written
+ * with Java serialization are read when there is no save in the new
+ * format, SaveWriter.load then writes it.
+ * The changes in the journal of a save are applied when it is loaded.
+ * A save is written to a temporary file that replaces the old save only
+ * once it is on the disk, so a crash leaves either the old or the new save.
+ * <p>
+ * Saves are compressed, the level can be set with the system property
+ * inheritamon.save.compressionLevel from 0, not compressed, to 9. Both
+ * kinds of saves are read whatever the level is.
+ * <p>
+ * Before a full save replaces the old one, the old save and its journal
+ * are kept as a backup generation. A save that is damaged is found by its
+ * checksums when it is loaded, then the newest backup that is whole is
+ * loaded instead and SaveWriter.load writes it back as the save. The
+ * number of backups can be set with the system property
+ * inheritamon.save.backups.
+ */
+public final class SaveFiles {
+
+    /**
+     * The extension of save files
+     */
+    public static final String EXTENSION = ".sav";
+
+    /**
+     * The extension of the saves that were written with Java serialization
+     */
+    static final String LEGACY_EXTENSION = ".ser";
+
+    /**
+     * The deflate level of the saves, 0 to write them without compression
+     */
+    public static final int COMPRESSION_LEVEL = Math.max(0, Math.min(9,
+            Integer.getInteger("inheritamon.save.compressionLevel", 6)));
+
+    /**
+     * The number of older saves that are kept
+     */
+    public static final int BACKUPS =
+            Math.max(0, Integer.getInteger("inheritamon.save.backups", 2));
+
+    private SaveFiles() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Writes a file so that it is never left half written. The data goes to
+     * a temporary file next to it, which is flushed to the disk and then
+     * renamed over the old file in one step.
+     *
+     * @param path The file
+     * @param data The contents of the file
+     * @throws IOException If the file could not be written
+     */
+    public static void write(Path path, byte[] data) throws IOException {
+        write(path, data, 0);
+    }
+
+    /**
+     * Writes a file like {@link #write(Path, byte[])}, compressing it on
+     * the way to the disk
+     *
+     * @param path  The file
+     * @param data  The contents of the file
+     * @param level The deflate level, 0 to write the data as it is
+     * @return The number of bytes in the file
+     * @throws IOException If the file could not be written
+     */
+    public static int write(Path path, byte[] data, int level)
+            throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        int size;
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (level > 0) {
+                size = SaveCompression.write(data, level, channel);
+            } else {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                size = data.length;
+            }
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(path.toAbsolutePath().getParent());
+        return size;
+    }
+
+    /**
+     * Flushes the directory so the rename survives a crash as well. Not
+     * every system can open a directory, then this is skipped.
+     */
+    private static void syncDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel =
+                     FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // The rename is still atomic, it may just not be on the disk yet
+        }
+    }
+
+    /**
+     * Keeps the current save and its journal as the newest backup, the
+     * older backups move one generation back and the oldest is dropped.
+     * A save that is cut off is not kept, so it cannot push out a good
+     * backup. Only the headers are checked, not reading the whole save
+     * keeps a full save fast.
+     *
+     * @param fileName The name of the save without extension
+     * @throws IOException If the backups could not be moved
+     */
+    public static void backup(String fileName) throws IOException {
+        if (BACKUPS == 0 || !verify(fileName)) {
+            return;
+        }
+        rotate(Paths.get(fileName + EXTENSION));
+        rotate(Paths.get(fileName + SaveJournal.EXTENSION));
+    }
+
+    private static void rotate(Path path) throws IOException {
+        for (int generation = BACKUPS; generation > 1; generation--) {
+            Path older = getGeneration(path, generation - 1);
+            if (Files.exists(older)) {
+                Files.move(older, getGeneration(path, generation),
+                        StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(getGeneration(path, generation));
+            }
+        }
+
+        Path newest = getGeneration(path, 1);
+        Files.deleteIfExists(newest);
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        // The file is only replaced by a rename and never written in place,
+        // so a second link to it keeps the old contents without a copy
+        try {
+            Files.createLink(newest, path);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(path, newest);
+        }
+    }
+
+    /**
+     * Gets the file of a backup generation
+     *
+     * @param path       The file of the current save or journal
+     * @param generation The generation, 0 for the current file
+     * @return The file of the generation
+     */
+    static Path getGeneration(Path path, int generation) {
+        return generation == 0 ? path
+                : path.resolveSibling(path.getFileName() + "." + generation);
+    }
+
+    /**
+     * Checks that a save looks whole by its headers, without reading or
+     * decompressing the rest of it. A save that was cut off is found this
+     * way, damage inside a section only by its checksum when it is loaded.
+     *
+     * @param fileName The name of the save without extension
+     * @return True if the save exists and its headers are whole
+     */
+    public static boolean verify(String fileName) {
+        return verify(Paths.get(fileName + EXTENSION));
+    }
+
+    private static boolean verify(Path path) {
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            SaveInput start = SaveInput.read(channel, 0, 4);
+            if (start.remaining() == 4
+                    && start.readInt() == SaveCompression.MAGIC) {
+                SaveCompression.checkBlocks(channel);
+            } else {
+                SaveCodec.checkHeader(channel);
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static byte[] read(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return SaveCompression.read(in);
+        }
+    }
+
+    /**
+     * Loads the player, from the newest backup that is whole if the save is
+     * damaged. Nothing is written, a save that is outdated is written again
+     * by the caller, see SaveWriter.load.
+     *
+     * @param fileName The name of the save without extension
+     * @return The player and whether the save is outdated
+     */
+    public static LoadedSave load(String fileName) {
+        Path path = Paths.get(fileName + EXTENSION);
+        Path legacyPath = Paths.get(fileName + LEGACY_EXTENSION);
+        if (!Files.exists(path) && Files.exists(legacyPath)) {
+            // Written in the new format so the old one is not needed anymore
+            Player player = load(legacyPath, null);
+            return new LoadedSave(player, player != null);
+        }
+
+        Path journal = Paths.get(fileName + SaveJournal.EXTENSION);
+        for (int generation = 0; generation <= BACKUPS; generation++) {
+            Path save = getGeneration(path, generation);
+            if (generation > 0 && !Files.exists(save)) {
+                continue;
+            }
+            Player player = load(save, getGeneration(journal, generation));
+            if (player != null) {
+                if (generation > 0) {
+                    System.out.println("Restored " + path + " from " + save);
+                }
+                return new LoadedSave(player, generation > 0);
+            }
+        }
+        return new LoadedSave(null, false);
+    }
+
+    /**
+     * Loads a save and applies its journal
+     *
+     * @param path    The save
+     * @param journal The journal, null for a save with Java serialization
+     * @return The player, null if the save cannot be read
+     */
+    private static Player load(Path path, Path journal) {
+        long start = System.nanoTime();
+        Player player;
+        try {
+            byte[] data = journal == null ? Files.readAllBytes(path)
+                    : read(path);
+            player = SaveCodec.decode(data);
+
+            // Apply the changes that were saved after the full save
+            if (journal != null) {
+                player = SaveJournal.replay(player, data, journal);
+            }
+        } catch (IOException e) {
+            System.out.println(path + " is corrupted or does not exist: "
+                    + e.getMessage());
+            return null;
+        }
+        System.out.println(String.format(Locale.ROOT, "Loaded %s in %.2f ms",
+                path, (System.nanoTime() - start) / 1e6));
+        return player;
+    }
+
+}
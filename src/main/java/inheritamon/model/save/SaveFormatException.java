@@ -0,0 +1,30 @@
+package inheritamon.model.save;
+
+import java.io.IOException;
+
+/**
+ * @author Jeremias
+ * Thrown when a save file is malformed or written by a newer version
+ */
+public class SaveFormatException extends IOException {
+
+    /**
+     * Constructor for the SaveFormatException class
+     *
+     * @param message What is wrong
+     */
+    public SaveFormatException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor for the SaveFormatException class
+     *
+     * @param message What is wrong
+     * @param cause   The error that caused it
+     */
+    public SaveFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,212 @@
+package inheritamon.model.save;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author Jeremias
+ * Reads the fields written by SaveOutput. Every read checks that the field
+ * fits in the data, so a truncated file is reported instead of read wrong.
+ */
+public final class SaveInput {
+
+    private final byte[] bytes;
+    private final int limit;
+    private int position;
+
+    /**
+     * Constructor for the SaveInput class
+     *
+     * @param bytes The data to read
+     */
+    public SaveInput(byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Constructor for the SaveInput class
+     *
+     * @param bytes  The data to read
+     * @param offset Where the data starts
+     * @param length The number of bytes of the data
+     */
+    public SaveInput(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Reads a few bytes of a file at a position, used to check the headers
+     * of a save without reading all of it
+     *
+     * @param channel  The file
+     * @param position Where the bytes start
+     * @param length   The most bytes to read, fewer are read at the end of
+     *                 the file
+     * @return The bytes that were read
+     * @throws IOException If the file cannot be read
+     */
+    static SaveInput read(FileChannel channel, long position, int length)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()
+                && channel.read(buffer, position + buffer.position()) >= 0) {
+            // Read until the buffer is full or the file ends
+        }
+        return new SaveInput(buffer.array(), 0, buffer.position());
+    }
+
+    private void require(int count) throws SaveFormatException {
+        if (count < 0 || limit - position < count) {
+            throw new SaveFormatException("Unexpected end of the save at byte "
+                    + position);
+        }
+    }
+
+    /**
+     * Reads a single byte
+     *
+     * @return The byte from 0 to 255
+     * @throws SaveFormatException If there is no byte left
+     */
+    public int readByte() throws SaveFormatException {
+        require(1);
+        return bytes[position++] & 0xFF;
+    }
+
+    /**
+     * Reads an int of four bytes, big endian
+     *
+     * @return The int
+     * @throws SaveFormatException If there are not enough bytes left
+     */
+    public int readInt() throws SaveFormatException {
+        require(4);
+        int value = (bytes[position] & 0xFF) << 24
+                | (bytes[position + 1] & 0xFF) << 16
+                | (bytes[position + 2] & 0xFF) << 8
+                | (bytes[position + 3] & 0xFF);
+        position += 4;
+        return value;
+    }
+
+    /**
+     * Reads a varint
+     *
+     * @return The number
+     * @throws SaveFormatException If the varint is cut off or too long
+     */
+    public int readVarInt() throws SaveFormatException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int next = readByte();
+            value |= (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SaveFormatException("Varint is too long at byte " + position);
+    }
+
+    /**
+     * Reads a varint written as a long
+     *
+     * @return The number
+     * @throws SaveFormatException If the varint is cut off or too long
+     */
+    public long readVarLong() throws SaveFormatException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int next = readByte();
+            value |= (long) (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SaveFormatException("Varint is too long at byte " + position);
+    }
+
+    /**
+     * Reads a varint that may be negative
+     *
+     * @return The number
+     * @throws SaveFormatException If the varint is cut off or too long
+     */
+    public int readSignedVarInt() throws SaveFormatException {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a varint that counts something
+     *
+     * @param max The highest count that makes sense
+     * @return The count
+     * @throws SaveFormatException If the count is negative or too high
+     */
+    public int readCount(int max) throws SaveFormatException {
+        int count = readVarInt();
+        if (count < 0 || count > max) {
+            throw new SaveFormatException("Invalid count " + count
+                    + " at byte " + position);
+        }
+        return count;
+    }
+
+    /**
+     * Reads a string
+     *
+     * @return The string
+     * @throws SaveFormatException If the string is cut off
+     */
+    public String readString() throws SaveFormatException {
+        int length = readVarInt();
+        require(length);
+        String value = new String(bytes, position, length,
+                StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Skips bytes
+     *
+     * @param count The number of bytes
+     * @throws SaveFormatException If there are not enough bytes left
+     */
+    public void skip(int count) throws SaveFormatException {
+        require(count);
+        position += count;
+    }
+
+    /**
+     * Gets the position of the next byte in the array
+     *
+     * @return The position
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the number of bytes that are left
+     *
+     * @return The number of bytes
+     */
+    public int remaining() {
+        return limit - position;
+    }
+
+    /**
+     * Gets the array that is read
+     *
+     * @return The array, not a copy
+     */
+    byte[] getBytes() {
+        return bytes;
+    }
+
+}
@@ -0,0 +1,544 @@
+package inheritamon.model.save;
+
+import inheritamon.model.inventory.Inventory;
+import inheritamon.model.inventory.Item;
+import inheritamon.model.npcs.Roster;
+import inheritamon.model.npcs.types.PlayerPokemon;
+import inheritamon.model.npcs.types.Pokemon;
+import inheritamon.model.player.Player;
+import inheritamon.model.world.WorldState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Jeremias
+ * The changes to the player since the last full save, appended to a
+ * journal file next to it. Saving a change only appends a few bytes, so
+ * the game can save after every battle. When the journal gets long it is
+ * compacted into a new full save and started again.
+ * <p>
+ * The journal starts with its magic number, its version and the checksum
+ * of the full save it belongs to, so a journal left behind by an older
+ * save is ignored. Every entry holds the records of one save, its length
+ * and a checksum, so an entry that was cut off by a crash is left out
+ * as a whole. A record has a tag, its length and its data like the
+ * sections of a save, and replaces the part of the player it describes.
+ */
+public final class SaveJournal {
+
+    /**
+     * The extension of journal files
+     */
+    public static final String EXTENSION = ".journal";
+
+    /**
+     * Marks the start of a journal, INHJ in ASCII
+     */
+    private static final int MAGIC = 0x494E484A;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 9;
+
+    /**
+     * The tags of the records
+     */
+    private static final int COINS = 1;
+    private static final int ITEMS = 2;
+    private static final int POKEMON = 3;
+    private static final int ROSTER_SIZE = 4;
+    private static final int ABILITIES = 5;
+    private static final int PLAY_TIME = 6;
+    private static final int WORLD_POSITION = 7;
+    private static final int WORLD_KEYS = 8;
+    private static final int WORLD_COLLECTED = 9;
+    private static final int WORLD_CLEARED = 10;
+
+    /**
+     * The journal is compacted when it is larger than this
+     */
+    private static final int COMPACT_BYTES = 16 * 1024;
+    private static final int COMPACT_ENTRIES = 256;
+
+    private final Path path;
+
+    // The number of full saves, a failed one needs the next to be full too
+    private int generation;
+    private volatile int failedGeneration = -1;
+
+    // What was saved last, to find the changes
+    private int coins;
+    private long playTime;
+    private byte[] items;
+    private byte[] abilities;
+    private final ArrayList<byte[]> pokemon = new ArrayList<>();
+    private byte[] position;
+    private int keys;
+    private Map<String, BitSet> collected;
+
+    private long size;
+    private int entries;
+
+    /**
+     * Constructor for the SaveJournal class
+     *
+     * @param fileName The name of the save without extension
+     */
+    public SaveJournal(String fileName) {
+        this.path = Path.of(fileName + EXTENSION);
+    }
+
+    /**
+     * Gets the journal file
+     *
+     * @return The path of the journal
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Starts tracking the changes after a full save
+     *
+     * @param player   The player that was saved
+     * @param snapshot The full save
+     * @return The header of the new, empty journal
+     */
+    public byte[] reset(Player player, byte[] snapshot) {
+        generation++;
+        coins = player.getInventory().getCoins();
+        playTime = player.getPlayTime();
+        items = encodeItems(player.getInventory());
+        abilities = encodeAbilities(player);
+        pokemon.clear();
+        for (Pokemon member : player.getRoster().getArray()) {
+            pokemon.add(encodePokemon(member));
+        }
+        WorldState world = new WorldState(player.getWorld());
+        position = encodePosition(world);
+        keys = world.getKeys();
+        collected = world.getCollected();
+
+        SaveOutput header = new SaveOutput(HEADER_SIZE);
+        header.writeInt(MAGIC);
+        header.writeByte(VERSION);
+        header.writeInt(SaveCodec.checksum(snapshot, 0, snapshot.length));
+        size = header.size();
+        entries = 0;
+        return header.toByteArray();
+    }
+
+    /**
+     * Gets the number of the last full save
+     *
+     * @return The generation, 0 before the first full save
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Marks that a full save or an entry could not be written, so the
+     * changes after it cannot be appended
+     *
+     * @param failed The generation of the save that failed
+     */
+    public void markFailed(int failed) {
+        failedGeneration = failed;
+    }
+
+    /**
+     * Checks if writing failed since a full save
+     *
+     * @param checked The generation of the full save
+     * @return True if something was not written
+     */
+    public boolean hasFailed(int checked) {
+        return failedGeneration == checked;
+    }
+
+    /**
+     * Checks if changes can be appended. Otherwise there is no full save
+     * yet, writing failed or the journal is long enough to be compacted
+     * into a new full save.
+     *
+     * @return True if recordChanges can be used
+     */
+    public boolean canAppend() {
+        return generation > 0 && !hasFailed(generation)
+                && size <= COMPACT_BYTES && entries < COMPACT_ENTRIES;
+    }
+
+    /**
+     * Finds what changed since the last save and remembers the new state
+     *
+     * @param player The player
+     * @return The entry to append, null if nothing changed
+     */
+    public byte[] recordChanges(Player player) {
+        SaveOutput records = new SaveOutput(64);
+
+        int newCoins = player.getInventory().getCoins();
+        if (newCoins != coins) {
+            SaveOutput record = new SaveOutput(8);
+            record.writeVarInt(newCoins);
+            writeRecord(records, COINS, record.toByteArray());
+            coins = newCoins;
+        }
+
+        if (player.getPlayTime() != playTime) {
+            SaveOutput record = new SaveOutput(10);
+            record.writeVarLong(player.getPlayTime());
+            writeRecord(records, PLAY_TIME, record.toByteArray());
+            playTime = player.getPlayTime();
+        }
+
+        byte[] newItems = encodeItems(player.getInventory());
+        if (!Arrays.equals(newItems, items)) {
+            writeRecord(records, ITEMS, newItems);
+            items = newItems;
+        }
+
+        byte[] newAbilities = encodeAbilities(player);
+        if (!Arrays.equals(newAbilities, abilities)) {
+            writeRecord(records, ABILITIES, newAbilities);
+            abilities = newAbilities;
+        }
+
+        // Only the pokemon that changed are written, with their slot
+        Pokemon[] roster = player.getRoster().getArray();
+        for (int slot = 0; slot < roster.length; slot++) {
+            byte[] encoded = encodePokemon(roster[slot]);
+            if (slot < pokemon.size()
+                    && Arrays.equals(encoded, pokemon.get(slot))) {
+                continue;
+            }
+            SaveOutput record = new SaveOutput(encoded.length + 1);
+            record.writeVarInt(slot);
+            record.writeBytes(encoded, 0, encoded.length);
+            writeRecord(records, POKEMON, record.toByteArray());
+
+            if (slot < pokemon.size()) {
+                pokemon.set(slot, encoded);
+            } else {
+                pokemon.add(encoded);
+            }
+        }
+        if (roster.length < pokemon.size()) {
+            SaveOutput record = new SaveOutput(4);
+            record.writeVarInt(roster.length);
+            writeRecord(records, ROSTER_SIZE, record.toByteArray());
+            pokemon.subList(roster.length, pokemon.size()).clear();
+        }
+
+        recordWorldChanges(new WorldState(player.getWorld()), records);
+
+        if (records.size() == 0) {
+            return null;
+        }
+
+        SaveOutput entry = new SaveOutput(records.size() + 8);
+        entry.writeVarInt(records.size());
+        entry.writeBytes(records);
+        entry.writeInt(
+                SaveCodec.checksum(records.getBytes(), 0, records.size()));
+        size += entry.size();
+        entries++;
+        return entry.toByteArray();
+    }
+
+    /**
+     * Writes where the avatar moved, the keys and the objects that were
+     * collected since the last save, only the new object ids are written
+     */
+    private void recordWorldChanges(WorldState world, SaveOutput records) {
+        byte[] newPosition = encodePosition(world);
+        if (!Arrays.equals(newPosition, position)) {
+            writeRecord(records, WORLD_POSITION, newPosition);
+            position = newPosition;
+        }
+
+        if (world.getKeys() != keys) {
+            SaveOutput record = new SaveOutput(4);
+            record.writeVarInt(world.getKeys());
+            writeRecord(records, WORLD_KEYS, record.toByteArray());
+            keys = world.getKeys();
+        }
+
+        Map<String, BitSet> newCollected = world.getCollected();
+        for (String map : collected.keySet()) {
+            if (!newCollected.containsKey(map)) {
+                writeMapRecord(records, WORLD_CLEARED, map, null);
+            }
+        }
+        for (Map.Entry<String, BitSet> entry : newCollected.entrySet()) {
+            BitSet ids = entry.getValue();
+            BitSet added = (BitSet) ids.clone();
+            BitSet old = collected.get(entry.getKey());
+            if (old != null) {
+                added.andNot(old);
+
+                // Objects only disappear in a new game, start the map over
+                BitSet removed = (BitSet) old.clone();
+                removed.andNot(ids);
+                if (!removed.isEmpty()) {
+                    writeMapRecord(records, WORLD_CLEARED, entry.getKey(), null);
+                    added = ids;
+                }
+            }
+            if (!added.isEmpty()) {
+                writeMapRecord(records, WORLD_COLLECTED, entry.getKey(), added);
+            }
+        }
+        collected = newCollected;
+    }
+
+    private static void writeMapRecord(SaveOutput out, int tag, String map,
+                                       BitSet ids) {
+        SaveOutput record = new SaveOutput(16);
+        record.writeString(map);
+        if (ids != null) {
+            SaveCodec.writeBitSet(ids, record);
+        }
+        writeRecord(out, tag, record.toByteArray());
+    }
+
+    private static byte[] encodePosition(WorldState world) {
+        SaveOutput out = new SaveOutput(16);
+        SaveCodec.writePosition(world, out);
+        return out.toByteArray();
+    }
+
+    private static void writeRecord(SaveOutput out, int tag, byte[] data) {
+        out.writeByte(tag);
+        out.writeVarInt(data.length);
+        out.writeBytes(data, 0, data.length);
+    }
+
+    private static byte[] encodeItems(Inventory inventory) {
+        SaveOutput out = new SaveOutput(32);
+        SaveCodec.writeItems(inventory, SaveCodec.INLINE_NAMES, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] encodeAbilities(Player player) {
+        SaveOutput out = new SaveOutput(16);
+        SaveCodec.writePlayer(player, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] encodePokemon(Pokemon member) {
+        SaveOutput out = new SaveOutput(64);
+        SaveCodec.writePokemon(member, SaveCodec.INLINE_NAMES, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Appends an entry to the journal file and waits until it is on the disk
+     *
+     * @param entry The entry from recordChanges
+     * @throws IOException If the entry could not be written
+     */
+    public void append(byte[] entry) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(entry);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Applies the journal of a save to the player read from the full save
+     *
+     * @param player   The player from the full save
+     * @param snapshot The full save
+     * @param journal  The journal file, may not exist
+     * @return The player with the changes, the same player if there are none
+     */
+    public static Player replay(Player player, byte[] snapshot, Path journal) {
+        byte[] data;
+        try {
+            if (!Files.exists(journal)) {
+                return player;
+            }
+            data = Files.readAllBytes(journal);
+        } catch (IOException e) {
+            System.out.println("Cannot read " + journal + ": " + e.getMessage());
+            return player;
+        }
+
+        SaveInput in = new SaveInput(data);
+        try {
+            if (data.length < HEADER_SIZE || in.readInt() != MAGIC
+                    || in.readByte() != VERSION) {
+                System.out.println(journal + " is not a journal, ignoring it");
+                return player;
+            }
+            if (in.readInt()
+                    != SaveCodec.checksum(snapshot, 0, snapshot.length)) {
+                // The full save was written after the journal, so it already
+                // holds these changes
+                return player;
+            }
+        } catch (SaveFormatException e) {
+            return player;
+        }
+
+        State state = new State(player);
+        int applied = 0;
+        while (in.remaining() > 0) {
+            try {
+                int length = in.readVarInt();
+                int start = in.getPosition();
+                in.skip(length);
+                if (in.readInt() != SaveCodec.checksum(data, start, length)) {
+                    System.out.println("Entry " + applied + " of " + journal
+                            + " is corrupted, ignoring the rest");
+                    break;
+                }
+                state.apply(new SaveInput(data, start, length));
+                applied++;
+            } catch (SaveFormatException e) {
+                // The last entry was cut off while it was written
+                System.out.println("Ignoring the end of " + journal + ": "
+                        + e.getMessage());
+                break;
+            }
+        }
+
+        if (applied == 0) {
+            return player;
+        }
+        System.out.println("Replayed " + applied + " journal entries");
+        return state.toPlayer();
+    }
+
+    /**
+     * The parts of the player while the journal is replayed
+     */
+    private static final class State {
+        private int coins;
+        private long playTime;
+        private List<Item> items;
+        private List<Player.TrainerAbility> abilities;
+        private final ArrayList<Pokemon> roster;
+        private WorldState world;
+
+        private State(Player player) {
+            coins = player.getInventory().getCoins();
+            playTime = player.getPlayTime();
+            items = new ArrayList<>();
+            for (int i = 0; i < player.getInventory().getSize(); i++) {
+                items.add(player.getInventory().getItem(i));
+            }
+            abilities = player.getAbilities();
+            roster = new ArrayList<>(Arrays.asList(
+                    player.getRoster().getArray()));
+            world = new WorldState(player.getWorld());
+        }
+
+        private State(State other) {
+            coins = other.coins;
+            playTime = other.playTime;
+            items = other.items;
+            abilities = other.abilities;
+            roster = new ArrayList<>(other.roster);
+            world = new WorldState(other.world);
+        }
+
+        /**
+         * Applies the records of an entry, an entry that does not fit is
+         * not applied at all
+         */
+        private void apply(SaveInput in) throws SaveFormatException {
+            State next = new State(this);
+            while (in.remaining() > 0) {
+                int tag = in.readByte();
+                int length = in.readVarInt();
+                SaveInput record = new SaveInput(in.getBytes(),
+                        in.getPosition(), length);
+                in.skip(length);
+                next.applyRecord(tag, record);
+            }
+            coins = next.coins;
+            playTime = next.playTime;
+            items = next.items;
+            abilities = next.abilities;
+            roster.clear();
+            roster.addAll(next.roster);
+            world = next.world;
+        }
+
+        private void applyRecord(int tag, SaveInput in)
+                throws SaveFormatException {
+            switch (tag) {
+                case COINS -> coins = in.readVarInt();
+                case PLAY_TIME -> playTime = in.readVarLong();
+                case ITEMS -> items = SaveCodec.readItems(in,
+                        SaveCodec.INLINE_NAME_READER);
+                case ABILITIES -> abilities = SaveCodec.readAbilities(in);
+                case POKEMON -> {
+                    int slot = in.readCount(Roster.MAX_POKEMON - 1);
+                    if (slot > roster.size()) {
+                        throw new SaveFormatException("Pokemon slot " + slot
+                                + " is after the end of the roster");
+                    }
+                    // A removed species stays as null so the slots after it
+                    // keep their place
+                    PlayerPokemon member = SaveCodec.readPokemon(in,
+                            SaveCodec.INLINE_NAME_READER);
+                    if (slot == roster.size()) {
+                        roster.add(member);
+                    } else {
+                        roster.set(slot, member);
+                    }
+                }
+                case ROSTER_SIZE -> {
+                    int newSize = in.readCount(roster.size());
+                    roster.subList(newSize, roster.size()).clear();
+                }
+                case WORLD_POSITION -> SaveCodec.readPosition(in, world);
+                case WORLD_KEYS -> world.setKeys(in.readVarInt());
+                case WORLD_COLLECTED -> world.collectAll(in.readString(),
+                        SaveCodec.readBitSet(in));
+                case WORLD_CLEARED -> world.clearCollected(in.readString());
+                default -> {
+                    // Records of a newer version are skipped
+                }
+            }
+        }
+
+        private Player toPlayer() {
+            Roster newRoster = new Roster();
+            for (Pokemon member : roster) {
+                if (member != null) {
+                    newRoster.addPokemon(member);
+                }
+            }
+            Player player = new Player(newRoster, new Inventory(items, coins),
+                    abilities);
+            player.addPlayTime(playTime);
+
+            WorldState playerWorld = player.getWorld();
+            if (world.hasPosition()) {
+                playerWorld.setPosition(world.getMap(), world.getX(),
+                        world.getY());
+            }
+            playerWorld.setKeys(world.getKeys());
+            world.getCollected().forEach(playerWorld::collectAll);
+            return player;
+        }
+    }
+
+}
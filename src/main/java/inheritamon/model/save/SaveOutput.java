@@ -0,0 +1,184 @@
+package inheritamon.model.save;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @author Jeremias
+ * Writes the fields of a save into a growing byte array. Whole numbers are
+ * written as varints, seven bits per byte with the highest bit set when
+ * more bytes follow, so small numbers only take one byte.
+ */
+public final class SaveOutput {
+
+    private byte[] bytes;
+    private int size;
+
+    /**
+     * Constructor for the SaveOutput class
+     */
+    public SaveOutput() {
+        this(256);
+    }
+
+    /**
+     * Constructor for the SaveOutput class
+     *
+     * @param capacity The number of bytes to reserve
+     */
+    public SaveOutput(int capacity) {
+        bytes = new byte[Math.max(16, capacity)];
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2,
+                    size + extra));
+        }
+    }
+
+    /**
+     * Writes a single byte
+     *
+     * @param value The byte, only the lowest 8 bits are written
+     */
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) value;
+    }
+
+    /**
+     * Writes an int as four bytes, big endian
+     *
+     * @param value The int
+     */
+    public void writeInt(int value) {
+        ensureCapacity(4);
+        bytes[size++] = (byte) (value >>> 24);
+        bytes[size++] = (byte) (value >>> 16);
+        bytes[size++] = (byte) (value >>> 8);
+        bytes[size++] = (byte) value;
+    }
+
+    /**
+     * Writes a number that is not negative as a varint
+     *
+     * @param value The number, negative numbers take five bytes
+     */
+    public void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    /**
+     * Writes a varint that counts something, the counterpart of
+     * SaveInput.readCount
+     *
+     * @param count The count
+     * @param max   The highest count that is read back
+     * @throws IllegalArgumentException If the count could not be read back
+     */
+    public void writeCount(int count, int max) {
+        if (count < 0 || count > max) {
+            throw new IllegalArgumentException("Cannot save a count of "
+                    + count + ", at most " + max + " can be read back");
+        }
+        writeVarInt(count);
+    }
+
+    /**
+     * Writes a long that is not negative as a varint
+     *
+     * @param value The number
+     */
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    /**
+     * Writes a number that may be negative as a varint, small negative
+     * numbers are mapped to small positive ones first
+     *
+     * @param value The number
+     */
+    public void writeSignedVarInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Writes a string as its length in bytes followed by its UTF-8 bytes
+     *
+     * @param value The string
+     */
+    public void writeString(String value) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(encoded.length);
+        writeBytes(encoded, 0, encoded.length);
+    }
+
+    /**
+     * Writes bytes as they are
+     *
+     * @param source The bytes
+     * @param offset Where the bytes start
+     * @param length The number of bytes
+     */
+    public void writeBytes(byte[] source, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(source, offset, bytes, size, length);
+        size += length;
+    }
+
+    /**
+     * Writes the bytes of another output as they are
+     *
+     * @param other The other output
+     */
+    public void writeBytes(SaveOutput other) {
+        writeBytes(other.bytes, 0, other.size);
+    }
+
+    /**
+     * Gets the number of bytes written
+     *
+     * @return The number of bytes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes everything that was written so the output can be used again
+     */
+    public void reset() {
+        size = 0;
+    }
+
+    /**
+     * Gets the bytes that were written
+     *
+     * @return A copy of the bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    /**
+     * Gets the array that is written, only the first size bytes are used
+     *
+     * @return The array, not a copy
+     */
+    byte[] getBytes() {
+        return bytes;
+    }
+
+}
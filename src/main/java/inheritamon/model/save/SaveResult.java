@@ -0,0 +1,26 @@
+package inheritamon.model.save;
+
+import java.nio.file.Path;
+
+/**
+ * @author Jeremias
+ * The outcome of writing a save in the background
+ *
+ * @param path   The save file
+ * @param bytes  The size of the save in bytes
+ * @param millis How long writing took, including waiting for the disk
+ * @param error  Why the save failed, null if it succeeded
+ */
+public record SaveResult(Path path, int bytes, double millis,
+                         Exception error) {
+
+    /**
+     * Checks if the save was written
+     *
+     * @return True if the save succeeded
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+}
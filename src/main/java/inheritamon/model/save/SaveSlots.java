@@ -0,0 +1,283 @@
+package inheritamon.model.save;
+
+import inheritamon.model.player.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.zip.CRC32C;
+
+/**
+ * @author Jeremias
+ * The save slots and their index. The index is a small file with a fixed
+ * layout that holds a summary of every slot, so the continue screen can
+ * show the slots without loading any save. It is memory mapped, reading
+ * it is just reading memory and updating a slot writes only its record.
+ * <p>
+ * The index starts with its magic number, its version, the number of
+ * slots and the size of a record. Every record has a checksum, a record
+ * that does not match it, or an index that is missing, is rebuilt from
+ * the save of the slot. Only the headers of the saves of the used slots
+ * are checked when the slots are shown, so showing them stays instant.
+ * Rebuilding a record loads its save, which is rare and done in the
+ * background.
+ */
+public final class SaveSlots {
+
+    /**
+     * The number of save slots
+     */
+    public static final int SLOT_COUNT = 3;
+
+    private static final Path INDEX = Paths.get("saves.idx");
+
+    /**
+     * Marks the start of the index, INHX in ASCII
+     */
+    private static final int MAGIC = 0x494E4858;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    /**
+     * The layout of a record
+     */
+    private static final int RECORD_SIZE = 64;
+    private static final int FLAGS = 0;
+    private static final int ROSTER_SIZE = 1;
+    private static final int COINS = 4;
+    private static final int PLAY_TIME = 8;
+    private static final int SAVED_AT = 16;
+    private static final int SPECIES_LENGTH = 24;
+    private static final int SPECIES = 25;
+    private static final int CHECKSUM = 60;
+    private static final int MAX_SPECIES_BYTES = CHECKSUM - SPECIES;
+
+    private static final int USED = 1;
+
+    private static final int FILE_SIZE = HEADER_SIZE + SLOT_COUNT * RECORD_SIZE;
+
+    // Singleton instance
+    private static SaveSlots instance = null;
+
+    private MappedByteBuffer index;
+
+    private SaveSlots() {
+    }
+
+    /**
+     * Returns the singleton instance of the save slots
+     *
+     * @return The singleton instance
+     */
+    public static synchronized SaveSlots getInstance() {
+        if (instance == null) {
+            instance = new SaveSlots();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the name of the save of a slot, the first slot uses the name of
+     * the save from before there were slots
+     *
+     * @param slot The slot
+     * @return The name of the save without extension
+     */
+    public static String getFileName(int slot) {
+        return slot == 0 ? "playerData" : "playerData" + (slot + 1);
+    }
+
+    /**
+     * Checks if a summary has to be rebuilt from its save, because the
+     * index is new or damaged or the headers of a save are not whole
+     *
+     * @return True if getSummaries loads a save
+     */
+    public synchronized boolean needsRebuild() {
+        MappedByteBuffer buffer = getIndex();
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if (!isCurrent(buffer, slot)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the summaries of all slots. They are read from the index unless
+     * they have to be rebuilt, see needsRebuild.
+     *
+     * @param writer Writes the saves that are restored or converted while
+     *               the summaries are rebuilt
+     * @return The summaries by slot, null for an empty slot
+     */
+    public synchronized SlotSummary[] getSummaries(SaveWriter writer) {
+        long start = System.nanoTime();
+        SlotSummary[] summaries = new SlotSummary[SLOT_COUNT];
+        MappedByteBuffer buffer = getIndex();
+
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            // A damaged save is restored from its backup, or the slot is
+            // shown empty if there is none
+            summaries[slot] = isCurrent(buffer, slot)
+                    ? readRecord(buffer, HEADER_SIZE + slot * RECORD_SIZE)
+                    : rebuild(slot, writer);
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "Read the slot index in %.2f ms",
+                (System.nanoTime() - start) / 1e6));
+        return summaries;
+    }
+
+    /**
+     * Updates the summary of a slot after it was saved
+     *
+     * @param slot    The slot
+     * @param summary The summary, null to mark the slot as empty
+     */
+    public synchronized void writeSummary(int slot, SlotSummary summary) {
+        MappedByteBuffer buffer = getIndex();
+        if (buffer == null) {
+            return;
+        }
+
+        int offset = HEADER_SIZE + slot * RECORD_SIZE;
+        byte[] record = new byte[RECORD_SIZE];
+        ByteBuffer out = ByteBuffer.wrap(record);
+        if (summary != null) {
+            byte[] species =
+                    summary.leadSpecies().getBytes(StandardCharsets.UTF_8);
+            int speciesLength = Math.min(species.length, MAX_SPECIES_BYTES);
+
+            out.put(FLAGS, (byte) USED);
+            out.put(ROSTER_SIZE, (byte) summary.rosterSize());
+            out.putInt(COINS, summary.coins());
+            out.putLong(PLAY_TIME, summary.playTime());
+            out.putLong(SAVED_AT, summary.savedAt());
+            out.put(SPECIES_LENGTH, (byte) speciesLength);
+            out.put(SPECIES, species, 0, speciesLength);
+        }
+        out.putInt(CHECKSUM, checksum(out, 0));
+
+        buffer.put(offset, record);
+        buffer.force(offset, RECORD_SIZE);
+    }
+
+    /**
+     * Checks if the record of a slot can be shown as it is. The save of a
+     * used slot is only checked by its headers, the checksums are checked
+     * when it is loaded.
+     */
+    private static boolean isCurrent(ByteBuffer buffer, int slot) {
+        int offset = HEADER_SIZE + slot * RECORD_SIZE;
+        if (buffer == null || !isValid(buffer, offset)) {
+            return false;
+        }
+        return (buffer.get(offset + FLAGS) & USED) == 0
+                || SaveFiles.verify(getFileName(slot));
+    }
+
+    private static boolean isValid(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + CHECKSUM) == checksum(buffer, offset);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, CHECKSUM));
+        return (int) crc.getValue();
+    }
+
+    private static SlotSummary readRecord(ByteBuffer buffer, int offset) {
+        if ((buffer.get(offset + FLAGS) & USED) == 0) {
+            return null;
+        }
+
+        int speciesLength = Math.min(buffer.get(offset + SPECIES_LENGTH) & 0xFF,
+                MAX_SPECIES_BYTES);
+        byte[] species = new byte[speciesLength];
+        buffer.get(offset + SPECIES, species);
+
+        return new SlotSummary(new String(species, StandardCharsets.UTF_8),
+                buffer.get(offset + ROSTER_SIZE) & 0xFF,
+                buffer.getInt(offset + COINS),
+                buffer.getLong(offset + PLAY_TIME),
+                buffer.getLong(offset + SAVED_AT));
+    }
+
+    /**
+     * Reads the summary of a slot from its save, only needed when the index
+     * is new or a record was damaged
+     */
+    private SlotSummary rebuild(int slot, SaveWriter writer) {
+        String fileName = getFileName(slot);
+        Path path = Paths.get(fileName + SaveFiles.EXTENSION);
+
+        SlotSummary summary = null;
+        if (Files.exists(path) || Files.exists(
+                Paths.get(fileName + SaveFiles.LEGACY_EXTENSION))) {
+            Player player = writer.load(slot, result -> { });
+            if (player != null) {
+                summary = SlotSummary.of(player, getModifiedTime(path));
+            }
+        }
+
+        writeSummary(slot, summary);
+        return summary;
+    }
+
+    private static long getModifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Maps the index, creating it if it does not exist yet
+     *
+     * @return The index, null if it cannot be opened
+     */
+    private MappedByteBuffer getIndex() {
+        if (index != null) {
+            return index;
+        }
+
+        try (FileChannel channel = FileChannel.open(INDEX,
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            boolean fits = channel.size() == FILE_SIZE;
+            index = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+
+            // A new index or one with another layout starts empty, the
+            // records are rebuilt from the saves
+            if (!fits || index.getInt(0) != MAGIC
+                    || index.getInt(4) != VERSION
+                    || index.getInt(8) != SLOT_COUNT
+                    || index.getInt(12) != RECORD_SIZE) {
+                index.put(0, new byte[FILE_SIZE]);
+                index.putInt(0, MAGIC);
+                index.putInt(4, VERSION);
+                index.putInt(8, SLOT_COUNT);
+                index.putInt(12, RECORD_SIZE);
+                index.force();
+                if (channel.size() > FILE_SIZE) {
+                    channel.truncate(FILE_SIZE);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Cannot open the slot index: " + e.getMessage());
+            index = null;
+        }
+        return index;
+    }
+
+}
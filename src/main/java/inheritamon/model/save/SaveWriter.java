@@ -0,0 +1,201 @@
+package inheritamon.model.save;
+
+import inheritamon.model.player.Player;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * @author Jeremias
+ * Writes saves on a single background thread, so a slow disk never blocks
+ * the game. The player is encoded on the calling thread, which makes the
+ * save a consistent snapshot that later changes to the player do not touch.
+ * Saves are written in the order they were requested.
+ * <p>
+ * A full save starts a new journal, after that only the changes are
+ * appended to it until it is long enough to compact into a full save.
+ * The save and journal that a full save replaces are kept as a backup.
+ * The summary of the slot in the slot index is updated after every save.
+ */
+public final class SaveWriter {
+
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "SaveWriter");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // Guarded by this, saves are requested from several threads
+    private final HashMap<Integer, SaveJournal> journals = new HashMap<>();
+
+    /**
+     * Loads the save of a slot. A save that was converted from Java
+     * serialization or restored from a backup is written again in the
+     * background, in order with the other saves of the slot.
+     *
+     * @param slot   The save slot
+     * @param onDone Called on the writer thread when a save that was
+     *               written again is written or has failed
+     * @return The player, null if there is no save or it cannot be read
+     */
+    public Player load(int slot, Consumer<SaveResult> onDone) {
+        LoadedSave loaded = SaveFiles.load(SaveSlots.getFileName(slot));
+        if (loaded.outdated()) {
+            save(loaded.player(), slot, onDone);
+        }
+        return loaded.player();
+    }
+
+    /**
+     * Saves the whole player in the background and starts a new journal
+     *
+     * @param player The player to save
+     * @param slot   The save slot
+     * @param onDone Called on the writer thread when the save is written or
+     *               has failed
+     */
+    public synchronized void save(Player player, int slot,
+                                  Consumer<SaveResult> onDone) {
+        String fileName = SaveSlots.getFileName(slot);
+        Path path = Paths.get(fileName + SaveFiles.EXTENSION);
+        SaveJournal journal = getJournal(slot);
+        byte[] data;
+        try {
+            data = SaveCodec.encode(player);
+        } catch (IllegalArgumentException e) {
+            // The save on the disk is kept, it can still be read
+            fail(path, e, "Saved", onDone);
+            return;
+        }
+        SlotSummary summary = SlotSummary.of(player);
+        byte[] header = journal.reset(player, data);
+        int generation = journal.getGeneration();
+
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            Exception error = null;
+            int size = data.length;
+            try {
+                // The journal of the old save is ignored once this is written
+                SaveFiles.backup(fileName);
+                size = SaveFiles.write(path, data, SaveFiles.COMPRESSION_LEVEL);
+                SaveFiles.write(journal.getPath(), header);
+                SaveSlots.getInstance().writeSummary(slot, summary);
+            } catch (Exception e) {
+                error = e;
+                journal.markFailed(generation);
+            }
+            finish(new SaveResult(path, size,
+                    (System.nanoTime() - start) / 1e6, error), "Saved", onDone);
+        });
+    }
+
+    /**
+     * Saves what changed since the last save by appending it to the journal.
+     * Does a full save when there is none yet or the journal is long.
+     *
+     * @param player The player to save
+     * @param slot   The save slot
+     * @param onDone Called on the writer thread when the changes are
+     *               written or have failed, not called if nothing changed
+     */
+    public synchronized void saveChanges(Player player, int slot,
+                                         Consumer<SaveResult> onDone) {
+        SaveJournal journal = getJournal(slot);
+        if (!journal.canAppend()) {
+            save(player, slot, onDone);
+            return;
+        }
+
+        byte[] entry;
+        try {
+            entry = journal.recordChanges(player);
+        } catch (IllegalArgumentException e) {
+            // Some changes may be remembered already, the next save is full
+            journal.markFailed(journal.getGeneration());
+            fail(journal.getPath(), e, "Journaled", onDone);
+            return;
+        }
+        if (entry == null) {
+            return;
+        }
+        SlotSummary summary = SlotSummary.of(player);
+        int generation = journal.getGeneration();
+
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            Exception error = null;
+            if (journal.hasFailed(generation)) {
+                // The full save this entry builds on is not on the disk
+                error = new IOException("The last full save failed");
+            } else {
+                try {
+                    journal.append(entry);
+                    SaveSlots.getInstance().writeSummary(slot, summary);
+                } catch (Exception e) {
+                    error = e;
+                    journal.markFailed(generation);
+                }
+            }
+            finish(new SaveResult(journal.getPath(), entry.length,
+                    (System.nanoTime() - start) / 1e6, error), "Journaled",
+                    onDone);
+        });
+    }
+
+    private SaveJournal getJournal(int slot) {
+        return journals.computeIfAbsent(slot,
+                key -> new SaveJournal(SaveSlots.getFileName(key)));
+    }
+
+    private void fail(Path path, Exception error, String action,
+                      Consumer<SaveResult> onDone) {
+        executor.execute(() -> finish(new SaveResult(path, 0, 0, error),
+                action, onDone));
+    }
+
+    private static void finish(SaveResult result, String action,
+                               Consumer<SaveResult> onDone) {
+        if (result.isSuccess()) {
+            System.out.println(String.format(Locale.ROOT,
+                    "%s %s (%d bytes) in %.2f ms", action, result.path(),
+                    result.bytes(), result.millis()));
+        } else {
+            System.out.println("Could not save " + result.path() + ": "
+                    + result.error());
+        }
+        onDone.accept(result);
+    }
+
+    /**
+     * Waits until all saves that were requested are written, used before
+     * the game exits
+     *
+     * @param timeoutMillis How long to wait at most
+     * @return True if all saves were written in time
+     */
+    public boolean awaitPending(long timeoutMillis) {
+        Future<?> marker = executor.submit(() -> { });
+        try {
+            marker.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+}
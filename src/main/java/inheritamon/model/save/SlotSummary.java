@@ -0,0 +1,45 @@
+package inheritamon.model.save;
+
+import inheritamon.model.npcs.types.Pokemon;
+import inheritamon.model.player.Player;
+
+/**
+ * @author Jeremias
+ * What the continue screen shows of a save slot, read from the slot index
+ * so the save itself does not have to be loaded
+ *
+ * @param leadSpecies The species of the first pokemon, empty if there is none
+ * @param rosterSize  The number of pokemon
+ * @param coins       The coins of the player
+ * @param playTime    How long the game was played in milliseconds
+ * @param savedAt     When the slot was saved in milliseconds since 1970
+ */
+public record SlotSummary(String leadSpecies, int rosterSize, int coins,
+                          long playTime, long savedAt) {
+
+    /**
+     * Creates the summary of a player that is saved now
+     *
+     * @param player The player
+     * @return The summary
+     */
+    public static SlotSummary of(Player player) {
+        return of(player, System.currentTimeMillis());
+    }
+
+    /**
+     * Creates the summary of a player
+     *
+     * @param player  The player
+     * @param savedAt When the player was saved
+     * @return The summary
+     */
+    public static SlotSummary of(Player player, long savedAt) {
+        Pokemon[] roster = player.getRoster().getArray();
+        String lead = roster.length > 0 ? roster[0].getSpeciesName() : "";
+        return new SlotSummary(lead, roster.length,
+                player.getInventory().getCoins(), player.getPlayTime(),
+                savedAt);
+    }
+
+}
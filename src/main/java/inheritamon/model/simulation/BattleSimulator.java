@@ -0,0 +1,219 @@
+package inheritamon.model.simulation;
+
+import inheritamon.model.npcs.moves.NormalAbility;
+import inheritamon.model.npcs.types.Pokemon;
+
+import java.util.SplittableRandom;
+
+/**
+ * @author Jeremias
+ * Runs battles without any listeners, dialogue or waiting
+ * Follows the same rules as the battle handler so the results can be used
+ * to tune and evaluate the AI
+ */
+public final class BattleSimulator {
+
+    /**
+     * The outcome of a battle in which neither side won
+     */
+    public static final int DRAW = -1;
+
+    /**
+     * The maximum number of turns before a battle is declared a draw
+     * Prevents endless battles between pokemon that cannot hurt each other
+     */
+    public static final int MAX_TURNS = 200;
+
+    private BattleSimulator() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Simulates a battle from the current state of both pokemon
+     * The first pokemon moves first, just like the player does in a real battle
+     *
+     * @param first        The pokemon that moves first
+     * @param firstPolicy  The policy of the first pokemon
+     * @param second       The pokemon that moves second
+     * @param secondPolicy The policy of the second pokemon
+     * @param random       The random number generator to use
+     * @return 0 if the first pokemon won, 1 if the second won, DRAW otherwise
+     */
+    public static int simulate(SimulatedPokemon first,
+                               SimulationPolicy firstPolicy,
+                               SimulatedPokemon second,
+                               SimulationPolicy secondPolicy,
+                               SplittableRandom random) {
+        return simulate(first, firstPolicy, second, secondPolicy, random, 0);
+    }
+
+    /**
+     * Simulates a battle from the current state of both pokemon, starting at a
+     * given turn
+     *
+     * @param first        The pokemon that moves on even turns
+     * @param firstPolicy  The policy of the first pokemon
+     * @param second       The pokemon that moves on odd turns
+     * @param secondPolicy The policy of the second pokemon
+     * @param random       The random number generator to use
+     * @param startTurn    The turn to start at
+     * @return 0 if the first pokemon won, 1 if the second won, DRAW otherwise
+     */
+    public static int simulate(SimulatedPokemon first,
+                               SimulationPolicy firstPolicy,
+                               SimulatedPokemon second,
+                               SimulationPolicy secondPolicy,
+                               SplittableRandom random, int startTurn) {
+
+        for (int turn = startTurn; turn < MAX_TURNS; turn++) {
+
+            if (first.isFainted()) {
+                return 1;
+            }
+            if (second.isFainted()) {
+                return 0;
+            }
+
+            // Alternate between the two pokemon like the battle handler does
+            if (turn % 2 == 0) {
+                useMove(first, second,
+                        firstPolicy.chooseMove(first, second, random), random);
+            } else {
+                useMove(second, first,
+                        secondPolicy.chooseMove(second, first, random), random);
+            }
+
+        }
+
+        if (first.isFainted()) {
+            return 1;
+        }
+        if (second.isFainted()) {
+            return 0;
+        }
+        return DRAW;
+    }
+
+    /**
+     * Simulates a trainer battle between two teams from their current state
+     * Both trainers switch and send out replacements using the matchup scorer,
+     * switching takes up the turn like it does in the battle handler
+     *
+     * @param firstTeam    The team that moves first
+     * @param firstPolicy  The policy of the first team
+     * @param secondTeam   The team that moves second
+     * @param secondPolicy The policy of the second team
+     * @param random       The random number generator to use
+     * @return 0 if the first team won, 1 if the second won, DRAW otherwise
+     */
+    public static int simulate(SimulatedPokemon[] firstTeam,
+                               SimulationPolicy firstPolicy,
+                               SimulatedPokemon[] secondTeam,
+                               SimulationPolicy secondPolicy,
+                               SplittableRandom random) {
+
+        int maxTurns =
+                MAX_TURNS * Math.max(firstTeam.length, secondTeam.length);
+        int firstActive = -1;
+        int secondActive = -1;
+
+        // Send out the first pokemon that can still fight
+        for (int i = firstTeam.length - 1; i >= 0; i--) {
+            firstActive = firstTeam[i].isFainted() ? firstActive : i;
+        }
+        for (int i = secondTeam.length - 1; i >= 0; i--) {
+            secondActive = secondTeam[i].isFainted() ? secondActive : i;
+        }
+
+        for (int turn = 0; turn < maxTurns; turn++) {
+
+            if (firstActive < 0) {
+                return 1;
+            }
+            if (secondActive < 0) {
+                return 0;
+            }
+
+            SimulatedPokemon first = firstTeam[firstActive];
+            SimulatedPokemon second = secondTeam[secondActive];
+
+            if (turn % 2 == 0) {
+                int switchTo =
+                        MatchupScorer.chooseSwitch(firstTeam, firstActive, second);
+                if (switchTo >= 0) {
+                    firstActive = switchTo;
+                    continue;
+                }
+                useMove(first, second,
+                        firstPolicy.chooseMove(first, second, random), random);
+            } else {
+                int switchTo = MatchupScorer.chooseSwitch(secondTeam,
+                        secondActive, first);
+                if (switchTo >= 0) {
+                    secondActive = switchTo;
+                    continue;
+                }
+                useMove(second, first,
+                        secondPolicy.chooseMove(second, first, random), random);
+            }
+
+            // Replacing a fainted pokemon does not take up a turn
+            if (first.isFainted()) {
+                firstActive = MatchupScorer.chooseReplacement(firstTeam, second);
+            }
+            if (second.isFainted()) {
+                secondActive =
+                        MatchupScorer.chooseReplacement(secondTeam, first);
+            }
+        }
+
+        if (firstActive < 0) {
+            return 1;
+        }
+        if (secondActive < 0) {
+            return 0;
+        }
+        return DRAW;
+    }
+
+    /**
+     * Uses a move, mirrors NormalAbility.executeMove and Pokemon.takeDamage
+     *
+     * @param user      The pokemon using the move
+     * @param target    The pokemon being attacked
+     * @param moveIndex The index of the move to use
+     * @param random    The random number generator to use
+     * @return The damage dealt, the negative amount healed for healing moves,
+     * -1 if the move could not be used
+     */
+    public static int useMove(SimulatedPokemon user, SimulatedPokemon target,
+                              int moveIndex, SplittableRandom random) {
+
+        SimulatedMove move = user.moves[moveIndex];
+
+        // -1 is used to indicate that the move was not used
+        if (user.mp < move.getCost()) {
+            return -1;
+        }
+        user.mp -= move.getCost();
+
+        int damage = NormalAbility.calculateRawDamage(move.getType(),
+                move.getModifier(), user.atk, user.mAtk);
+
+        if (move.isHealing()) {
+            user.hp = Math.min(user.hp + damage, user.maxHP);
+            return -damage;
+        }
+
+        // Dodge in the same way as a real pokemon
+        if (random.nextInt(100) <
+                Pokemon.calculateDodgeChance(target.agi, user.acc)) {
+            damage = 0;
+        }
+
+        int damageTaken = Pokemon.calculateDamageTaken(damage, target.def);
+        target.hp = Math.max(target.hp - damageTaken, 0);
+        return damageTaken;
+    }
+
+}
@@ -0,0 +1,422 @@
+package inheritamon.model.simulation;
+
+import inheritamon.model.npcs.AIParameters;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author Jeremias
+ * A tuning harness that evolves AI parameters by running large numbers of
+ * simulated battles in parallel
+ * Every individual plays against the hand written AIs with every species
+ * matchup. The work is split per matchup so that all cores stay busy.
+ * Results only depend on the seed, not on the number of threads, and the
+ * population is checkpointed to disk after every generation.
+ */
+public final class EvolutionaryTuner {
+
+    /**
+     * The opponents that every individual is evaluated against
+     */
+    private static final AIParameters[] OPPONENTS =
+            {AIParameters.RANDOM, AIParameters.ATTRITION,
+                    AIParameters.RECKLESS};
+
+    /**
+     * The number of best individuals that are copied into the next generation
+     */
+    private static final int ELITES = 2;
+
+    /**
+     * The number of individuals competing in a selection tournament
+     */
+    private static final int TOURNAMENT_SIZE = 3;
+
+    private static final double MUTATION_CHANCE = 0.3;
+    private static final double MUTATION_STRENGTH = 0.1;
+
+    private final SimulationData data;
+    private final int populationSize;
+    private final int generations;
+    private final int battlesPerMatchup;
+    private final long seed;
+    private final Path checkpointFile;
+    private final int threads;
+
+    /**
+     * The generation of the checkpoint that was loaded last
+     */
+    private int checkpointGeneration;
+
+    /**
+     * Constructor for the EvolutionaryTuner class
+     *
+     * @param data              The simulation data to use
+     * @param populationSize    The number of individuals per generation
+     * @param generations       The number of generations to run
+     * @param battlesPerMatchup The battles per species matchup and opponent
+     * @param seed              The seed that determines all results
+     * @param checkpointFile    The file to save progress to
+     * @param threads           The number of threads to use
+     */
+    public EvolutionaryTuner(SimulationData data, int populationSize,
+                             int generations, int battlesPerMatchup,
+                             long seed, Path checkpointFile, int threads) {
+        this.data = data;
+        this.populationSize = Math.max(populationSize, ELITES + 1);
+        this.generations = generations;
+        this.battlesPerMatchup = battlesPerMatchup;
+        this.seed = seed;
+        this.checkpointFile = checkpointFile;
+        this.threads = threads;
+    }
+
+    /**
+     * Runs the tuner from the command line
+     * Options: --population, --generations, --battles, --seed, --checkpoint
+     * and --threads
+     *
+     * @param args The command line arguments
+     */
+    public static void main(String[] args) {
+
+        int populationSize = 32;
+        int generations = 50;
+        int battlesPerMatchup = 20;
+        long seed = 2023;
+        String checkpoint = "tuning-checkpoint.csv";
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--population" -> populationSize =
+                        Integer.parseInt(args[i + 1]);
+                case "--generations" -> generations =
+                        Integer.parseInt(args[i + 1]);
+                case "--battles" -> battlesPerMatchup =
+                        Integer.parseInt(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--checkpoint" -> checkpoint = args[i + 1];
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException(
+                        "Unknown option: " + args[i]);
+            }
+        }
+
+        EvolutionaryTuner tuner = new EvolutionaryTuner(new SimulationData(),
+                populationSize, generations, battlesPerMatchup, seed,
+                Paths.get(checkpoint), threads);
+        AIParameters best = tuner.run();
+
+        // Print the result in the format of ai_parameters.csv
+        System.out.println("Tuned," + best);
+    }
+
+    /**
+     * Runs the evolution, resuming from the checkpoint if there is one
+     *
+     * @return The best parameters of the last generation
+     */
+    public AIParameters run() {
+
+        AIParameters[] population = loadCheckpoint();
+        int firstGeneration = 0;
+
+        if (population == null) {
+            population = createInitialPopulation();
+        } else {
+            firstGeneration = checkpointGeneration + 1;
+            System.out.println("Resuming from generation " + firstGeneration);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AIParameters best = population[0];
+        long startTime = System.nanoTime();
+
+        try {
+            for (int generation = firstGeneration; generation < generations;
+                 generation++) {
+
+                double[] fitness = evaluate(executor, population, generation);
+                Integer[] ranking = rank(fitness);
+                best = population[ranking[0]];
+
+                // Report the progress
+                int completed = generation - firstGeneration + 1;
+                double minutes = (System.nanoTime() - startTime) / 60e9;
+                System.out.printf(
+                        "Generation %d/%d: best fitness %.4f (%s), %.1f generations/minute%n",
+                        generation + 1, generations, fitness[ranking[0]], best,
+                        completed / minutes);
+
+                population = breed(population, ranking, generation);
+                saveCheckpoint(population, generation);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Tuning was interrupted");
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return best;
+    }
+
+    private AIParameters[] createInitialPopulation() {
+
+        SplittableRandom random = generationRandom(-1);
+        AIParameters[] population = new AIParameters[populationSize];
+
+        // Start from the hand written AIs so the result can only improve on them
+        for (int i = 0; i < populationSize; i++) {
+            if (i < OPPONENTS.length) {
+                population[i] = OPPONENTS[i];
+            } else {
+                population[i] = new AIParameters(random.nextDouble(),
+                        random.nextDouble(), random.nextDouble());
+            }
+        }
+
+        return population;
+    }
+
+    private double[] evaluate(ExecutorService executor,
+                              AIParameters[] population, int generation)
+            throws InterruptedException, ExecutionException {
+
+        int speciesCount = data.getSpeciesCount();
+        int matchups = speciesCount * speciesCount;
+
+        // One task per individual and species matchup keeps every core busy
+        List<Callable<Double>> tasks = new ArrayList<>();
+        for (int i = 0; i < population.length; i++) {
+            for (int matchup = 0; matchup < matchups; matchup++) {
+                AIParameters individual = population[i];
+                int ownSpecies = matchup / speciesCount;
+                int enemySpecies = matchup % speciesCount;
+                long taskSeed = taskSeed(generation, i, matchup);
+                tasks.add(() -> playMatchup(individual, ownSpecies,
+                        enemySpecies, taskSeed));
+            }
+        }
+
+        List<Future<Double>> results = executor.invokeAll(tasks);
+
+        // Sum the scores of the tasks in a fixed order so that results do not
+        // depend on scheduling
+        double battles = (double) matchups * OPPONENTS.length *
+                battlesPerMatchup;
+        double[] fitness = new double[population.length];
+        for (int i = 0; i < population.length; i++) {
+            double score = 0;
+            for (int matchup = 0; matchup < matchups; matchup++) {
+                score += results.get(i * matchups + matchup).get();
+            }
+            fitness[i] = score / battles;
+        }
+
+        return fitness;
+    }
+
+    private double playMatchup(AIParameters individual, int ownSpecies,
+                               int enemySpecies, long taskSeed) {
+
+        SplittableRandom random = new SplittableRandom(taskSeed);
+        SimulatedPokemon own = data.createCombatant(ownSpecies);
+        SimulatedPokemon enemy = data.createCombatant(enemySpecies);
+        double score = 0;
+
+        for (AIParameters opponent : OPPONENTS) {
+            for (int battle = 0; battle < battlesPerMatchup; battle++) {
+                own.revitalize();
+                enemy.revitalize();
+
+                // Alternate who moves first to keep the evaluation fair
+                int outcome;
+                if (battle % 2 == 0) {
+                    outcome = BattleSimulator.simulate(own, individual, enemy,
+                            opponent, random);
+                } else {
+                    outcome = BattleSimulator.simulate(enemy, opponent, own,
+                            individual, random);
+                    outcome = outcome == BattleSimulator.DRAW ? outcome :
+                            1 - outcome;
+                }
+
+                if (outcome == 0) {
+                    score += 1;
+                } else if (outcome == BattleSimulator.DRAW) {
+                    score += 0.5;
+                }
+            }
+        }
+
+        return score;
+    }
+
+    private Integer[] rank(double[] fitness) {
+        Integer[] ranking = new Integer[fitness.length];
+        for (int i = 0; i < ranking.length; i++) {
+            ranking[i] = i;
+        }
+
+        // A stable sort keeps ties in population order
+        Arrays.sort(ranking, (a, b) -> Double.compare(fitness[b], fitness[a]));
+        return ranking;
+    }
+
+    private AIParameters[] breed(AIParameters[] population, Integer[] ranking,
+                                 int generation) {
+
+        SplittableRandom random = generationRandom(generation);
+        AIParameters[] children = new AIParameters[population.length];
+
+        // Keep the best individuals unchanged
+        for (int i = 0; i < ELITES; i++) {
+            children[i] = population[ranking[i]];
+        }
+
+        for (int i = ELITES; i < children.length; i++) {
+            AIParameters first = population[select(ranking, random)];
+            AIParameters second = population[select(ranking, random)];
+            children[i] = new AIParameters(
+                    mutate(blend(first.getHealThreshold(),
+                            second.getHealThreshold(), random), random),
+                    mutate(blend(first.getGreed(), second.getGreed(), random),
+                            random),
+                    mutate(blend(first.getManaReserve(),
+                            second.getManaReserve(), random), random));
+        }
+
+        return children;
+    }
+
+    /**
+     * Tournament selection, the lowest rank among a few random individuals wins
+     */
+    private int select(Integer[] ranking, SplittableRandom random) {
+        int bestRank = ranking.length;
+        for (int i = 0; i < TOURNAMENT_SIZE; i++) {
+            bestRank = Math.min(bestRank, random.nextInt(ranking.length));
+        }
+        return ranking[bestRank];
+    }
+
+    /**
+     * Blend crossover, the child may lie slightly outside of its parents
+     */
+    private double blend(double first, double second,
+                         SplittableRandom random) {
+        double weight = random.nextDouble(-0.25, 1.25);
+        return first + weight * (second - first);
+    }
+
+    private double mutate(double value, SplittableRandom random) {
+        if (random.nextDouble() < MUTATION_CHANCE) {
+            value += random.nextGaussian() * MUTATION_STRENGTH;
+        }
+        return value;
+    }
+
+    private SplittableRandom generationRandom(int generation) {
+        return new SplittableRandom(taskSeed(generation, -1, -1));
+    }
+
+    private long taskSeed(int generation, int individual, int matchup) {
+        long hash = seed;
+        hash = hash * 0x9E3779B97F4A7C15L + generation;
+        hash = hash * 0x9E3779B97F4A7C15L + individual;
+        hash = hash * 0x9E3779B97F4A7C15L + matchup;
+        return hash;
+    }
+
+    /**
+     * Loads the population from the checkpoint file
+     *
+     * @return The population, or null if there is no usable checkpoint
+     */
+    private AIParameters[] loadCheckpoint() {
+
+        if (!Files.exists(checkpointFile)) {
+            return null;
+        }
+
+        try {
+            List<String> lines =
+                    Files.readAllLines(checkpointFile, StandardCharsets.UTF_8);
+            ArrayList<AIParameters> population = new ArrayList<>();
+
+            // Skip the header
+            for (String line : lines.subList(1, lines.size())) {
+                String[] values = line.split(",");
+                if (Long.parseLong(values[1]) != seed) {
+                    System.out.println(
+                            "Checkpoint was made with a different seed, starting over");
+                    return null;
+                }
+                checkpointGeneration = Integer.parseInt(values[0]);
+                population.add(new AIParameters(Double.parseDouble(values[2]),
+                        Double.parseDouble(values[3]),
+                        Double.parseDouble(values[4])));
+            }
+
+            if (population.size() != populationSize) {
+                System.out.println(
+                        "Checkpoint has a different population size, starting over");
+                return null;
+            }
+
+            return population.toArray(new AIParameters[0]);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Checkpoint could not be read, starting over");
+            return null;
+        }
+    }
+
+    /**
+     * Saves the population to a temporary file and moves it over the
+     * checkpoint, so a crash never leaves a half written checkpoint behind
+     */
+    private void saveCheckpoint(AIParameters[] population, int generation) {
+
+        ArrayList<String> lines = new ArrayList<>();
+        lines.add("Generation,Seed,HealThreshold,Greed,ManaReserve");
+        // Written at full precision, a rounded value would make a resumed
+        // run diverge from one that was not interrupted
+        for (AIParameters individual : population) {
+            lines.add(generation + "," + seed + ","
+                    + Double.toString(individual.getHealThreshold()) + ","
+                    + Double.toString(individual.getGreed()) + ","
+                    + Double.toString(individual.getManaReserve()));
+        }
+
+        try {
+            Path directory = checkpointFile.toAbsolutePath().getParent();
+            Path temporaryFile = Files.createTempFile(directory,
+                    checkpointFile.getFileName().toString(), ".tmp");
+            Files.write(temporaryFile, lines, StandardCharsets.UTF_8);
+            Files.move(temporaryFile, checkpointFile,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
@@ -0,0 +1,269 @@
+package inheritamon.model.simulation;
+
+import inheritamon.model.npcs.Roster;
+import inheritamon.model.npcs.moves.Ability;
+import inheritamon.model.npcs.moves.NormalAbility;
+import inheritamon.model.npcs.types.Pokemon;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * @author Jeremias
+ * Cheap scoring of matchups between two pokemon, used by trainers to
+ * decide when to switch
+ * A matchup is scored by how many turns each side needs to make the other
+ * faint with its best affordable attack, ignoring dodging. Nothing is
+ * allocated, so switching costs almost nothing in simulated battles.
+ */
+public final class MatchupScorer {
+
+    /**
+     * The number of turns used when a pokemon cannot damage the other at all
+     */
+    public static final int NO_DAMAGE_TURNS = 1000;
+
+    /**
+     * How much better a benched pokemon has to be before a trainer switches,
+     * prevents switching back and forth
+     */
+    public static final int SWITCH_MARGIN = 2;
+
+    private MatchupScorer() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Scores a matchup, positive scores favour the own pokemon
+     *
+     * @param ownHP       The HP of the own pokemon
+     * @param ownDamage   The damage per turn of the own pokemon
+     * @param enemyHP     The HP of the enemy pokemon
+     * @param enemyDamage The damage per turn of the enemy pokemon
+     * @return The number of turns the own pokemon outlasts the enemy
+     */
+    public static int score(int ownHP, int ownDamage, int enemyHP,
+                            int enemyDamage) {
+        return turnsToFaint(ownHP, enemyDamage) -
+                turnsToFaint(enemyHP, ownDamage);
+    }
+
+    /**
+     * Calculates the number of turns until a pokemon faints
+     *
+     * @param hp            The HP of the pokemon
+     * @param damagePerTurn The damage it takes per turn
+     * @return The number of turns, NO_DAMAGE_TURNS if it takes no damage
+     */
+    public static int turnsToFaint(int hp, int damagePerTurn) {
+        if (damagePerTurn <= 0) {
+            return NO_DAMAGE_TURNS;
+        }
+        return Math.min((hp + damagePerTurn - 1) / damagePerTurn,
+                NO_DAMAGE_TURNS);
+    }
+
+    /**
+     * Scores the matchup between two simulated pokemon
+     *
+     * @param own   The own pokemon
+     * @param enemy The enemy pokemon
+     * @return The score of the matchup, positive scores favour the own pokemon
+     */
+    public static int score(SimulatedPokemon own, SimulatedPokemon enemy) {
+        return score(own.hp, bestDamage(own, enemy), enemy.hp,
+                bestDamage(enemy, own));
+    }
+
+    /**
+     * Calculates the highest damage an attacker can deal this turn
+     *
+     * @param attacker The attacking pokemon
+     * @param defender The defending pokemon
+     * @return The highest damage after defense
+     */
+    public static int bestDamage(SimulatedPokemon attacker,
+                                 SimulatedPokemon defender) {
+        int best = 0;
+        for (SimulatedMove move : attacker.moves) {
+            if (!move.isHealing() && move.getCost() <= attacker.mp) {
+                int damage = Pokemon.calculateDamageTaken(
+                        NormalAbility.calculateRawDamage(move.getType(),
+                                move.getModifier(), attacker.atk,
+                                attacker.mAtk), defender.def);
+                best = Math.max(best, damage);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Decides whether a trainer should switch its active pokemon
+     *
+     * @param team   The team of the trainer
+     * @param active The index of the active pokemon
+     * @param enemy  The enemy pokemon
+     * @return The index of the pokemon to switch to, -1 to stay in
+     */
+    public static int chooseSwitch(SimulatedPokemon[] team, int active,
+                                   SimulatedPokemon enemy) {
+
+        int currentScore = score(team[active], enemy);
+
+        // Never switch out of a matchup that is being won
+        if (currentScore >= 0) {
+            return -1;
+        }
+
+        int best = -1;
+        int bestScore = currentScore + SWITCH_MARGIN - 1;
+        for (int i = 0; i < team.length; i++) {
+            if (i != active && !team[i].isFainted()) {
+                int candidateScore = score(team[i], enemy);
+                if (candidateScore > bestScore) {
+                    bestScore = candidateScore;
+                    best = i;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Chooses the pokemon to send out after the active one fainted
+     *
+     * @param team  The team of the trainer
+     * @param enemy The enemy pokemon
+     * @return The index of the pokemon with the best matchup, -1 if all fainted
+     */
+    public static int chooseReplacement(SimulatedPokemon[] team,
+                                        SimulatedPokemon enemy) {
+        int best = -1;
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < team.length; i++) {
+            if (!team[i].isFainted()) {
+                int candidateScore = score(team[i], enemy);
+                if (candidateScore > bestScore) {
+                    bestScore = candidateScore;
+                    best = i;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Scores the matchup between two pokemon in a real battle
+     *
+     * @param own   The own pokemon
+     * @param enemy The enemy pokemon
+     * @param moves All moves of the game as abilities
+     * @return The score of the matchup, positive scores favour the own pokemon
+     */
+    public static int score(Pokemon own, Pokemon enemy,
+                            Map<String, ? extends Ability> moves) {
+        return score(own.getHP(), bestDamage(own, enemy, moves),
+                enemy.getHP(), bestDamage(enemy, own, moves));
+    }
+
+    /**
+     * Calculates the highest damage an attacker can deal this turn
+     *
+     * @param attacker The attacking pokemon
+     * @param defender The defending pokemon
+     * @param moves    All moves of the game as abilities
+     * @return The highest damage after defense
+     */
+    public static int bestDamage(Pokemon attacker, Pokemon defender,
+                                 Map<String, ? extends Ability> moves) {
+
+        ArrayList<String> moveNames = attacker.getMoves();
+        int mp = attacker.getMP();
+        int atk = attacker.getNumericalStat("Atk");
+        int mAtk = attacker.getNumericalStat("M.Atk");
+        int def = defender.getNumericalStat("Def");
+        int best = 0;
+
+        // Index based loop to avoid creating an iterator
+        for (int i = 0; i < moveNames.size(); i++) {
+            Ability move = moves.get(moveNames.get(i));
+            String type = move.getStringStat("Type");
+            if (!type.equals("Healing") &&
+                    move.getNumericalStat("Cost") <= mp) {
+                int damage = Pokemon.calculateDamageTaken(
+                        NormalAbility.calculateRawDamage(type,
+                                move.getNumericalStat("Modifier"), atk, mAtk),
+                        def);
+                best = Math.max(best, damage);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Decides whether a trainer should switch one of its active pokemon
+     *
+     * @param roster  The roster of the trainer
+     * @param fielded The pokemon of the trainer that are in battle
+     * @param slot    The slot of the pokemon that may switch out
+     * @param enemy   The enemy pokemon it is facing
+     * @param moves   All moves of the game as abilities
+     * @return The index of the pokemon to switch to, -1 to stay in
+     */
+    public static int chooseSwitch(Roster roster, Pokemon[] fielded, int slot,
+                                   Pokemon enemy,
+                                   Map<String, ? extends Ability> moves) {
+
+        int currentScore = score(fielded[slot], enemy, moves);
+
+        // Never switch out of a matchup that is being won
+        if (currentScore >= 0) {
+            return -1;
+        }
+
+        int best = -1;
+        int bestScore = currentScore + SWITCH_MARGIN - 1;
+        for (int i = 0; i < roster.getSize(); i++) {
+            Pokemon candidate = roster.getPokemon(i);
+            if (!candidate.isFainted() &&
+                    !Roster.isFielded(candidate, fielded)) {
+                int candidateScore = score(candidate, enemy, moves);
+                if (candidateScore > bestScore) {
+                    bestScore = candidateScore;
+                    best = i;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Chooses the pokemon to send out after an active one fainted
+     *
+     * @param roster  The roster of the trainer
+     * @param fielded The pokemon of the trainer that are in battle
+     * @param enemy   The enemy pokemon it will face
+     * @param moves   All moves of the game as abilities
+     * @return The index of the pokemon with the best matchup, -1 if there is
+     * none left
+     */
+    public static int chooseReplacement(Roster roster, Pokemon[] fielded,
+                                        Pokemon enemy,
+                                        Map<String, ? extends Ability> moves) {
+        int best = -1;
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < roster.getSize(); i++) {
+            Pokemon candidate = roster.getPokemon(i);
+            if (!candidate.isFainted() &&
+                    !Roster.isFielded(candidate, fielded)) {
+                int candidateScore = score(candidate, enemy, moves);
+                if (candidateScore > bestScore) {
+                    bestScore = candidateScore;
+                    best = i;
+                }
+            }
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,119 @@
+package inheritamon.model.simulation;
+
+import inheritamon.model.npcs.AIParameters;
+import inheritamon.model.npcs.types.Pokemon;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.SplittableRandom;
+
+/**
+ * @author Jeremias
+ * Estimates the chance that the player's active pokemon wins the battle for
+ * each of its moves by simulating the rest of the battle many times
+ * The state of both pokemon is copied on creation, so the prediction can
+ * run on another thread while the battle waits for the player
+ */
+public final class OutcomePredictor {
+
+    /**
+     * How the player is assumed to play after the chosen move, attack with
+     * the strongest move and heal when in danger
+     */
+    public static final AIParameters PLAYER_POLICY =
+            new AIParameters(0.25, 1, 0);
+
+    /**
+     * The number of battles simulated per move between two updates
+     */
+    private static final int BATCH_SIZE = 250;
+
+    /**
+     * The number of battles per move after which the estimate is final
+     */
+    private static final int MAX_SAMPLES = 10000;
+
+    private final SimulatedPokemon player;
+    private final SimulatedPokemon enemy;
+    private final SimulationPolicy enemyPolicy;
+
+    /**
+     * Constructor for the OutcomePredictor class
+     *
+     * @param data          The simulation data to get the moves from
+     * @param playerPokemon The active pokemon of the player
+     * @param enemyPokemon  The enemy pokemon
+     */
+    public OutcomePredictor(SimulationData data, Pokemon playerPokemon,
+                            Pokemon enemyPokemon) {
+        player = new SimulatedPokemon(playerPokemon,
+                data.getMoves(playerPokemon.getMoves()));
+        enemy = new SimulatedPokemon(enemyPokemon,
+                data.getMoves(enemyPokemon.getMoves()));
+        enemyPolicy = enemyPokemon.getAIParameters();
+    }
+
+    /**
+     * Gets the number of moves that are being predicted
+     *
+     * @return The number of moves of the player's pokemon
+     */
+    public int getMoveCount() {
+        return player.getMoveCount();
+    }
+
+    /**
+     * Runs the prediction until it is final or the thread is interrupted
+     * After every batch the listener receives the current win chances as a
+     * double array, one value between 0 and 1 per move
+     *
+     * @param listener The listener to notify with the current estimate
+     */
+    public void predict(PropertyChangeListener listener) {
+
+        int moveCount = player.getMoveCount();
+        double[] scores = new double[moveCount];
+        SplittableRandom random = new SplittableRandom();
+
+        // Working copies that are reset before every simulated battle
+        SimulatedPokemon simulatedPlayer = new SimulatedPokemon(player);
+        SimulatedPokemon simulatedEnemy = new SimulatedPokemon(enemy);
+
+        for (int samples = 0; samples < MAX_SAMPLES; samples += BATCH_SIZE) {
+
+            for (int move = 0; move < moveCount; move++) {
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    simulatedPlayer.copyStateFrom(player);
+                    simulatedEnemy.copyStateFrom(enemy);
+
+                    // Use the move that is being predicted, then let both
+                    // sides play out the rest of the battle
+                    BattleSimulator.useMove(simulatedPlayer, simulatedEnemy,
+                            move, random);
+                    int outcome = BattleSimulator.simulate(simulatedPlayer,
+                            PLAYER_POLICY, simulatedEnemy, enemyPolicy,
+                            random, 1);
+
+                    if (outcome == 0) {
+                        scores[move] += 1;
+                    } else if (outcome == BattleSimulator.DRAW) {
+                        scores[move] += 0.5;
+                    }
+                }
+            }
+
+            // Stop as soon as the prediction is no longer needed
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+
+            double[] winChances = new double[moveCount];
+            for (int move = 0; move < moveCount; move++) {
+                winChances[move] = scores[move] / (samples + BATCH_SIZE);
+            }
+            listener.propertyChange(new PropertyChangeEvent(this,
+                    "prediction", null, winChances));
+        }
+    }
+
+}
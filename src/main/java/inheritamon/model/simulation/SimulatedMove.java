@@ -0,0 +1,77 @@
+package inheritamon.model.simulation;
+
+import inheritamon.model.data.MoveDef;
+
+/**
+ * @author Jeremias
+ * A compact, immutable version of a move used by the battle simulator
+ * The values are copied into fields once so simulated battles never touch
+ * the string keyed stat maps
+ */
+public final class SimulatedMove {
+
+    private final String name;
+    private final String type;
+    private final int modifier;
+    private final int cost;
+    private final boolean healing;
+
+    /**
+     * Constructor for the SimulatedMove class
+     *
+     * @param move The data of the move
+     */
+    public SimulatedMove(MoveDef move) {
+        name = move.name();
+        type = move.getType();
+        modifier = move.getModifier();
+        cost = move.getCost();
+        healing = move.isHealing();
+    }
+
+    /**
+     * Gets the name of the move
+     *
+     * @return The name of the move
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the type of the move, like Physical, Magical or Healing
+     *
+     * @return The type of the move
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the modifier of the move
+     *
+     * @return The modifier of the move
+     */
+    public int getModifier() {
+        return modifier;
+    }
+
+    /**
+     * Gets the MP cost of the move
+     *
+     * @return The MP cost of the move
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Checks if the move heals the user instead of dealing damage
+     *
+     * @return Whether the move is a healing move
+     */
+    public boolean isHealing() {
+        return healing;
+    }
+
+}
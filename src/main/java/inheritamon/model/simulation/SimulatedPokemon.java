@@ -0,0 +1,203 @@
+package inheritamon.model.simulation;
+
+import inheritamon.model.data.Species;
+import inheritamon.model.npcs.types.Pokemon;
+
+import java.util.HashMap;
+
+/**
+ * @author Jeremias
+ * A lightweight pokemon used by the battle simulator
+ * Stats are stored as plain fields so that simulated battles do not
+ * allocate or print anything, which allows millions of them to be run
+ */
+public final class SimulatedPokemon {
+
+    /**
+     * The name of the species, shared with the template
+     */
+    final String species;
+
+    final int maxHP;
+    final int maxMP;
+    final int atk;
+    final int def;
+    final int agi;
+    final int acc;
+    final int mAtk;
+
+    /**
+     * The moves of the pokemon, shared with the template
+     */
+    final SimulatedMove[] moves;
+
+    int hp;
+    int mp;
+
+    /**
+     * Constructor for the SimulatedPokemon class
+     *
+     * @param species The species of the pokemon
+     * @param moves   The moves of the pokemon
+     */
+    public SimulatedPokemon(Species species, SimulatedMove[] moves) {
+        this(species.name(), species.getNumericalStat("MaxHP"),
+                species.getNumericalStat("MaxMP"),
+                species.getNumericalStat("Atk"),
+                species.getNumericalStat("Def"),
+                species.getNumericalStat("Agi"),
+                species.getNumericalStat("Acc"),
+                species.getNumericalStat("M.Atk"), moves);
+    }
+
+    /**
+     * Creates a snapshot of the current state of a pokemon
+     *
+     * @param pokemon The pokemon to take a snapshot of
+     * @param moves   The moves of the pokemon
+     */
+    public SimulatedPokemon(Pokemon pokemon, SimulatedMove[] moves) {
+        this(pokemon.getName(), pokemon.getAllNumericalStats(), moves);
+    }
+
+    /**
+     * Creates a snapshot from the numerical stats of a pokemon, including its
+     * current HP and MP
+     *
+     * @param species        The species of the pokemon
+     * @param numericalStats The numerical stats of the pokemon
+     * @param moves          The moves of the pokemon
+     */
+    public SimulatedPokemon(String species,
+                            HashMap<String, Integer> numericalStats,
+                            SimulatedMove[] moves) {
+        this(species, numericalStats.get("MaxHP"),
+                numericalStats.get("MaxMP"), numericalStats.get("Atk"),
+                numericalStats.get("Def"), numericalStats.get("Agi"),
+                numericalStats.get("Acc"), numericalStats.get("M.Atk"),
+                moves);
+        hp = numericalStats.get("HP");
+        mp = numericalStats.get("MP");
+    }
+
+    /**
+     * Creates a copy of another simulated pokemon, including its current HP and MP
+     *
+     * @param other The pokemon to copy
+     */
+    public SimulatedPokemon(SimulatedPokemon other) {
+        this(other.species, other.maxHP, other.maxMP, other.atk, other.def,
+                other.agi, other.acc, other.mAtk, other.moves);
+        hp = other.hp;
+        mp = other.mp;
+    }
+
+    private SimulatedPokemon(String species, int maxHP, int maxMP, int atk,
+                             int def, int agi, int acc, int mAtk,
+                             SimulatedMove[] moves) {
+        this.species = species;
+        this.maxHP = maxHP;
+        this.maxMP = maxMP;
+        this.atk = atk;
+        this.def = def;
+        this.agi = agi;
+        this.acc = acc;
+        this.mAtk = mAtk;
+        this.moves = moves;
+        hp = maxHP;
+        mp = maxMP;
+    }
+
+    /**
+     * Restores HP and MP to the maximum so the object can be reused for
+     * another battle
+     */
+    public void revitalize() {
+        hp = maxHP;
+        mp = maxMP;
+    }
+
+    /**
+     * Copies the current HP and MP of another pokemon of the same species
+     *
+     * @param other The pokemon to copy the state from
+     */
+    public void copyStateFrom(SimulatedPokemon other) {
+        hp = other.hp;
+        mp = other.mp;
+    }
+
+    /**
+     * Gets the species of the pokemon
+     *
+     * @return The species of the pokemon
+     */
+    public String getSpecies() {
+        return species;
+    }
+
+    /**
+     * Gets the current HP
+     *
+     * @return The current HP
+     */
+    public int getHP() {
+        return hp;
+    }
+
+    /**
+     * Gets the maximum HP
+     *
+     * @return The maximum HP
+     */
+    public int getMaxHP() {
+        return maxHP;
+    }
+
+    /**
+     * Gets the current MP
+     *
+     * @return The current MP
+     */
+    public int getMP() {
+        return mp;
+    }
+
+    /**
+     * Gets the maximum MP
+     *
+     * @return The maximum MP
+     */
+    public int getMaxMP() {
+        return maxMP;
+    }
+
+    /**
+     * Gets the number of moves the pokemon knows
+     *
+     * @return The number of moves
+     */
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    /**
+     * Gets a move of the pokemon
+     *
+     * @param index The index of the move
+     * @return The move at the index
+     */
+    public SimulatedMove getMove(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Checks if the pokemon has fainted
+     *
+     * @return Whether the pokemon has fainted
+     */
+    public boolean isFainted() {
+        return hp <= 0;
+    }
+
+}
@@ -0,0 +1,88 @@
+package inheritamon.model.simulation;
+
+import inheritamon.model.data.DataHandler;
+import inheritamon.model.data.MoveDef;
+import inheritamon.model.data.Species;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * @author Jeremias
+ * The species and moves of the game converted once into their simulated
+ * form
+ * Templates are never modified, combatants are created as copies of them
+ */
+public final class SimulationData {
+
+    private final HashMap<String, SimulatedMove> moves = new HashMap<>();
+    private final SimulatedPokemon[] species;
+
+    /**
+     * Constructor for the SimulationData class, reads all data from the data
+     * handler
+     */
+    public SimulationData() {
+
+        DataHandler dataHandler = DataHandler.getInstance();
+
+        for (MoveDef move : dataHandler.getMoveRegistry().getAll()) {
+            moves.put(move.name(), new SimulatedMove(move));
+        }
+
+        List<Species> allSpecies = dataHandler.getSpeciesRegistry().getAll();
+        species = new SimulatedPokemon[allSpecies.size()];
+        for (int i = 0; i < species.length; i++) {
+            Species pokemonSpecies = allSpecies.get(i);
+            species[i] = new SimulatedPokemon(pokemonSpecies,
+                    getMoves(pokemonSpecies.moveSet()));
+        }
+
+    }
+
+    /**
+     * Converts a list of move names into simulated moves
+     *
+     * @param moveNames The names of the moves
+     * @return The simulated moves in the same order
+     */
+    public SimulatedMove[] getMoves(List<String> moveNames) {
+        SimulatedMove[] result = new SimulatedMove[moveNames.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = moves.get(moveNames.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of species in the game
+     *
+     * @return The number of species
+     */
+    public int getSpeciesCount() {
+        return species.length;
+    }
+
+    /**
+     * Gets the template of a species, must not be used in a battle directly
+     *
+     * @param index The index of the species
+     * @return The template of the species
+     */
+    public SimulatedPokemon getSpecies(int index) {
+        return species[index];
+    }
+
+    /**
+     * Creates a new combatant of a species at full HP and MP
+     *
+     * @param index The index of the species
+     * @return A new combatant
+     */
+    public SimulatedPokemon createCombatant(int index) {
+        SimulatedPokemon combatant = new SimulatedPokemon(species[index]);
+        combatant.revitalize();
+        return combatant;
+    }
+
+}
@@ -0,0 +1,24 @@
+package inheritamon.model.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * @author Jeremias
+ * Interface for the decision making of a pokemon in a simulated battle
+ * Implementations must not allocate, since they are called on every
+ * simulated turn
+ */
+public interface SimulationPolicy {
+
+    /**
+     * Chooses the move to use this turn
+     *
+     * @param self   The pokemon that is choosing a move
+     * @param target The pokemon that is being fought
+     * @param random The random number generator of the simulation
+     * @return The index of the move to use
+     */
+    int chooseMove(SimulatedPokemon self, SimulatedPokemon target,
+                   SplittableRandom random);
+
+}
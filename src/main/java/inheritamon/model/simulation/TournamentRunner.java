@@ -0,0 +1,604 @@
+package inheritamon.model.simulation;
+
+import inheritamon.model.data.DataHandler;
+import inheritamon.model.npcs.AIParameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * @author Jeremias
+ * Plays tournaments between thousands of generated trainers to check the
+ * balance of the game
+ * Every trainer gets a random roster from monster_stats.csv and one of the
+ * AIs. A Swiss tournament is played first, its standings seed a single
+ * elimination bracket. The matches of a round run in parallel on a work
+ * stealing pool, the next round only starts once all of them are done.
+ * Results are applied in a fixed order, so they only depend on the seed.
+ */
+public final class TournamentRunner {
+
+    /**
+     * The names of the AIs, in the same order as the policies
+     */
+    private static final String[] AI_NAMES =
+            {"random", "attrition", "reckless", "tuned"};
+
+    /**
+     * The stages of the tournament, every stage has its own match seeds
+     */
+    private static final int SWISS = 0;
+    private static final int ELIMINATION = 1;
+
+    private static final double INITIAL_RATING = 1500;
+    private static final double K_FACTOR = 16;
+
+    private final SimulationData data;
+    private final AIParameters[] policies;
+    private final int gamesPerMatch;
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    private final Entrant[] entrants;
+    private final double[] speciesRatings;
+    private final double[] aiRatings;
+
+    private long gamesPlayed;
+    private long matchesPlayed;
+
+    /**
+     * A trainer taking part in the tournament
+     */
+    private static final class Entrant {
+        private final int id;
+        private final int[] species;
+        private final int ai;
+        private final HashSet<Integer> opponents = new HashSet<>();
+        private double points;
+        private double rating = INITIAL_RATING;
+        private boolean hadBye;
+        private int wins;
+        private int draws;
+        private int losses;
+
+        private Entrant(int id, int[] species, int ai) {
+            this.id = id;
+            this.species = species;
+            this.ai = ai;
+        }
+    }
+
+    /**
+     * Constructor for the TournamentRunner class
+     *
+     * @param data          The simulation data to use
+     * @param trainerCount  The number of trainers to generate
+     * @param rosterSize    The number of pokemon per trainer
+     * @param gamesPerMatch The battles per match, the majority wins the match
+     * @param seed          The seed that determines all results
+     * @param threads       The number of threads to use
+     */
+    public TournamentRunner(SimulationData data, int trainerCount,
+                            int rosterSize, int gamesPerMatch, long seed,
+                            int threads) {
+        this.data = data;
+        this.gamesPerMatch = gamesPerMatch;
+        this.seed = seed;
+        this.pool = new ForkJoinPool(threads);
+
+        policies = new AIParameters[]{AIParameters.RANDOM,
+                AIParameters.ATTRITION, AIParameters.RECKLESS,
+                AIParameters.fromData(
+                        DataHandler.getInstance().getAIData("Tuned"))};
+
+        speciesRatings = new double[data.getSpeciesCount()];
+        aiRatings = new double[policies.length];
+        Arrays.fill(speciesRatings, INITIAL_RATING);
+        Arrays.fill(aiRatings, INITIAL_RATING);
+
+        entrants = createEntrants(Math.max(trainerCount, 2),
+                Math.max(rosterSize, 1));
+    }
+
+    /**
+     * Runs the tournaments from the command line
+     * Options: --trainers, --roster, --rounds, --games, --seed, --threads,
+     * --top and --format (swiss, elimination or both)
+     *
+     * @param args The command line arguments
+     */
+    public static void main(String[] args) {
+
+        int trainers = 4096;
+        int rosterSize = 3;
+        int rounds = -1;
+        int games = 3;
+        long seed = 2023;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int top = 10;
+        String format = "both";
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--trainers" -> trainers = Integer.parseInt(args[i + 1]);
+                case "--roster" -> rosterSize = Integer.parseInt(args[i + 1]);
+                case "--rounds" -> rounds = Integer.parseInt(args[i + 1]);
+                case "--games" -> games = Integer.parseInt(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--top" -> top = Integer.parseInt(args[i + 1]);
+                case "--format" -> format = args[i + 1];
+                default -> throw new IllegalArgumentException(
+                        "Unknown option: " + args[i]);
+            }
+        }
+
+        // Enough Swiss rounds to separate a single undefeated trainer
+        if (rounds < 0) {
+            rounds = 32 - Integer.numberOfLeadingZeros(trainers - 1);
+        }
+
+        TournamentRunner runner = new TournamentRunner(new SimulationData(),
+                trainers, rosterSize, games, seed, threads);
+        long startTime = System.nanoTime();
+
+        try {
+            if (!format.equals("elimination")) {
+                runner.runSwiss(rounds);
+                runner.printStandings(top);
+            }
+            if (!format.equals("swiss")) {
+                runner.runElimination();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Tournament was interrupted");
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        } finally {
+            runner.pool.shutdownNow();
+        }
+
+        runner.printRatings();
+        runner.printThroughput(System.nanoTime() - startTime, threads);
+    }
+
+    private Entrant[] createEntrants(int trainerCount, int rosterSize) {
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int speciesCount = data.getSpeciesCount();
+        Entrant[] created = new Entrant[trainerCount];
+
+        for (int i = 0; i < trainerCount; i++) {
+
+            // Rosters only repeat species when they are larger than the dex
+            int[] species = new int[rosterSize];
+            for (int j = 0; j < rosterSize; j++) {
+                int candidate;
+                do {
+                    candidate = random.nextInt(speciesCount);
+                } while (j < speciesCount && contains(species, j, candidate));
+                species[j] = candidate;
+            }
+
+            created[i] = new Entrant(i, species, random.nextInt(policies.length));
+        }
+
+        return created;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plays a Swiss tournament, trainers with the same score meet each round
+     *
+     * @param rounds The number of rounds
+     * @throws InterruptedException If the tournament is interrupted
+     * @throws ExecutionException   If a match fails
+     */
+    public void runSwiss(int rounds)
+            throws InterruptedException, ExecutionException {
+
+        for (int round = 0; round < rounds; round++) {
+            long roundStart = System.nanoTime();
+            int[] pairs = pairSwiss();
+            double[] scores = playRound(pairs, SWISS, round);
+
+            for (int i = 0; i < scores.length; i++) {
+                Entrant first = entrants[pairs[2 * i]];
+                Entrant second = entrants[pairs[2 * i + 1]];
+                first.points += scores[i];
+                second.points += 1 - scores[i];
+                first.opponents.add(second.id);
+                second.opponents.add(first.id);
+            }
+
+            reportRound("Swiss round " + (round + 1) + "/" + rounds,
+                    scores.length, roundStart);
+        }
+    }
+
+    /**
+     * Pairs trainers of the same score that have not met yet
+     *
+     * @return The indices of the paired trainers, two per match
+     */
+    private int[] pairSwiss() {
+
+        Integer[] order = standings();
+        boolean[] paired = new boolean[entrants.length];
+
+        // The lowest trainer that has not had a bye sits out with a free win,
+        // once everyone had one the lowest trainer gets another
+        if (entrants.length % 2 == 1) {
+            Entrant bye = entrants[order[order.length - 1]];
+            for (int i = order.length - 1; i >= 0; i--) {
+                Entrant entrant = entrants[order[i]];
+                if (!entrant.hadBye) {
+                    bye = entrant;
+                    break;
+                }
+            }
+            bye.hadBye = true;
+            bye.points += 1;
+            paired[bye.id] = true;
+        }
+
+        int[] pairs = new int[entrants.length / 2 * 2];
+        int count = 0;
+        for (int i = 0; i < order.length; i++) {
+            int first = order[i];
+            if (paired[first]) {
+                continue;
+            }
+
+            // Prefer the closest trainer that has not been played yet
+            int second = -1;
+            for (int j = i + 1; j < order.length; j++) {
+                int candidate = order[j];
+                if (!paired[candidate]) {
+                    if (second == -1) {
+                        second = candidate;
+                    }
+                    if (!entrants[first].opponents.contains(candidate)) {
+                        second = candidate;
+                        break;
+                    }
+                }
+            }
+
+            // Cannot happen with the bye above, but never pair with nobody
+            if (second == -1) {
+                break;
+            }
+
+            paired[first] = true;
+            paired[second] = true;
+            pairs[count++] = first;
+            pairs[count++] = second;
+        }
+
+        return count == pairs.length ? pairs : Arrays.copyOf(pairs, count);
+    }
+
+    /**
+     * Plays a single elimination bracket seeded by the current standings,
+     * the higher seed advances when a match is drawn
+     *
+     * @throws InterruptedException If the tournament is interrupted
+     * @throws ExecutionException   If a match fails
+     */
+    public void runElimination()
+            throws InterruptedException, ExecutionException {
+
+        Integer[] order = standings();
+        ArrayList<Integer> remaining = new ArrayList<>(Arrays.asList(order));
+
+        // Remember the seed of every trainer to keep the bracket in seed order
+        int[] seeds = new int[entrants.length];
+        for (int i = 0; i < order.length; i++) {
+            seeds[order[i]] = i;
+        }
+
+        // Top seeds skip the first round so the bracket becomes a power of two
+        int bracketSize = Integer.highestOneBit(remaining.size());
+        if (bracketSize < remaining.size()) {
+            bracketSize *= 2;
+        }
+        int byes = bracketSize - remaining.size();
+        int round = 0;
+
+        while (remaining.size() > 1) {
+            long roundStart = System.nanoTime();
+            int playing = remaining.size() - byes;
+            int[] pairs = new int[playing];
+
+            // Highest seed meets the lowest seed
+            for (int i = 0; i < playing / 2; i++) {
+                pairs[2 * i] = remaining.get(byes + i);
+                pairs[2 * i + 1] = remaining.get(remaining.size() - 1 - i);
+            }
+
+            double[] scores = playRound(pairs, ELIMINATION, round);
+
+            ArrayList<Integer> advancing =
+                    new ArrayList<>(remaining.subList(0, byes));
+            for (int i = 0; i < scores.length; i++) {
+                advancing.add(scores[i] >= 0.5 ? pairs[2 * i] :
+                        pairs[2 * i + 1]);
+            }
+
+            // Keep the bracket in seed order
+            advancing.sort((a, b) -> Integer.compare(seeds[a], seeds[b]));
+            reportRound("Elimination, " + remaining.size() + " left",
+                    scores.length, roundStart);
+
+            if (advancing.size() == 1) {
+                Entrant champion = entrants[advancing.get(0)];
+                Entrant finalist = entrants[
+                        advancing.get(0) == pairs[0] ? pairs[1] : pairs[0]];
+                System.out.println("Champion: " + describe(champion));
+                System.out.println("Finalist: " + describe(finalist));
+            }
+
+            remaining = advancing;
+            byes = 0;
+            round++;
+        }
+    }
+
+    /**
+     * Plays all matches of a round in parallel and waits for them to finish
+     *
+     * @param pairs The indices of the paired trainers, two per match
+     * @param stage The stage of the tournament, SWISS or ELIMINATION
+     * @param round The round of the stage, used to derive the seed of each
+     *              match
+     * @return The score of the first trainer of each match, 0.5 for a draw
+     */
+    private double[] playRound(int[] pairs, int stage, int round)
+            throws InterruptedException, ExecutionException {
+
+        List<Callable<Double>> tasks = new ArrayList<>();
+        for (int i = 0; i < pairs.length / 2; i++) {
+            Entrant first = entrants[pairs[2 * i]];
+            Entrant second = entrants[pairs[2 * i + 1]];
+            long matchSeed = matchSeed(stage, round, i);
+            tasks.add(() -> playMatch(first, second, matchSeed));
+        }
+
+        // invokeAll only returns once every match is done, the round barrier
+        List<Future<Double>> results = pool.invokeAll(tasks);
+
+        double[] scores = new double[results.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = results.get(i).get();
+            applyResult(entrants[pairs[2 * i]], entrants[pairs[2 * i + 1]],
+                    scores[i]);
+        }
+
+        matchesPlayed += scores.length;
+        gamesPlayed += (long) scores.length * gamesPerMatch;
+        return scores;
+    }
+
+    private double playMatch(Entrant first, Entrant second, long matchSeed) {
+
+        SplittableRandom random = new SplittableRandom(matchSeed);
+        SimulatedPokemon[] firstTeam = createTeam(first);
+        SimulatedPokemon[] secondTeam = createTeam(second);
+        SimulationPolicy firstPolicy = policies[first.ai];
+        SimulationPolicy secondPolicy = policies[second.ai];
+        int firstWins = 0;
+        int secondWins = 0;
+
+        for (int game = 0; game < gamesPerMatch; game++) {
+            for (SimulatedPokemon pokemon : firstTeam) {
+                pokemon.revitalize();
+            }
+            for (SimulatedPokemon pokemon : secondTeam) {
+                pokemon.revitalize();
+            }
+
+            // Alternate who moves first to keep the match fair
+            int outcome;
+            if (game % 2 == 0) {
+                outcome = BattleSimulator.simulate(firstTeam, firstPolicy,
+                        secondTeam, secondPolicy, random);
+            } else {
+                outcome = BattleSimulator.simulate(secondTeam, secondPolicy,
+                        firstTeam, firstPolicy, random);
+                outcome = outcome == BattleSimulator.DRAW ? outcome :
+                        1 - outcome;
+            }
+
+            if (outcome == 0) {
+                firstWins++;
+            } else if (outcome == 1) {
+                secondWins++;
+            }
+        }
+
+        if (firstWins == secondWins) {
+            return 0.5;
+        }
+        return firstWins > secondWins ? 1 : 0;
+    }
+
+    private SimulatedPokemon[] createTeam(Entrant entrant) {
+        SimulatedPokemon[] team = new SimulatedPokemon[entrant.species.length];
+        for (int i = 0; i < team.length; i++) {
+            team[i] = data.createCombatant(entrant.species[i]);
+        }
+        return team;
+    }
+
+    /**
+     * Updates the records and the ratings of the trainers, their species and
+     * their AIs with the result of a match
+     */
+    private void applyResult(Entrant first, Entrant second, double score) {
+
+        if (score == 1) {
+            first.wins++;
+            second.losses++;
+        } else if (score == 0) {
+            first.losses++;
+            second.wins++;
+        } else {
+            first.draws++;
+            second.draws++;
+        }
+
+        double change = ratingChange(first.rating, second.rating, score);
+        first.rating += change;
+        second.rating -= change;
+
+        // A team is rated as the average of its species
+        change = ratingChange(averageRating(first.species),
+                averageRating(second.species), score);
+        for (int species : first.species) {
+            speciesRatings[species] += change / first.species.length;
+        }
+        for (int species : second.species) {
+            speciesRatings[species] -= change / second.species.length;
+        }
+
+        if (first.ai != second.ai) {
+            change = ratingChange(aiRatings[first.ai], aiRatings[second.ai],
+                    score);
+            aiRatings[first.ai] += change;
+            aiRatings[second.ai] -= change;
+        }
+    }
+
+    private static double ratingChange(double rating, double opponentRating,
+                                       double score) {
+        double expected =
+                1 / (1 + Math.pow(10, (opponentRating - rating) / 400));
+        return K_FACTOR * (score - expected);
+    }
+
+    private double averageRating(int[] species) {
+        double sum = 0;
+        for (int s : species) {
+            sum += speciesRatings[s];
+        }
+        return sum / species.length;
+    }
+
+    /**
+     * Sorts the trainers by points, then rating, then id
+     *
+     * @return The indices of the trainers from first to last
+     */
+    private Integer[] standings() {
+        Integer[] order = new Integer[entrants.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int byPoints =
+                    Double.compare(entrants[b].points, entrants[a].points);
+            if (byPoints != 0) {
+                return byPoints;
+            }
+            return Double.compare(entrants[b].rating, entrants[a].rating);
+        });
+        return order;
+    }
+
+    private long matchSeed(int stage, int round, int match) {
+        long hash = seed;
+        hash = hash * 0x9E3779B97F4A7C15L + stage;
+        hash = hash * 0x9E3779B97F4A7C15L + round;
+        hash = hash * 0x9E3779B97F4A7C15L + match;
+        return hash;
+    }
+
+    private String describe(Entrant entrant) {
+        StringBuilder roster = new StringBuilder();
+        for (int species : entrant.species) {
+            if (roster.length() > 0) {
+                roster.append(';');
+            }
+            roster.append(data.getSpecies(species).getSpecies());
+        }
+        return String.format(Locale.ROOT,
+                "Trainer %d (%s, %s) %d-%d-%d, %.1f points, rating %.0f",
+                entrant.id, AI_NAMES[entrant.ai], roster, entrant.wins,
+                entrant.draws, entrant.losses, entrant.points, entrant.rating);
+    }
+
+    private void reportRound(String name, int matches, long roundStart) {
+        double seconds = (System.nanoTime() - roundStart) / 1e9;
+        System.out.printf(Locale.ROOT,
+                "%s: %d matches in %.2fs (%.0f battles/s)%n", name, matches,
+                seconds, matches * gamesPerMatch / seconds);
+    }
+
+    /**
+     * Prints the best trainers of the Swiss tournament
+     *
+     * @param top The number of trainers to print
+     */
+    public void printStandings(int top) {
+        Integer[] order = standings();
+        System.out.println("Standings:");
+        for (int i = 0; i < Math.min(top, order.length); i++) {
+            System.out.println((i + 1) + ". " + describe(entrants[order[i]]));
+        }
+    }
+
+    /**
+     * Prints the ratings of every species and AI, best first
+     */
+    public void printRatings() {
+
+        System.out.println("Species ratings:");
+        Integer[] species = sortedIndices(speciesRatings);
+        for (int s : species) {
+            System.out.printf(Locale.ROOT, "  %-12s %.0f%n",
+                    data.getSpecies(s).getSpecies(), speciesRatings[s]);
+        }
+
+        System.out.println("AI ratings:");
+        for (int ai : sortedIndices(aiRatings)) {
+            System.out.printf(Locale.ROOT, "  %-12s %.0f%n", AI_NAMES[ai],
+                    aiRatings[ai]);
+        }
+    }
+
+    private static Integer[] sortedIndices(double[] ratings) {
+        Integer[] order = new Integer[ratings.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(ratings[b], ratings[a]));
+        return order;
+    }
+
+    private void printThroughput(long nanos, int threads) {
+        double seconds = nanos / 1e9;
+        System.out.printf(Locale.ROOT,
+                "Played %d matches (%d battles) in %.1fs on %d threads: %.0f matches/s, %.0f battles/s%n",
+                matchesPlayed, gamesPlayed, seconds, threads,
+                matchesPlayed / seconds, gamesPlayed / seconds);
+    }
+
+}
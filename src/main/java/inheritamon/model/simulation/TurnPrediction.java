@@ -0,0 +1,15 @@
+package inheritamon.model.simulation;
+
+/**
+ * @author Jeremias
+ * The predictions of a turn of the player, one for every enemy in battle
+ * because the player may choose which enemy a move hits
+ *
+ * @param byTarget      The predictors by the slot of the enemy, null for
+ *                      empty slots
+ * @param defaultTarget The slot of the enemy that is attacked when the
+ *                      player does not choose one
+ */
+public record TurnPrediction(OutcomePredictor[] byTarget, int defaultTarget) {
+
+}
@@ -0,0 +1,185 @@
+package inheritamon.model.world;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @author Jeremias
+ * The progress of the player in the world: where the avatar stands, the
+ * keys it carries and the objects it has collected. Objects are known by
+ * their map and their id on that map, every map keeps a bitset of the ids
+ * that were collected so even maps with thousands of objects stay small.
+ * <p>
+ * The world runs on its own thread while saves read this from another, so
+ * every method is synchronized.
+ */
+public class WorldState implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The map the avatar is on, null before it was placed
+     */
+    private String map;
+    private int x;
+    private int y;
+    private int keys;
+    private final TreeMap<String, BitSet> collected = new TreeMap<>();
+
+    /**
+     * Constructor for an empty world state
+     */
+    public WorldState() {
+    }
+
+    /**
+     * Constructor for a copy of a world state
+     *
+     * @param other The world state to copy
+     */
+    public WorldState(WorldState other) {
+        synchronized (other) {
+            map = other.map;
+            x = other.x;
+            y = other.y;
+            keys = other.keys;
+            other.collected.forEach(
+                    (name, ids) -> collected.put(name, (BitSet) ids.clone()));
+        }
+    }
+
+    /**
+     * Moves the avatar
+     *
+     * @param newMap The map the avatar is on
+     * @param newX   The x position in the world in pixels
+     * @param newY   The y position in the world in pixels
+     */
+    public synchronized void setPosition(String newMap, int newX, int newY) {
+        map = newMap;
+        x = newX;
+        y = newY;
+    }
+
+    /**
+     * Checks if the avatar was placed on a map
+     *
+     * @return True if there is a position
+     */
+    public synchronized boolean hasPosition() {
+        return map != null;
+    }
+
+    /**
+     * @return The map the avatar is on, null before it was placed
+     */
+    public synchronized String getMap() {
+        return map;
+    }
+
+    /**
+     * @return The x position of the avatar in pixels
+     */
+    public synchronized int getX() {
+        return x;
+    }
+
+    /**
+     * @return The y position of the avatar in pixels
+     */
+    public synchronized int getY() {
+        return y;
+    }
+
+    /**
+     * @return The number of keys the avatar carries
+     */
+    public synchronized int getKeys() {
+        return keys;
+    }
+
+    /**
+     * Sets the number of keys, used when a save is read
+     *
+     * @param newKeys The number of keys
+     */
+    public synchronized void setKeys(int newKeys) {
+        keys = newKeys;
+    }
+
+    /**
+     * Gives the avatar a key
+     */
+    public synchronized void addKey() {
+        keys++;
+    }
+
+    /**
+     * Uses a key if the avatar has one
+     *
+     * @return True if a key was used
+     */
+    public synchronized boolean useKey() {
+        if (keys == 0) {
+            return false;
+        }
+        keys--;
+        return true;
+    }
+
+    /**
+     * Marks an object as collected
+     *
+     * @param objectMap The map of the object
+     * @param id        The id of the object on its map
+     */
+    public synchronized void collect(String objectMap, int id) {
+        collected.computeIfAbsent(objectMap, name -> new BitSet()).set(id);
+    }
+
+    /**
+     * Marks objects as collected, used when a save is read
+     *
+     * @param objectMap The map of the objects
+     * @param ids       The ids of the objects on the map
+     */
+    public synchronized void collectAll(String objectMap, BitSet ids) {
+        collected.computeIfAbsent(objectMap, name -> new BitSet()).or(ids);
+    }
+
+    /**
+     * Forgets the objects that were collected on a map, used when a save is
+     * read
+     *
+     * @param objectMap The map
+     */
+    public synchronized void clearCollected(String objectMap) {
+        collected.remove(objectMap);
+    }
+
+    /**
+     * Checks if an object was collected
+     *
+     * @param objectMap The map of the object
+     * @param id        The id of the object on its map
+     * @return True if it was collected
+     */
+    public synchronized boolean isCollected(String objectMap, int id) {
+        BitSet ids = collected.get(objectMap);
+        return ids != null && ids.get(id);
+    }
+
+    /**
+     * Gets the objects that were collected on every map
+     *
+     * @return A copy of the ids by map, sorted by map
+     */
+    public synchronized Map<String, BitSet> getCollected() {
+        TreeMap<String, BitSet> copy = new TreeMap<>();
+        collected.forEach((name, ids) -> copy.put(name, (BitSet) ids.clone()));
+        return copy;
+    }
+
+}
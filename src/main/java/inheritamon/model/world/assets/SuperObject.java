@@ -1,15 +1,15 @@
 package inheritamon.model.world.assets;
+import inheritamon.model.data.TextureAtlas;
 import inheritamon.view.world.WorldPanel;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
 
 /**
  * @author Stanislav
  * A class to represent the objects in the world
  */
 public class SuperObject {
-    public BufferedImage image;
+    public TextureAtlas.Region image;
     public String name;
     public boolean collision = false;
     public int worldX, worldY;
@@ -23,7 +23,7 @@ public class SuperObject {
         if(worldX + gp.tileSize > gp.playerAvatar.worldX - gp.playerAvatar.screenX && worldX - gp.tileSize < gp.playerAvatar.worldX + gp.playerAvatar.screenX &&
                 worldY + gp.tileSize > gp.playerAvatar.worldY - gp.playerAvatar.screenY && worldY - gp.tileSize < gp.playerAvatar.worldY + gp.playerAvatar.screenY) {
 
-            g2.drawImage(image, screenX, screenY, gp.tileSize, gp.tileSize, null);
+            image.draw(g2, screenX, screenY, gp.tileSize, gp.tileSize);
         }
     }
 }
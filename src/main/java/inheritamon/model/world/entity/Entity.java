@@ -1,7 +1,8 @@
 package inheritamon.model.world.entity;
 
+import inheritamon.model.data.TextureAtlas;
+
 import java.awt.*;
-import java.awt.image.BufferedImage;
 
 /**
  * @author Stanislav
@@ -10,7 +11,7 @@ import java.awt.image.BufferedImage;
 public class Entity {
     public int worldX, worldY;
     public int speed;
-    public BufferedImage up1, up2, down1, down2, right1, right2, left1, left2;
+    public TextureAtlas.Region up1, up2, down1, down2, right1, right2, left1, left2;
     public String direction;
     public int spriteCounter = 0;
     public int spriteNum = 1;
@@ -1,8 +1,8 @@
 package inheritamon.model.world.tile;
 
-import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 
+import inheritamon.model.data.TextureAtlas;
 import inheritamon.model.player.Player.TrainerAbility;
 
 /**
@@ -11,19 +11,19 @@ import inheritamon.model.player.Player.TrainerAbility;
  */
 public class Tile {
 
-    public BufferedImage image;
+    public TextureAtlas.Region image;
     public boolean collision = false;
     public boolean canInteract = false;
     private String type;
 
     /**
      * Constructor for the tile
-     * @param image The image of the tile
+     * @param image The region of the tile in the world atlas
      * @param collision Whether the tile is collidable
      * @param canInteract Whether the tile can be interacted with
      * @param type The type of the tile
      */
-    public Tile(BufferedImage image, boolean collision, boolean canInteract, String type) {
+    public Tile(TextureAtlas.Region image, boolean collision, boolean canInteract, String type) {
         this.image = image;
         this.collision = collision;
         this.canInteract = canInteract;
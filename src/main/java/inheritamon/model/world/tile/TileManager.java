@@ -18,6 +18,8 @@ public class TileManager {
 
     public Tile[] tile;
     public int mapTileNum[][];
+    // The name of the map, the saves know the collected objects by it
+    public String mapName;
     WorldPanel gp;
 
     /**
@@ -97,6 +99,8 @@ public class TileManager {
      * @param filePath The path to the file
      */
     public void loadMap(String filePath) {
+        String fileName = filePath.substring(filePath.lastIndexOf('/') + 1);
+        mapName = fileName.replaceFirst("\\.csv$", "");
         try {
             InputStream is = getClass().getResourceAsStream(filePath);
             BufferedReader br = new BufferedReader(new InputStreamReader(is));
@@ -143,7 +147,7 @@ public class TileManager {
             int screenX = worldX - gp.playerAvatar.worldX + gp.playerAvatar.screenX;
             int screenY = worldY - gp.playerAvatar.worldY + gp.playerAvatar.screenY;
 
-            // Improve game performance
+            // Only draw the tiles that are on the screen
             if (worldX + gp.tileSize > gp.playerAvatar.worldX - gp.playerAvatar.screenX &&
                     worldX - gp.tileSize <
                             gp.playerAvatar.worldX + gp.playerAvatar.screenX &&
@@ -151,11 +155,10 @@ public class TileManager {
                             gp.playerAvatar.worldY - gp.playerAvatar.screenY &&
                     worldY - gp.tileSize <
                             gp.playerAvatar.worldY + gp.playerAvatar.screenY) {
+                tile[tileNum].image.draw(g2, screenX, screenY, gp.tileSize,
+                        gp.tileSize);
             }
 
-            g2.drawImage(tile[tileNum].image, screenX, screenY, gp.tileSize,
-                    gp.tileSize, null);
-
             worldCol++;
 
             if (worldCol == gp.maxWorldCol) {
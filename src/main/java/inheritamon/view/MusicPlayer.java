@@ -0,0 +1,223 @@
+package inheritamon.view;
+
+import javax.sound.sampled.*;
+
+import inheritamon.model.data.DataHandler;
+
+import java.io.IOException;
+
+/**
+ * @author Jeremias
+ * Plays the music of the game on its own thread. The music is streamed from
+ * the resources through a SourceDataLine in small chunks instead of being
+ * decoded into a Clip, so only a few buffers are in memory no matter how
+ * long or how many the tracks are. At the end of a track the file is opened
+ * again and written to the same line, so the loop has no gap.
+ */
+public final class MusicPlayer implements Runnable {
+
+    /**
+     * How much audio is read from the file at a time
+     */
+    private static final int CHUNK_BYTES = 16 * 1024;
+
+    /**
+     * How long the line buffers audio, also how long a new track waits
+     * for the old one at most
+     */
+    private static final float LINE_BUFFER_SECONDS = 0.25f;
+
+    private final float gain;
+
+    private final Object lock = new Object();
+
+    /**
+     * The track that should be playing, null for silence. The generation
+     * changes whenever a new track is requested, so the audio thread knows
+     * when to stop even if the same track is requested again.
+     */
+    private String requestedTrack;
+    private int generation;
+
+    /**
+     * Constructor for the MusicPlayer class, starts the audio thread
+     *
+     * @param gain The change in volume in decibels
+     */
+    public MusicPlayer(float gain) {
+        this.gain = gain;
+        Thread thread = new Thread(this, "Music");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Plays a track in a loop, replacing the current one
+     *
+     * @param track The name of the music file
+     */
+    public void play(String track) {
+        synchronized (lock) {
+            requestedTrack = track;
+            generation++;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Stops the music
+     */
+    public void stop() {
+        play(null);
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            String track;
+            int trackGeneration;
+            synchronized (lock) {
+                while (requestedTrack == null) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                track = requestedTrack;
+                trackGeneration = generation;
+            }
+
+            if (!stream(track, trackGeneration)) {
+
+                // Do not try again until another track is requested
+                waitForChange(trackGeneration);
+            }
+        }
+    }
+
+    /**
+     * Streams a track until another one is requested
+     *
+     * @param track           The name of the music file
+     * @param trackGeneration The generation of the request
+     * @return Whether the track could be played
+     */
+    private boolean stream(String track, int trackGeneration) {
+        AudioInputStream input = open(track);
+        if (input == null) {
+            System.out.println("Error loading Music clip: " + track);
+            return false;
+        }
+
+        AudioFormat format = input.getFormat();
+        int frameSize = Math.max(1, format.getFrameSize());
+        byte[] chunk = new byte[CHUNK_BYTES - CHUNK_BYTES % frameSize];
+        int lineBuffer = Math.round(format.getFrameRate()
+                * LINE_BUFFER_SECONDS) * frameSize;
+
+        try (SourceDataLine line = AudioSystem.getSourceDataLine(format)) {
+            line.open(format, Math.max(lineBuffer, chunk.length));
+            setGain(line);
+            line.start();
+
+            // Whether anything was read since the track was last opened
+            boolean played = false;
+            while (isCurrent(trackGeneration)) {
+                int read = input.read(chunk, 0, chunk.length);
+                if (read > 0) {
+                    line.write(chunk, 0, read - read % frameSize);
+                    played = true;
+                    continue;
+                }
+
+                // Start the track again without draining the line
+                input.close();
+                if (!played || (input = open(track)) == null) {
+                    return false;
+                }
+                played = false;
+            }
+
+            line.stop();
+            line.flush();
+            return true;
+        } catch (LineUnavailableException | IOException
+                 | IllegalArgumentException e) {
+            System.out.println("Error playing Music clip: " + track);
+            return false;
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    /**
+     * Opens a track as a stream of PCM audio
+     *
+     * @param track The name of the music file
+     * @return The stream, null if it could not be opened
+     */
+    private AudioInputStream open(String track) {
+        AudioInputStream input =
+                DataHandler.getInstance().openAudioStream("Music", track);
+        if (input == null) {
+            return null;
+        }
+
+        AudioFormat format = input.getFormat();
+        AudioFormat.Encoding encoding = format.getEncoding();
+        if (encoding.equals(AudioFormat.Encoding.PCM_SIGNED)
+                || encoding.equals(AudioFormat.Encoding.PCM_UNSIGNED)) {
+            return input;
+        }
+
+        // Compressed files are decoded while they are streamed
+        try {
+            return AudioSystem.getAudioInputStream(
+                    AudioFormat.Encoding.PCM_SIGNED, input);
+        } catch (IllegalArgumentException e) {
+            closeQuietly(input);
+            return null;
+        }
+    }
+
+    private void setGain(SourceDataLine line) {
+        if (line.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
+            FloatControl gainControl =
+                    (FloatControl) line.getControl(FloatControl.Type.MASTER_GAIN);
+            gainControl.setValue(Math.max(gainControl.getMinimum(),
+                    Math.min(gainControl.getMaximum(), gain)));
+        }
+    }
+
+    private boolean isCurrent(int trackGeneration) {
+        synchronized (lock) {
+            return generation == trackGeneration;
+        }
+    }
+
+    private void waitForChange(int trackGeneration) {
+        synchronized (lock) {
+            while (generation == trackGeneration) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(AudioInputStream input) {
+        if (input == null) {
+            return;
+        }
+        try {
+            input.close();
+        } catch (IOException e) {
+            // Nothing is lost when a stream cannot be closed
+        }
+    }
+
+}
@@ -1,6 +1,6 @@
 package inheritamon.view;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.sound.sampled.*;
 
 import inheritamon.model.data.DataHandler;
@@ -17,51 +17,47 @@ public class SoundHandler {
     private static SoundHandler soundHandler;
 
     /**
-     * The sound effects in the game as clips
+     * The sound effects in the game as clips, opened when first played.
+     * Sounds are played from the event dispatch thread and the world thread.
      */
-    private final HashMap<String, Clip> soundClips = new HashMap<>();
+    private final ConcurrentHashMap<String, Clip> soundClips =
+            new ConcurrentHashMap<>();
 
     /**
-     * The music in the game as clips
+     * Streams the music, only the sound effects are kept as clips
      */
-    private final HashMap<String, Clip> musicClips = new HashMap<>();
-
-    private Clip currentMusic;
+    private final MusicPlayer musicPlayer = new MusicPlayer(-10.0f);
 
     /**
      * The constructor for the SoundHandler class
+     * Clips are only opened when they are first played
      */
     private SoundHandler() {
+    }
 
-        DataHandler dataHandler = DataHandler.getInstance();
-
-        HashMap<String, AudioInputStream> musicInput =
-                dataHandler.getAudios("Music");
-        HashMap<String, AudioInputStream> soundInput =
-                dataHandler.getAudios("Sounds");
-
-        // Create the music clips
-        for (String key : musicInput.keySet()) {
-            try {
-                Clip clip = AudioSystem.getClip();
-                clip.open(musicInput.get(key));
-                musicClips.put(key, clip);
-            } catch (Exception e) {
-                System.out.println("Error loading music clip: " + key);
-            }
+    /**
+     * Opens a clip of an audio file
+     *
+     * @param audioType The type of audio, Music or Sounds
+     * @param key       The name of the audio file
+     * @return The clip, null if the audio could not be loaded
+     */
+    private Clip openClip(String audioType, String key) {
+        AudioInputStream input =
+                DataHandler.getInstance().getAudio(audioType, key);
+        if (input == null) {
+            System.out.println("Error loading " + audioType + " clip: " + key);
+            return null;
         }
 
-        // Create the sound clips
-        for (String key : soundInput.keySet()) {
-            try {
-                Clip clip = AudioSystem.getClip();
-                clip.open(soundInput.get(key));
-                soundClips.put(key, clip);
-            } catch (Exception e) {
-                System.out.println("Error loading sound clip: " + key);
-            }
+        try {
+            Clip clip = AudioSystem.getClip();
+            clip.open(input);
+            return clip;
+        } catch (Exception e) {
+            System.out.println("Error loading " + audioType + " clip: " + key);
+            return null;
         }
-
     }
 
     /**
@@ -69,7 +65,7 @@ public class SoundHandler {
      *
      * @return The instance of the SoundHandler
      */
-    public static SoundHandler getInstance() {
+    public static synchronized SoundHandler getInstance() {
         if (soundHandler == null) {
             soundHandler = new SoundHandler();
         }
@@ -83,18 +79,7 @@ public class SoundHandler {
      * @param key The name of the music to play
      */
     public void playMusic(String key) {
-        if (currentMusic != null) {
-            currentMusic.stop();
-        }
-        currentMusic = musicClips.get(key);
-        currentMusic.setFramePosition(0);
-
-        // Lower volume
-        FloatControl gainControl = (FloatControl) currentMusic.getControl(
-                FloatControl.Type.MASTER_GAIN);
-        gainControl.setValue(-10.0f);
-
-        currentMusic.loop(Clip.LOOP_CONTINUOUSLY);
+        musicPlayer.play(key);
     }
 
     /**
@@ -104,6 +89,20 @@ public class SoundHandler {
      */
     public void playSound(String key) {
         Clip clip = soundClips.get(key);
+        if (clip == null) {
+            // Opened outside of the map, so a slow decode does not block
+            // other sounds. If two threads open it, one clip is kept.
+            Clip opened = openClip("Sounds", key);
+            if (opened == null) {
+                return;
+            }
+            clip = soundClips.putIfAbsent(key, opened);
+            if (clip == null) {
+                clip = opened;
+            } else {
+                opened.close();
+            }
+        }
         clip.setFramePosition(0);
 
         // Lower volume
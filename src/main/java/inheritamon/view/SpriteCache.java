@@ -0,0 +1,209 @@
+package inheritamon.view;
+
+import java.awt.*;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorConvertOp;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import inheritamon.model.data.DataHandler;
+
+/**
+ * @author Jeremias
+ * Scales the sprites shown in the menus once and keeps the results, so
+ * rebuilding a panel only draws images that are ready. The images are
+ * compatible with the screen so they can be accelerated, and are scaled with
+ * a high quality filter instead of Image.getScaledInstance. The cache uses
+ * soft references, so the garbage collector clears it when memory is low.
+ * Singleton class
+ */
+public final class SpriteCache {
+
+    // Singleton instance
+    private static SpriteCache spriteCache;
+
+    /**
+     * How a sprite is drawn besides its size
+     */
+    public enum Variant {
+        NORMAL, GRAYSCALE
+    }
+
+    /**
+     * Identifies a scaled sprite
+     */
+    private record Key(String asset, int width, int height, Variant variant) {
+    }
+
+    /**
+     * A cached sprite that remembers its key, so it can be removed from the
+     * map once the garbage collector clears it
+     */
+    private static final class Entry extends SoftReference<BufferedImage> {
+        private final Key key;
+
+        private Entry(Key key, BufferedImage image,
+                      ReferenceQueue<BufferedImage> queue) {
+            super(image, queue);
+            this.key = key;
+        }
+    }
+
+    private final ConcurrentHashMap<Key, Entry> entries =
+            new ConcurrentHashMap<>();
+    private final ReferenceQueue<BufferedImage> cleared = new ReferenceQueue<>();
+
+    private SpriteCache() {
+    }
+
+    /**
+     * Returns the instance of the SpriteCache
+     *
+     * @return The instance of the SpriteCache
+     */
+    public static synchronized SpriteCache getInstance() {
+        if (spriteCache == null) {
+            spriteCache = new SpriteCache();
+        }
+        return spriteCache;
+    }
+
+    /**
+     * Gets the front sprite of a pokemon
+     *
+     * @param pokemonName The name of the pokemon
+     * @param size        The width and height in pixels
+     * @param variant     How the sprite is drawn
+     * @return The scaled sprite
+     */
+    public BufferedImage getPokemonSprite(String pokemonName, int size,
+                                          Variant variant) {
+        return get("battleSprites/" + pokemonName, size, size, variant,
+                () -> DataHandler.getInstance().getPokemonSprite(pokemonName)
+                        .get("front"));
+    }
+
+    /**
+     * Gets the sprite of an item
+     *
+     * @param spriteName The name of the sprite
+     * @param size       The width and height in pixels
+     * @return The scaled sprite
+     */
+    public BufferedImage getItemSprite(String spriteName, int size) {
+        return get("inventorySprites/" + spriteName, size, size,
+                Variant.NORMAL,
+                () -> DataHandler.getInstance().getItemSprite(spriteName));
+    }
+
+    /**
+     * Gets an icon
+     *
+     * @param iconName The name of the icon
+     * @param size     The width and height in pixels
+     * @return The scaled icon
+     */
+    public BufferedImage getIcon(String iconName, int size) {
+        return get("icons/" + iconName, size, size, Variant.NORMAL,
+                () -> DataHandler.getInstance().getIcon(iconName));
+    }
+
+    /**
+     * Gets a scaled sprite, scaling it if it is not cached
+     *
+     * @param asset   The name of the asset, including its folder
+     * @param width   The width in pixels
+     * @param height  The height in pixels
+     * @param variant How the sprite is drawn
+     * @param source  Gets the original image, only called when needed
+     * @return The scaled sprite
+     */
+    public BufferedImage get(String asset, int width, int height,
+                             Variant variant, Supplier<BufferedImage> source) {
+        removeCleared();
+
+        Key key = new Key(asset, width, height, variant);
+        Entry entry = entries.get(key);
+        BufferedImage image = entry == null ? null : entry.get();
+        if (image != null) {
+            return image;
+        }
+
+        image = scale(source.get(), width, height);
+        if (variant == Variant.GRAYSCALE) {
+            image = toGrayscale(image);
+        }
+        entries.put(key, new Entry(key, image, cleared));
+        return image;
+    }
+
+    /**
+     * Gets the number of sprites in the cache
+     *
+     * @return The number of sprites
+     */
+    public int size() {
+        removeCleared();
+        return entries.size();
+    }
+
+    private void removeCleared() {
+        Object reference;
+        while ((reference = cleared.poll()) != null) {
+            Entry entry = (Entry) reference;
+            entries.remove(entry.key, entry);
+        }
+    }
+
+    /**
+     * Scales an image in steps of at most half its size when it shrinks,
+     * which keeps the quality of a bilinear filter, and bicubic when it grows
+     */
+    private static BufferedImage scale(BufferedImage source, int width,
+                                       int height) {
+        BufferedImage image = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+
+            BufferedImage step = createImage(currentWidth, currentHeight);
+            Graphics2D g2 = step.createGraphics();
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    currentWidth > image.getWidth()
+                            ? RenderingHints.VALUE_INTERPOLATION_BICUBIC
+                            : RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2.setRenderingHint(RenderingHints.KEY_RENDERING,
+                    RenderingHints.VALUE_RENDER_QUALITY);
+            g2.drawImage(image, 0, 0, currentWidth, currentHeight, null);
+            g2.dispose();
+            image = step;
+        } while (currentWidth != width || currentHeight != height);
+        return image;
+    }
+
+    private static BufferedImage toGrayscale(BufferedImage image) {
+        BufferedImage gray = createImage(image.getWidth(), image.getHeight());
+        ColorConvertOp colorConvertOp =
+                new ColorConvertOp(ColorSpace.getInstance(ColorSpace.CS_GRAY),
+                        null);
+        colorConvertOp.filter(image, gray);
+        return gray;
+    }
+
+    private static BufferedImage createImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        GraphicsConfiguration config = GraphicsEnvironment
+                .getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration();
+        return config.createCompatibleImage(width, height,
+                Transparency.TRANSLUCENT);
+    }
+
+}
@@ -4,7 +4,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.image.*;
 
-import inheritamon.model.data.DataHandler;
+import inheritamon.view.SpriteCache;
 import inheritamon.model.data.language.*;
 
 /**
@@ -37,8 +37,7 @@ public class ClassDisplayPanel extends JPanel
 
         LanguageConfiguration config = LanguageConfiguration.getInstance();
 
-        DataHandler dataHandler = DataHandler.getInstance();
-        addLabels(pokemon, perk, config, dataHandler);
+        addLabels(pokemon, perk, config);
 
         // Set the font to use
         int fontSize = 20;
@@ -56,17 +55,12 @@ public class ClassDisplayPanel extends JPanel
     }
 
     private void addLabels(String pokemon, String perk,
-                           LanguageConfiguration config,
-                           DataHandler dataHandler) {
-        BufferedImage pokemonImage =
-                dataHandler.getPokemonSprite(pokemon).get("front");
-
+                           LanguageConfiguration config) {
         // Create the image label
         int spriteSize = 150;
-        JLabel imageLabel = new JLabel(
-                new ImageIcon(
-                        pokemonImage.getScaledInstance(spriteSize, spriteSize,
-                                Image.SCALE_DEFAULT)));
+        BufferedImage pokemonImage = SpriteCache.getInstance().getPokemonSprite(
+                pokemon, spriteSize, SpriteCache.Variant.NORMAL);
+        JLabel imageLabel = new JLabel(new ImageIcon(pokemonImage));
 
         // Center the image
         imageLabel.setAlignmentX(JLabel.CENTER_ALIGNMENT);
@@ -5,6 +5,7 @@ import javax.swing.*;
 import inheritamon.model.data.DataHandler;
 import inheritamon.model.data.language.*;
 import inheritamon.view.SoundHandler;
+import inheritamon.view.SpriteCache;
 import inheritamon.view.combat.actions.ActionPanel;
 import inheritamon.controller.GameController;
 
@@ -63,8 +64,6 @@ public class ChoicePanel extends JPanel implements LanguageChangeListener {
 
         // Use a grid bag layout for maximum customization
         setLayout(new GridBagLayout());
-        HashMap<String, BufferedImage> buttonIcons =
-                DataHandler.getInstance().getIcons();
 
         // Put 4 buttons in the array and make them occupy the whole width
         for (int i = 0; i < NUMBER_OF_LABELS; i++) {
@@ -73,11 +72,9 @@ public class ChoicePanel extends JPanel implements LanguageChangeListener {
             // Add the image before the button
             // Resize the image to 50x50
             String[] buttonIconNames = {"Fight", "Items", "Pokemon", "Run"};
-            BufferedImage icon = buttonIcons.get(buttonIconNames[i]);
             int buttonSize = 40;
-            Image scaledIcon =
-                    icon.getScaledInstance(buttonSize, buttonSize,
-                            Image.SCALE_SMOOTH);
+            Image scaledIcon = SpriteCache.getInstance()
+                    .getIcon(buttonIconNames[i], buttonSize);
 
             addJLabel(i);
             addIcon(i, scaledIcon);
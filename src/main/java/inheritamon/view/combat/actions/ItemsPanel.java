@@ -2,9 +2,9 @@ package inheritamon.view.combat.actions;
 
 import inheritamon.controller.GameController;
 import inheritamon.model.BattleHandler;
-import inheritamon.model.data.DataHandler;
 import inheritamon.model.inventory.*;
 import inheritamon.view.SoundHandler;
+import inheritamon.view.SpriteCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -44,8 +44,6 @@ public class ItemsPanel extends JPanel {
     private void setUpListener(BattleHandler battleHandler,
                                GameController battleController) {
 
-        DataHandler dataHandler = DataHandler.getInstance();
-
         battleHandler.addListener("inventory", e -> {
             inventory = (Inventory) e.getNewValue();
 
@@ -69,9 +67,9 @@ public class ItemsPanel extends JPanel {
                 // Get the name of the sprite
                 String spriteName = item.getItemSprite();
 
-                // Get the sprite from the data handler
-                BufferedImage imageToDisplay =
-                        dataHandler.getItemSprite(spriteName);
+                // Get the sprite, already at its size
+                BufferedImage imageToDisplay = SpriteCache.getInstance()
+                        .getItemSprite(spriteName, SPRITE_SIZE);
 
                 addButton(battleController, i, imageToDisplay);
 
@@ -92,9 +90,7 @@ public class ItemsPanel extends JPanel {
         if (i < inventory.getSize()) {
 
             // Add the label with the sprite
-            JLabel label = new JLabel(new ImageIcon(
-                    imageToDisplay.getScaledInstance(SPRITE_SIZE, SPRITE_SIZE,
-                            Image.SCALE_DEFAULT)));
+            JLabel label = new JLabel(new ImageIcon(imageToDisplay));
             add(label);
 
             final int selectionIndex = i;
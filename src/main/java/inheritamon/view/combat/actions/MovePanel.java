@@ -1,19 +1,32 @@
 package inheritamon.view.combat.actions;
 
 import inheritamon.model.BattleHandler;
+import inheritamon.model.data.DataHandler;
+import inheritamon.model.data.MoveDef;
 import inheritamon.controller.*;
 import inheritamon.view.*;
 import inheritamon.model.data.language.*;
+import inheritamon.model.simulation.OutcomePredictor;
+import inheritamon.model.simulation.TurnPrediction;
 
 import java.awt.*;
 import java.util.*;
+import java.util.List;
 import java.awt.event.*;
+import java.beans.IndexedPropertyChangeEvent;
 import javax.swing.*;
 
 /**
  * @author Jeremias
  * The MovePanel class is responsible for displaying the moves of the
  * current pokemon
+ * While the player chooses, the chance of winning with each move is
+ * estimated in the background and shown next to the move
+ * When there are several enemies in battle, moves that hit a single
+ * enemy ask for a target first. The chance is estimated against every
+ * enemy, such a move shows the chance against the enemy it does best
+ * against and every target shows the chance against itself. Other moves
+ * show the chance against the enemy the battle attacks by default.
  */
 public class MovePanel extends JPanel implements LanguageChangeListener {
 
@@ -25,6 +38,48 @@ public class MovePanel extends JPanel implements LanguageChangeListener {
     private final ArrayList<JLabel> buttonLabels = new ArrayList<>();
     private String[] moveList = new String[NUMBER_OF_MOVES];
 
+    /**
+     * The labels that show the predicted chance of winning for each move
+     */
+    private final ArrayList<JLabel> hintLabels = new ArrayList<>();
+
+    /**
+     * The prediction of the current turn, null if none is running
+     */
+    private SwingWorker<Void, Estimate> predictionWorker;
+
+    /**
+     * The latest chances of winning with each move by enemy slot, null
+     * until there is an estimate against the enemy
+     */
+    private final double[][] winChances = new double[BattleHandler.MAX_ACTIVE][];
+
+    /**
+     * The enemy that is attacked when the player does not choose one
+     */
+    private int defaultTarget;
+
+    /**
+     * While the targets are shown, the labels that show the chance against
+     * each enemy and the move they are for
+     */
+    private final JLabel[] targetHints = new JLabel[BattleHandler.MAX_ACTIVE];
+    private int targetMove = -1;
+
+    /**
+     * An estimate of the chances of winning against one enemy
+     *
+     * @param target     The slot of the enemy
+     * @param winChances The chance of winning with each move
+     */
+    private record Estimate(int target, double[] winChances) {
+    }
+
+    /**
+     * The names of the enemies in each slot, null for empty slots
+     */
+    private final String[] enemyNames = new String[BattleHandler.MAX_ACTIVE];
+
     private SoundHandler soundHandler;
 
     /**
@@ -50,42 +105,263 @@ public class MovePanel extends JPanel implements LanguageChangeListener {
                        GameController battleController) {
 
         // Add a move listener to the battle handler
-        battleHandler.addListener("moves", e -> {
+        // The panel is rebuilt on the event dispatch thread so it cannot
+        // interfere with the prediction updates
+        battleHandler.addListener("moves", e -> SwingUtilities.invokeLater(() -> {
 
             // Print the moves if e contains the moves attribute which is an array of
             // strings
             if (e.getPropertyName().equals("moves")) {
 
-                // Clear the buttons
-                buttonLabels.clear();
-
-                // Clear the panel
-                removeAll();
-
                 // Get the moves from the event
                 moveList = (String[]) e.getNewValue();
+                showMoves(battleController);
+
+            }
 
-                // Print the moves
-                for (String move : moveList) {
+        }));
+
+        // Keep track of the enemies that can be targeted
+        battleHandler.addListener("pokemonSprite", e -> {
+            IndexedPropertyChangeEvent event = (IndexedPropertyChangeEvent) e;
+            if (event.getPropertyName().equals("enemySprite")) {
+                String name = (String) event.getNewValue();
+                SwingUtilities.invokeLater(
+                        () -> enemyNames[event.getIndex()] = name);
+            }
+        });
 
-                    addButton(battleController, move);
+        // Start a prediction when the player has to choose, stop it otherwise
+        battleHandler.addListener("prediction", e -> {
+            TurnPrediction prediction = (TurnPrediction) e.getNewValue();
+            SwingUtilities.invokeLater(() -> {
+                cancelPrediction();
+                if (prediction != null) {
+                    startPrediction(prediction);
                 }
+            });
+        });
+
+    }
+
+    private void showMoves(GameController battleController) {
+
+        // Clear the buttons
+        buttonLabels.clear();
+        hintLabels.clear();
+        Arrays.fill(targetHints, null);
+        targetMove = -1;
+
+        // Clear the panel
+        removeAll();
 
-                revalidate();
-                repaint();
+        // Print the moves
+        for (String move : moveList) {
 
+            addButton(battleController, move);
+        }
+        showPrediction();
+
+        revalidate();
+        repaint();
+    }
+
+    private void showTargets(GameController battleController, String move,
+                             int moveIndex) {
+
+        removeAll();
+        targetMove = moveIndex;
+
+        // One option per enemy in battle, with the chance against it
+        for (int slot = 0; slot < enemyNames.length; slot++) {
+            if (enemyNames[slot] != null) {
+                int target = slot;
+                targetHints[slot] = addRow(createOption(enemyNames[slot], () -> {
+                    cancelPrediction();
+                    battleController.selectMove(move, target);
+                }));
             }
+        }
+        showPrediction();
 
-        });
+        String back = LanguageConfiguration.getInstance().getText("Back");
+        add(createOption(back, () -> showMoves(battleController)));
 
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Whether the player has to choose which enemy a move hits
+     */
+    private boolean needsTarget(String move) {
+
+        int enemies = 0;
+        for (String enemyName : enemyNames) {
+            if (enemyName != null) {
+                enemies++;
+            }
+        }
+
+        MoveDef moveData = DataHandler.getInstance().getMove(move);
+        return enemies > 1 && !moveData.isHealing() &&
+                !moveData.isMultiTarget();
+    }
+
+    private void startPrediction(TurnPrediction prediction) {
+
+        Arrays.fill(winChances, null);
+        defaultTarget = prediction.defaultTarget();
+
+        // The default target first, its chances are shown for most moves
+        OutcomePredictor[] predictors = prediction.byTarget();
+        List<Integer> order = new ArrayList<>();
+        for (int slot = 0; slot < predictors.length; slot++) {
+            if (predictors[slot] != null) {
+                order.add(slot == defaultTarget ? 0 : order.size(), slot);
+            }
+        }
+
+        predictionWorker = new SwingWorker<>() {
+
+            @Override
+            protected Void doInBackground() {
+
+                // Give way to the event dispatch thread so input stays responsive
+                Thread thread = Thread.currentThread();
+                thread.setPriority(Thread.MIN_PRIORITY);
+                try {
+                    for (int slot : order) {
+                        if (isCancelled()) {
+                            break;
+                        }
+                        predictors[slot].predict(e -> publish(new Estimate(
+                                slot, (double[]) e.getNewValue())));
+                    }
+                } finally {
+                    thread.setPriority(Thread.NORM_PRIORITY);
+                }
+                return null;
+            }
+
+            @Override
+            protected void process(List<Estimate> chunks) {
+
+                // Only the most recent estimate per enemy is relevant
+                if (!isCancelled()) {
+                    for (Estimate estimate : chunks) {
+                        winChances[estimate.target()] = estimate.winChances();
+                    }
+                    showPrediction();
+                }
+            }
+
+        };
+
+        predictionWorker.execute();
+    }
+
+    private void showPrediction() {
+        for (int i = 0; i < hintLabels.size(); i++) {
+            hintLabels.get(i).setText(formatChance(getWinChance(i)));
+        }
+        for (int slot = 0; slot < targetHints.length; slot++) {
+            if (targetHints[slot] != null) {
+                targetHints[slot].setText(formatChance(
+                        getWinChance(slot, targetMove)));
+            }
+        }
+    }
+
+    /**
+     * Gets the chance of winning with a move, against the best target if
+     * the player chooses it and against the default target otherwise
+     *
+     * @return The chance, -1 if there is no estimate yet
+     */
+    private double getWinChance(int move) {
+        if (moveList[move] == null || !needsTarget(moveList[move])) {
+            return getWinChance(defaultTarget, move);
+        }
+        double best = -1;
+        for (int slot = 0; slot < winChances.length; slot++) {
+            best = Math.max(best, getWinChance(slot, move));
+        }
+        return best;
+    }
+
+    private double getWinChance(int target, int move) {
+        if (target < 0 || target >= winChances.length) {
+            return -1;
+        }
+        double[] chances = winChances[target];
+        return chances == null || move < 0 || move >= chances.length
+                ? -1 : chances[move];
+    }
+
+    private static String formatChance(double chance) {
+        return chance < 0 ? "" : Math.round(chance * 100) + "%";
+    }
+
+    private void cancelPrediction() {
+
+        if (predictionWorker != null) {
+            predictionWorker.cancel(true);
+            predictionWorker = null;
+        }
+        Arrays.fill(winChances, null);
+
+        for (JLabel hintLabel : hintLabels) {
+            hintLabel.setText("");
+        }
+        for (JLabel targetHint : targetHints) {
+            if (targetHint != null) {
+                targetHint.setText("");
+            }
+        }
     }
 
     private void addButton(GameController battleController, String move) {
         String moveName =
                 LanguageConfiguration.getInstance().getLocalMoveName(move);
-        JLabel button = new JLabel(moveName);
+        int moveIndex = buttonLabels.size();
+        JLabel button = createOption(moveName, () -> {
+
+            // The prediction goes on while a target is chosen, it is
+            // stopped before the move is passed on
+            if (needsTarget(move)) {
+                showTargets(battleController, move, moveIndex);
+            } else {
+                cancelPrediction();
+                battleController.selectMove(move);
+            }
+        });
 
         buttonLabels.add(button);
+        hintLabels.add(addRow(button));
+    }
+
+    /**
+     * Adds an option with the predicted chance of winning to its right
+     *
+     * @return The label of the chance
+     */
+    private JLabel addRow(JLabel button) {
+        JLabel hint = new JLabel("");
+        hint.setFont(new Font("Arial", Font.PLAIN, 16));
+        hint.setForeground(Color.LIGHT_GRAY);
+        hint.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 10));
+
+        JPanel row = new JPanel(new BorderLayout());
+        row.setOpaque(false);
+        row.add(button, BorderLayout.CENTER);
+        row.add(hint, BorderLayout.EAST);
+        add(row);
+        return hint;
+    }
+
+    private JLabel createOption(String text, Runnable action) {
+        JLabel button = new JLabel(text);
 
         // Center the button and increase font size
         button.setHorizontalAlignment(JLabel.CENTER);
@@ -107,13 +383,13 @@ public class MovePanel extends JPanel implements LanguageChangeListener {
 
             @Override
             public void mouseClicked(MouseEvent e) {
-                battleController.selectMove(move);
+                action.run();
                 soundHandler.playSound("select");
             }
 
         });
 
-        add(button);
+        return button;
     }
 
     /**
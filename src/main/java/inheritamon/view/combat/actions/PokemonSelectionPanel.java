@@ -2,16 +2,15 @@ package inheritamon.view.combat.actions;
 
 import inheritamon.controller.*;
 import inheritamon.model.*;
-import inheritamon.model.data.DataHandler;
 import inheritamon.model.npcs.Roster;
 import inheritamon.model.npcs.types.*;
 import inheritamon.view.SoundHandler;
+import inheritamon.view.SpriteCache;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.*;
 import java.awt.event.*;
-import java.awt.color.*;
 
 /**
  * @author Jeremias
@@ -47,8 +46,6 @@ public class PokemonSelectionPanel extends JPanel {
     private void setUpListener(BattleHandler battleHandler,
                                GameController battleController) {
 
-        DataHandler dataHandler = DataHandler.getInstance();
-
         battleHandler.addListener("playerRoster", e -> {
             playerPokemon = (Pokemon[]) e.getNewValue();
 
@@ -67,14 +64,10 @@ public class PokemonSelectionPanel extends JPanel {
                     continue;
                 }
 
-                BufferedImage imageToDisplay =
-                        getImageToDisplay(dataHandler, i);
+                BufferedImage imageToDisplay = getImageToDisplay(i);
 
-                // Create a label with the image and increase the size
-                JLabel label = new JLabel(
-                        new ImageIcon(
-                                imageToDisplay.getScaledInstance(SPRITE_SIZE,
-                                        SPRITE_SIZE, Image.SCALE_DEFAULT)));
+                // Create a label with the image, already at its size
+                JLabel label = new JLabel(new ImageIcon(imageToDisplay));
 
                 addInteraction(battleController, i, label);
 
@@ -105,38 +98,13 @@ public class PokemonSelectionPanel extends JPanel {
         }
     }
 
-    private BufferedImage getImageToDisplay(DataHandler dataHandler, int i) {
-        BufferedImage imageToDisplay =
-                dataHandler.getPokemonSprite(playerPokemon[i].getName())
-                        .get("front");
-
-        // If the pokemon fainted, make the image black and white. Use colorConvertOp
-        if (playerPokemon[i].isFainted()) {
-
-            imageToDisplay = convertToGrayscale(imageToDisplay);
-
-        }
-        return imageToDisplay;
-    }
-
-    private BufferedImage convertToGrayscale(BufferedImage imageToDisplay) {
-
-        // Make the image transparent
-        BufferedImage newImage = new BufferedImage(imageToDisplay.getWidth(),
-                imageToDisplay.getHeight(),
-                BufferedImage.TYPE_INT_ARGB);
-
-        // Create a color convert op
-        ColorConvertOp colorConvertOp =
-                new ColorConvertOp(ColorSpace.getInstance(ColorSpace.CS_GRAY),
-                        null);
-
-        // Use the filter to convert the image
-        colorConvertOp.filter(imageToDisplay, newImage);
+    private BufferedImage getImageToDisplay(int i) {
 
-        // Set the image to the new image
-        imageToDisplay = newImage;
-        return imageToDisplay;
+        // If the pokemon fainted, make the image black and white
+        SpriteCache.Variant variant = playerPokemon[i].isFainted()
+                ? SpriteCache.Variant.GRAYSCALE : SpriteCache.Variant.NORMAL;
+        return SpriteCache.getInstance().getPokemonSprite(
+                playerPokemon[i].getName(), SPRITE_SIZE, variant);
     }
 
 }
\ No newline at end of file
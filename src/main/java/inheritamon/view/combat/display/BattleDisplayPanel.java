@@ -14,6 +14,8 @@ import java.awt.image.BufferedImage;
  * pokemon during battle
  * It splits the screen into two halves, one for the player and one for
  * the enemy
+ * Each half holds a panel for every slot, slots that are empty in the
+ * current battle are hidden
  */
 public class BattleDisplayPanel extends JPanel {
 
@@ -38,15 +40,9 @@ public class BattleDisplayPanel extends JPanel {
         // Use a 2x1 grid layout
         setLayout(new GridLayout(1, 2));
 
-        // Two pokemon display panels
-        PokemonPanel playerPanel =
-                new PokemonPanel(DisplayType.PLAYER, battleHandler);
-        PokemonPanel enemyPanel =
-                new PokemonPanel(DisplayType.ENEMY, battleHandler);
-
-        // Add the panels to the display panel
-        add(playerPanel);
-        add(enemyPanel);
+        // Add a half for each side to the display panel
+        add(createSidePanel(DisplayType.PLAYER, battleHandler));
+        add(createSidePanel(DisplayType.ENEMY, battleHandler));
 
         // Add a border to the display panel with some thickness
         setBorder(BorderFactory.createLineBorder(Color.BLACK, 4));
@@ -55,6 +51,21 @@ public class BattleDisplayPanel extends JPanel {
 
     }
 
+    private JPanel createSidePanel(DisplayType type,
+                                   BattleHandler battleHandler) {
+
+        // A box layout ignores hidden panels, so one pokemon fills the half
+        JPanel sidePanel = new JPanel();
+        sidePanel.setLayout(new BoxLayout(sidePanel, BoxLayout.X_AXIS));
+        sidePanel.setOpaque(false);
+
+        for (int slot = 0; slot < BattleHandler.MAX_ACTIVE; slot++) {
+            sidePanel.add(new PokemonPanel(type, slot, battleHandler));
+        }
+
+        return sidePanel;
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
@@ -5,6 +5,7 @@ import inheritamon.model.BattleHandler;
 
 import javax.swing.*;
 import java.awt.*;
+import java.beans.IndexedPropertyChangeEvent;
 
 /**
  * @author Jeremias
@@ -18,9 +19,11 @@ public class PokemonPanel extends JPanel {
      * SpritePanel
      *
      * @param type          Whether the panel is for the player or the enemy
+     * @param slot          The slot of the pokemon on its side
      * @param battleHandler The battle handler
      */
-    public PokemonPanel(DisplayType type, BattleHandler battleHandler) {
+    public PokemonPanel(DisplayType type, int slot,
+                        BattleHandler battleHandler) {
 
         // Use a grid bag layout
         setLayout(new GridBagLayout());
@@ -28,20 +31,44 @@ public class PokemonPanel extends JPanel {
         // Make this panel transparent
         setOpaque(false);
 
+        // Only the first slot is used outside of double battles
+        setVisible(slot == 0);
+        addVisibilityListener(type, slot, battleHandler);
+
         // Use a ternary operator to set the y position of the stats panel and sprite
         int statsPanelY = (type == DisplayType.PLAYER) ? 0 : 1;
         int spritePanelY = (type == DisplayType.PLAYER) ? 1 : 0;
 
         // Add the stats panel and sprite panel to the Pokemon panel
-        addStatsPanel(statsPanelY, type, battleHandler);
-        addSpritePanel(spritePanelY, type, battleHandler);
+        addStatsPanel(statsPanelY, type, slot, battleHandler);
+        addSpritePanel(spritePanelY, type, slot, battleHandler);
+
+    }
 
+    private void addVisibilityListener(DisplayType type, int slot,
+                                       BattleHandler battleHandler) {
+
+        String eventName =
+                type == DisplayType.PLAYER ? "playerSprite" : "enemySprite";
+
+        // Hide the panel while its slot is empty
+        battleHandler.addListener("pokemonSprite", e -> {
+            IndexedPropertyChangeEvent event = (IndexedPropertyChangeEvent) e;
+            if (event.getPropertyName().equals(eventName) &&
+                    event.getIndex() == slot) {
+                boolean occupied = event.getNewValue() != null;
+                SwingUtilities.invokeLater(() -> {
+                    setVisible(occupied);
+                    getParent().revalidate();
+                });
+            }
+        });
     }
 
-    private void addStatsPanel(int yPosition, DisplayType type,
+    private void addStatsPanel(int yPosition, DisplayType type, int slot,
                                BattleHandler battleHandler) {
 
-        StatsPanel statsPanel = new StatsPanel(type, battleHandler);
+        StatsPanel statsPanel = new StatsPanel(type, slot, battleHandler);
 
         // GridBagConstraints, make the stats panel smaller than the sprite panel
         GridBagConstraints gbc = new GridBagConstraints();
@@ -55,10 +82,10 @@ public class PokemonPanel extends JPanel {
 
     }
 
-    private void addSpritePanel(int yPosition, DisplayType type,
+    private void addSpritePanel(int yPosition, DisplayType type, int slot,
                                 BattleHandler battleHandler) {
 
-        SpritePanel spritePanel = new SpritePanel(battleHandler, type);
+        SpritePanel spritePanel = new SpritePanel(battleHandler, type, slot);
 
         // GridBagConstraints, make the sprite panel larger than the stats panel
         GridBagConstraints gbc = new GridBagConstraints();
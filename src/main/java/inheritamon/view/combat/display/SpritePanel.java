@@ -5,6 +5,7 @@ import inheritamon.model.data.DataHandler;
 import inheritamon.view.combat.display.BattleDisplayPanel.DisplayType;
 
 import java.awt.image.BufferedImage;
+import java.beans.IndexedPropertyChangeEvent;
 import javax.swing.*;
 import java.util.*;
 import java.awt.*;
@@ -24,21 +25,24 @@ public class SpritePanel extends JPanel {
     private final DisplayType type;
 
     /**
-     * The pokemonImages HashMap contains all the pokemon sprites
+     * The slot of the pokemon on its side
      */
-    private final HashMap<String, HashMap<String, BufferedImage>> pokemonImages;
+    private final int slot;
+
 
     /**
      * Constructor for the SpritePanel class
      *
      * @param battleHandler The battle handler
      * @param type          Whether the panel is for the player or the enemy
+     * @param slot          The slot of the pokemon on its side
      */
-    public SpritePanel(BattleHandler battleHandler, DisplayType type) {
+    public SpritePanel(BattleHandler battleHandler, DisplayType type,
+                       int slot) {
 
         // Set the type
         this.type = type;
-        pokemonImages = DataHandler.getInstance().getAllCharacterSprites();
+        this.slot = slot;
         // setRequiredImage(battleHandler.getCurrentPokemonName(type));
         setUp(battleHandler);
 
@@ -87,12 +91,17 @@ public class SpritePanel extends JPanel {
 
     private void setRequiredImage(String pokemon) {
 
+        // Empty slots show nothing
         // If the type is enemy, simply get the front image.
         // Otherwise get the back image.
-        if (type == DisplayType.ENEMY) {
-            imageToDisplay = pokemonImages.get(pokemon).get("front");
+        if (pokemon == null) {
+            imageToDisplay = null;
+        } else if (type == DisplayType.ENEMY) {
+            imageToDisplay = DataHandler.getInstance()
+                    .getPokemonSprite(pokemon).get("front");
         } else {
-            imageToDisplay = pokemonImages.get(pokemon).get("back");
+            imageToDisplay = DataHandler.getInstance()
+                    .getPokemonSprite(pokemon).get("back");
         }
 
         revalidate();
@@ -109,10 +118,12 @@ public class SpritePanel extends JPanel {
                     type == DisplayType.PLAYER ? "playerSprite" : "enemySprite";
 
             // Check if the event is for the right pokemon
-            if (e.getPropertyName().equals(eventName)) {
+            IndexedPropertyChangeEvent event = (IndexedPropertyChangeEvent) e;
+            if (event.getPropertyName().equals(eventName) &&
+                    event.getIndex() == slot) {
 
                 // Get the right pokemon name
-                String pokemonName = e.getNewValue().toString();
+                String pokemonName = (String) event.getNewValue();
                 System.out.println("Pokemon name: " + pokemonName);
                 setRequiredImage(pokemonName);
 
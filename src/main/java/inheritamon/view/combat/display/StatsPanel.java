@@ -6,6 +6,7 @@ import inheritamon.model.BattleHandler;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.beans.IndexedPropertyChangeEvent;
 import java.lang.reflect.*;
 
 /**
@@ -27,14 +28,22 @@ public class StatsPanel extends JPanel {
      */
     private final DisplayType type;
 
+    /**
+     * The slot of the pokemon on its side
+     */
+    private final int slot;
+
     /**
      * Constructor for the StatsPanel class
      *
      * @param type          The type of the panel
+     * @param slot          The slot of the pokemon on its side
      * @param battleHandler The battle handler
      */
-    public StatsPanel(DisplayType type, BattleHandler battleHandler) {
+    public StatsPanel(DisplayType type, int slot,
+                      BattleHandler battleHandler) {
         this.type = type;
+        this.slot = slot;
         setUp(battleHandler);
         setOpaque(false);
     }
@@ -96,7 +105,9 @@ public class StatsPanel extends JPanel {
                     type == DisplayType.PLAYER ? "playerStats" : "enemyStats";
 
             // Check if the event is for the right pokemon
-            if (e.getPropertyName().equals(eventName)) {
+            IndexedPropertyChangeEvent event = (IndexedPropertyChangeEvent) e;
+            if (event.getPropertyName().equals(eventName) &&
+                    event.getIndex() == slot) {
 
                 // Convert e into and array of ints and get the values
                 int[] stats = (int[]) e.getNewValue();
@@ -4,11 +4,20 @@ import javax.swing.*;
 
 import inheritamon.controller.MenuController;
 import inheritamon.model.GameModel;
+import inheritamon.model.data.AssetPreloader;
+import inheritamon.model.data.LoadingProgress;
 import inheritamon.model.data.language.*;
+import inheritamon.model.save.SaveSlots;
+import inheritamon.model.save.SlotSummary;
 import inheritamon.view.SoundHandler;
 
 import java.awt.*;
 import java.awt.event.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutionException;
 
 /**
  * @author Jeremias
@@ -36,14 +45,55 @@ public class MainMenuPanel extends JPanel implements LanguageChangeListener {
      */
     private final JLabel[] buttons = new JLabel[NUMBER_OF_PANELS];
 
+    /**
+     * Shows how many assets have been loaded in the background
+     */
+    private final JProgressBar loadingBar = new JProgressBar();
+
+    /**
+     * Lists the save slots when starting or continuing a game
+     */
+    private final JPanel slotPanel = new JPanel();
+
+    /**
+     * The labels of the save slots
+     */
+    private final JLabel[] slotLabels = new JLabel[SaveSlots.SLOT_COUNT];
+
+    /**
+     * The summaries of the slots that are shown, null for an empty slot
+     */
+    private SlotSummary[] summaries = new SlotSummary[SaveSlots.SLOT_COUNT];
+
+    /**
+     * Whether a slot is chosen for a new game instead of to continue
+     */
+    private boolean choosingNewGame;
+
+    /**
+     * Rebuilds the summaries of the slots, null while none are rebuilt
+     */
+    private SwingWorker<SlotSummary[], Void> slotWorker;
+
+    /**
+     * The menu controller, used to read the save slots
+     */
+    private final MenuController controller;
+
+    private static final DateTimeFormatter SAVED_AT_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     /**
      * Constructor for the MainMenuPanel
      *
      * @param controller The menu controller
      * @param model      The game model
+     * @param preloader  The preloader whose progress is shown
      */
-    public MainMenuPanel(MenuController controller, GameModel model) {
+    public MainMenuPanel(MenuController controller, GameModel model,
+                         AssetPreloader preloader) {
 
+        this.controller = controller;
         addLanguageListener();
 
         setLayout(new GridBagLayout());
@@ -62,6 +112,8 @@ public class MainMenuPanel extends JPanel implements LanguageChangeListener {
 
         addButtons(config, controller);
 
+        addSlotPanel(config, controller);
+
         // Set the background color
         setBackground(Color.WHITE);
 
@@ -82,6 +134,44 @@ public class MainMenuPanel extends JPanel implements LanguageChangeListener {
         });
 
         addLanguageSwitch(languageButton);
+
+        addLoadingBar(preloader);
+    }
+
+    private void addLoadingBar(AssetPreloader preloader) {
+        loadingBar.setStringPainted(true);
+        loadingBar.setVisible(false);
+
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.gridx = 0;
+        gbc.gridy = 3 + NUMBER_OF_PANELS;
+        gbc.insets = new Insets(20, 20, 20, 20);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        add(loadingBar, gbc);
+
+        // The progress is reported from the loading threads
+        preloader.addProgressListener(e -> {
+            LoadingProgress progress = (LoadingProgress) e.getNewValue();
+            SwingUtilities.invokeLater(() -> showProgress(progress));
+        });
+    }
+
+    private void showProgress(LoadingProgress progress) {
+        // Nothing is known before the assets have been listed
+        if (progress.getFileCount() == 0) {
+            return;
+        }
+
+        // The bar is only needed while loading
+        if (progress.isDone()) {
+            loadingBar.setVisible(false);
+            return;
+        }
+
+        loadingBar.setVisible(true);
+        loadingBar.setMaximum(progress.getFileCount());
+        loadingBar.setValue(progress.getFilesDone());
+        loadingBar.setString(progress.toString());
     }
 
     private void addLanguageSwitch(JButton languageButton) {
@@ -147,17 +237,202 @@ public class MainMenuPanel extends JPanel implements LanguageChangeListener {
 
     }
 
+    private void addSlotPanel(LanguageConfiguration config,
+                              MenuController controller) {
+        slotPanel.setLayout(new BoxLayout(slotPanel, BoxLayout.Y_AXIS));
+        slotPanel.setBackground(Color.WHITE);
+        slotPanel.setVisible(false);
+
+        Font slotFont = new Font("Arial", Font.BOLD, 20);
+        for (int i = 0; i < slotLabels.length; i++) {
+            slotLabels[i] = new JLabel();
+            slotLabels[i].setFont(slotFont);
+            slotLabels[i].setAlignmentX(Component.CENTER_ALIGNMENT);
+            slotLabels[i].setBorder(
+                    BorderFactory.createEmptyBorder(10, 0, 10, 0));
+
+            final int slot = i;
+            slotLabels[i].addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseEntered(MouseEvent e) {
+                    if (canChoose(slot)) {
+                        slotLabels[slot].setForeground(Color.RED);
+                    }
+                }
+
+                @Override
+                public void mouseExited(MouseEvent e) {
+                    slotLabels[slot].setForeground(getSlotColor(slot));
+                }
+
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (canChoose(slot)) {
+                        chooseSlot(slot, controller);
+                    }
+                }
+            });
+            slotPanel.add(slotLabels[i]);
+        }
+
+        JLabel backLabel = new JLabel(config.getText("Back"));
+        backLabel.setFont(slotFont);
+        backLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        backLabel.setBorder(BorderFactory.createEmptyBorder(20, 0, 10, 0));
+        backLabel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseEntered(MouseEvent e) {
+                backLabel.setForeground(Color.RED);
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                backLabel.setForeground(Color.BLACK);
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                soundHandler.playSound("select");
+                showSlots(false);
+            }
+        });
+        slotPanel.add(backLabel);
+        config.addLanguageChangeListener(
+                e -> backLabel.setText(config.getText("Back")));
+
+        // The slots take the place of the buttons
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.gridx = 0;
+        gbc.gridy = 3;
+        gbc.gridheight = NUMBER_OF_PANELS;
+        gbc.insets = new Insets(20, 20, 20, 20);
+        add(slotPanel, gbc);
+    }
+
+    /**
+     * Shows the save slots instead of the buttons, or the buttons again
+     *
+     * @param show True to show the slots
+     */
+    private void showSlots(boolean show) {
+        if (show && controller.slotsNeedRebuild()) {
+            rebuildSlots();
+            return;
+        }
+        if (show) {
+            // Only the slot index and the headers of the saves are read
+            summaries = controller.getSlotSummaries();
+            updateSlotLabels();
+        }
+        setSlotsVisible(show);
+    }
+
+    /**
+     * Rebuilds the summaries of the slots in the background and shows the
+     * slots once they are read. Rebuilding loads the saves, which is too
+     * slow for the event dispatch thread, but only happens when the slot
+     * index is new or damaged.
+     */
+    private void rebuildSlots() {
+        if (slotWorker != null) {
+            return;
+        }
+
+        slotWorker = new SwingWorker<>() {
+
+            @Override
+            protected SlotSummary[] doInBackground() {
+                return controller.getSlotSummaries();
+            }
+
+            @Override
+            protected void done() {
+                slotWorker = null;
+                try {
+                    summaries = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    // The slots are still shown, as empty as far as known
+                    System.out.println("Cannot read the save slots: " + e);
+                    summaries = new SlotSummary[SaveSlots.SLOT_COUNT];
+                }
+                updateSlotLabels();
+                setSlotsVisible(true);
+            }
+
+        };
+
+        slotWorker.execute();
+    }
+
+    private void setSlotsVisible(boolean show) {
+        for (JLabel button : buttons) {
+            button.setVisible(!show);
+        }
+        slotPanel.setVisible(show);
+        revalidate();
+        repaint();
+    }
+
+    private void updateSlotLabels() {
+        LanguageConfiguration config = LanguageConfiguration.getInstance();
+        for (int slot = 0; slot < slotLabels.length; slot++) {
+            SlotSummary summary = summaries[slot];
+            if (summary == null) {
+                slotLabels[slot].setText(String.format(
+                        config.getText("SlotEmpty"), slot + 1));
+            } else {
+                String savedAt = SAVED_AT_FORMAT.format(LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(summary.savedAt()),
+                        ZoneId.systemDefault()));
+                slotLabels[slot].setText(String.format(
+                        config.getText("SlotSummary"), slot + 1,
+                        summary.leadSpecies(), summary.rosterSize(),
+                        summary.coins(), formatPlayTime(summary.playTime()),
+                        savedAt));
+            }
+            slotLabels[slot].setForeground(getSlotColor(slot));
+        }
+    }
+
+    private static String formatPlayTime(long millis) {
+        long minutes = millis / 60000;
+        return String.format("%d:%02d", minutes / 60, minutes % 60);
+    }
+
+    private boolean canChoose(int slot) {
+        // An empty slot cannot be continued
+        return choosingNewGame || summaries[slot] != null;
+    }
+
+    private Color getSlotColor(int slot) {
+        return canChoose(slot) ? Color.BLACK : Color.GRAY;
+    }
+
+    private void chooseSlot(int slot, MenuController controller) {
+        soundHandler.playSound("select");
+        showSlots(false);
+        if (choosingNewGame) {
+            controller.startGame(slot);
+        } else {
+            controller.continueGame(slot);
+        }
+    }
+
     private void handleClick(int index, MenuController controller) {
 
         soundHandler.playSound("select");
 
         switch (index) {
-            case 0 ->
-                // Start game
-                    controller.startGame();
-            case 1 ->
-                // Continue game
-                    controller.continueGame();
+            case 0 -> {
+                // Choose the slot for the new game
+                choosingNewGame = true;
+                showSlots(true);
+            }
+            case 1 -> {
+                // Choose the slot to continue
+                choosingNewGame = false;
+                showSlots(true);
+            }
             case 2 -> {
                 // Exit game
                 System.out.println("Exit game");
@@ -190,6 +465,9 @@ public class MainMenuPanel extends JPanel implements LanguageChangeListener {
             for (int i = 0; i < buttonStrings.length; i++) {
                 buttons[i].setText(buttonStrings[i]);
             }
+            if (slotPanel.isVisible()) {
+                updateSlotLabels();
+            }
         });
     }
 
@@ -200,8 +478,13 @@ public class MainMenuPanel extends JPanel implements LanguageChangeListener {
      */
     public void addGameStateListener(GameModel model) {
 
-        model.addGameStateListener(e -> setVisible(
-                e.getNewValue() == GameModel.GameState.MAIN_MENU));
+        model.addGameStateListener(e -> {
+            boolean mainMenu = e.getNewValue() == GameModel.GameState.MAIN_MENU;
+            if (mainMenu) {
+                showSlots(false);
+            }
+            setVisible(mainMenu);
+        });
     }
 
 }
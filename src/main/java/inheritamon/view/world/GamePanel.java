@@ -86,8 +86,13 @@ public class GamePanel extends JPanel {
 
     private void setUpListener(GameModel gameModel) {
 
-        gameModel.addGameStateListener(
-                e -> setVisible(e.getNewValue() == GameState.GAME_START));
+        gameModel.addGameStateListener(e -> {
+            boolean started = e.getNewValue() == GameState.GAME_START;
+            if (started) {
+                worldPanel.loadWorldState(gameModel.getWorldState());
+            }
+            setVisible(started);
+        });
 
     }
 
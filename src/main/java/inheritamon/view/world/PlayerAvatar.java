@@ -1,10 +1,12 @@
 package inheritamon.view.world;
 
+import inheritamon.model.GameModel;
 import inheritamon.model.data.DataHandler;
+import inheritamon.model.data.TextureAtlas;
+import inheritamon.model.world.WorldState;
 import inheritamon.model.world.entity.Entity;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
 
 /**
  * @author Stanislav
@@ -18,7 +20,8 @@ public class PlayerAvatar extends Entity {
     public final int screenX;
     public final int screenY;
 
-    int hasKey = 0;
+    // The frame that was drawn last, kept when there is no frame to change to
+    private TextureAtlas.Region currentImage;
 
     /**
      * Constructor for the player avatar
@@ -117,6 +120,12 @@ public class PlayerAvatar extends Entity {
                         worldX += speed;
                         break;
                 }
+
+                // Keep the position in the model so it is saved
+                WorldState world = GameModel.getInstance().getWorldState();
+                if (world != null) {
+                    world.setPosition(gp.tileM.mapName, worldX, worldY);
+                }
             }
 
             // Switches the animation for the character sprite (when faced in a certain
@@ -141,16 +150,22 @@ public class PlayerAvatar extends Entity {
         if(i != 999) {
 
             String objectName = gp.obj[i].name;
+            GameModel gm = GameModel.getInstance();
+            WorldState world = gm.getWorldState();
+            if (world == null) {
+                return;
+            }
 
             switch (objectName) {
                 case "Key":
-                    hasKey++;
+                    world.addKey();
                     gp.obj[i] = null;
+                    gm.objectCollected(gp.tileM.mapName, i);
                     break;
                 case "Door":
-                    if(hasKey > 0) {
+                    if(world.useKey()) {
                         gp.obj[i] = null;
-                        hasKey--;
+                        gm.objectCollected(gp.tileM.mapName, i);
                     }
                     break;
             }
@@ -165,7 +180,7 @@ public class PlayerAvatar extends Entity {
         // g2.setColor(Color.white);
         // g2.fillRect(screenX, screenY, gp.tileSize, gp.tileSize);
 
-        BufferedImage image = null;
+        TextureAtlas.Region image = null;
         // determine the proper facing based on the input
         switch (direction) {
             case "up":
@@ -202,7 +217,18 @@ public class PlayerAvatar extends Entity {
                 }
                 break;
         }
+
+        // An unknown direction or frame keeps the current frame, before the
+        // first frame the avatar stands facing down
+        if (image == null) {
+            image = currentImage != null ? currentImage : down1;
+        }
+        if (image == null) {
+            return;
+        }
+        currentImage = image;
+
         // draw character
-        g2.drawImage(image, screenX, screenY, gp.tileSize, gp.tileSize, null);
+        image.draw(g2, screenX, screenY, gp.tileSize, gp.tileSize);
     }
 }
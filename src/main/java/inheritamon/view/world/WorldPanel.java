@@ -1,5 +1,6 @@
 package inheritamon.view.world;
 
+import inheritamon.model.world.WorldState;
 import inheritamon.model.world.assets.*;
 import inheritamon.model.world.tile.*;
 import inheritamon.view.world.sidebar.SidePanel;
@@ -43,6 +44,9 @@ public class WorldPanel extends JLayeredPane implements Runnable { // has all th
     int playerY = 100;
     int playerSpeed = 4;
 
+    // The world state of a game that was started, applied on the game thread
+    private volatile WorldState pendingWorld;
+
     /**
      * Constructor for the world panel
      * @param sidePanel the side panel
@@ -100,9 +104,45 @@ public class WorldPanel extends JLayeredPane implements Runnable { // has all th
      */
     public void update() {
 
+        WorldState world = pendingWorld;
+        if (world != null) {
+            pendingWorld = null;
+            applyWorldState(world);
+        }
+
         playerAvatar.update();
     }
 
+    /**
+     * Shows the world as it was saved, the objects that were collected are
+     * removed and the avatar is placed where it was
+     * @param world the world state of the game that was started
+     */
+    public void loadWorldState(WorldState world) {
+        if (world != null) {
+            pendingWorld = world;
+        }
+    }
+
+    private void applyWorldState(WorldState world) {
+        String map = tileM.mapName;
+
+        aSetter.setObject();
+        for (int i = 0; i < obj.length; i++) {
+            if (world.isCollected(map, i)) {
+                obj[i] = null;
+            }
+        }
+
+        if (world.hasPosition() && map.equals(world.getMap())) {
+            playerAvatar.worldX = world.getX();
+            playerAvatar.worldY = world.getY();
+        } else {
+            playerAvatar.setDefaultValues();
+            world.setPosition(map, playerAvatar.worldX, playerAvatar.worldY);
+        }
+    }
+
     @Override
     public void paintComponent(Graphics g) {
 
@@ -1,9 +1,9 @@
 package inheritamon.view.world.sidebar;
 
 import inheritamon.model.GameModel;
-import inheritamon.model.data.DataHandler;
 import inheritamon.model.inventory.Inventory;
 import inheritamon.model.inventory.Item;
+import inheritamon.view.SpriteCache;
 
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
@@ -12,7 +12,6 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.Image;
 import java.awt.image.BufferedImage;
 
 /**
@@ -86,15 +85,11 @@ public class InventoryPanel extends JPanel {
 
         gbc.gridx = 0;
 
-        DataHandler dataHandler = DataHandler.getInstance();
-        String spriteName = dataHandler.getItemData(item.getItemName()).get("Sprite");
-        BufferedImage itemImage = dataHandler.getItemSprite(spriteName);
-        
+        String spriteName = item.getItemSprite();
         int spriteSize = 100;
-        JLabel imageLabel = new JLabel(
-                new ImageIcon(
-                        itemImage.getScaledInstance(spriteSize, spriteSize,
-                                Image.SCALE_DEFAULT)));
+        BufferedImage itemImage =
+                SpriteCache.getInstance().getItemSprite(spriteName, spriteSize);
+        JLabel imageLabel = new JLabel(new ImageIcon(itemImage));
         add(imageLabel, gbc);
 
         // Configure the name
@@ -3,6 +3,7 @@ package inheritamon.view.world.sidebar;
 import inheritamon.controller.GameController;
 import inheritamon.model.GameModel;
 import inheritamon.model.npcs.types.Pokemon;
+import inheritamon.view.SpriteCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -82,12 +83,10 @@ public class PokemonDataPanel extends JPanel {
         gbc.gridy = i + 1;
 
         gbc.gridx = 0;
-        BufferedImage pokemonImage = pokemon.getSpeciesImage();
         int spriteSize = 100;
-        JLabel imageLabel = new JLabel(
-                new ImageIcon(
-                        pokemonImage.getScaledInstance(spriteSize, spriteSize,
-                                Image.SCALE_DEFAULT)));
+        BufferedImage pokemonImage = SpriteCache.getInstance().getPokemonSprite(
+                pokemon.getSpeciesName(), spriteSize, SpriteCache.Variant.NORMAL);
+        JLabel imageLabel = new JLabel(new ImageIcon(pokemonImage));
         add(imageLabel, gbc);
 
         // Configure the name
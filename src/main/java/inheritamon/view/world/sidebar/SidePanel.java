@@ -3,12 +3,15 @@ package inheritamon.view.world.sidebar;
 import inheritamon.controller.GameController;
 import inheritamon.model.data.language.LanguageChangeListener;
 import inheritamon.model.data.language.LanguageConfiguration;
+import inheritamon.model.save.SaveResult;
 import inheritamon.view.SoundHandler;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Font;
@@ -34,6 +37,10 @@ public class SidePanel extends JPanel implements LanguageChangeListener {
     private JPanel inventoryPanel;
     private GameController gameController;
 
+    private static final int SAVE_BUTTON = 5;
+    private static final int SAVE_MESSAGE_MILLIS = 2000;
+    private Timer saveMessageTimer;
+
     /**
      * Constructor for the SidePanel class.
      *
@@ -78,6 +85,37 @@ public class SidePanel extends JPanel implements LanguageChangeListener {
         addMotionListener();
 
         addClickListener();
+
+        addSaveListener();
+    }
+
+    private void addSaveListener() {
+        // Saves are written in the background, show when they are done
+        gameController.addSaveListener(e -> {
+            SaveResult result = (SaveResult) e.getNewValue();
+            SwingUtilities.invokeLater(() -> showSaveResult(result));
+        });
+    }
+
+    private void showSaveResult(SaveResult result) {
+        LanguageConfiguration config = LanguageConfiguration.getInstance();
+        JLabel saveLabel = buttonLabels.get(SAVE_BUTTON);
+
+        if (result.isSuccess()) {
+            saveLabel.setText(config.getText("Saved"));
+        } else {
+            saveLabel.setText(String.format(config.getText("SaveFailed"),
+                    result.error().getMessage()));
+        }
+
+        // Show the option again after a moment
+        if (saveMessageTimer != null) {
+            saveMessageTimer.stop();
+        }
+        saveMessageTimer = new Timer(SAVE_MESSAGE_MILLIS,
+                e -> saveLabel.setText(options.get(SAVE_BUTTON)));
+        saveMessageTimer.setRepeats(false);
+        saveMessageTimer.start();
     }
 
     private void addLabels(Font optionFont) {
@@ -168,40 +206,49 @@ public class SidePanel extends JPanel implements LanguageChangeListener {
                 gameController.beginRandomBattle();
                 break;
             case 1:
+                System.out.println("Trainer Battle");
+                gameController.beginTrainerBattle();
+                break;
+            case 2:
+                System.out.println("Double Battle");
+                gameController.beginDoubleBattle();
+                break;
+            case 3:
                 // Open the items menu
                 System.out.println("Items");
                 inventoryPanel.setVisible(!inventoryPanel.isVisible());
                 pokemonDataPanel.setVisible(false);
                 break;
-            case 2:
+            case 4:
                 // Open the pokemon menu
                 System.out.println("Pokemon");
                 pokemonDataPanel.setVisible(!pokemonDataPanel.isVisible());
                 inventoryPanel.setVisible(false);
                 break;
-            case 3:
+            case 5:
                 // Save the game
                 System.out.println("Save");
                 gameController.saveGame();
                 break;
-            case 4:
+            case 6:
                 // Minimize the menu
                 System.out.println("Minimize Menu");
                 setVisible(false);
                 pokemonDataPanel.setVisible(false);
                 inventoryPanel.setVisible(false);
                 break;
-            case 5:
+            case 7:
                 System.out.println("To Title");
                 setVisible(false);
                 pokemonDataPanel.setVisible(false);
                 inventoryPanel.setVisible(false);
                 gameController.returnToMainMenu();
                 break;
-            case 6:
+            case 8:
                 // Exit the game
                 System.out.println("Exit Game");
-                gameController.saveGame();
+                // Wait for the save so it is not cut off
+                gameController.saveGameAndWait();
                 System.exit(0);
                 break;
         }